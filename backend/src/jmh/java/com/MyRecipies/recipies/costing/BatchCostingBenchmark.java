@@ -0,0 +1,126 @@
+package com.MyRecipies.recipies.costing;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.entities.Product;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.entities.RecipeItem;
+import com.MyRecipies.recipies.entities.enums.UnitType;
+
+/**
+ * Total de custo de todas as receitas de um lote: entidades com
+ * {@link Recipe#calculateTotalCost()} contra arrays primitivos (escalar e Vector API).
+ * Execução: {@code ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=BatchCostingBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@State(Scope.Benchmark)
+public class BatchCostingBenchmark {
+
+    private static final int ITEMS_PER_RECIPE = 12;
+
+    @Param({ "200000" })
+    private int itemCount;
+
+    private List<Recipe> recipes;
+
+    private long[] unitCosts;
+    private long[] quantities;
+    private long[] itemTotals;
+    private int[] recipeStart;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+
+        int recipeCount = itemCount / ITEMS_PER_RECIPE;
+        recipes = new ArrayList<>(recipeCount);
+
+        unitCosts = new long[recipeCount * ITEMS_PER_RECIPE];
+        quantities = new long[unitCosts.length];
+        itemTotals = new long[unitCosts.length];
+        recipeStart = new int[recipeCount + 1];
+
+        int item = 0;
+        for (int r = 0; r < recipeCount; r++) {
+
+            Product product = new Product();
+            product.setPrice(new BigDecimal("89.90"));
+
+            Recipe recipe = new Recipe();
+            recipe.setProduct(product);
+            recipe.setAmount(12);
+
+            recipeStart[r] = item;
+            for (int i = 0; i < ITEMS_PER_RECIPE; i++) {
+                Ingredient ingredient = new Ingredient();
+                ingredient.setPriceCost(BigDecimal.valueOf(random.nextInt(5_000) + 100, 2));
+                ingredient.setQuantityPerUnit(BigDecimal.valueOf(random.nextInt(999) + 1));
+                ingredient.setUnit(UnitType.GRAM);
+
+                RecipeItem recipeItem = new RecipeItem();
+                recipeItem.setIngredient(ingredient);
+                recipeItem.setQuantity(BigDecimal.valueOf(random.nextInt(2_000) + 1, 1));
+                recipe.addItem(recipeItem);
+
+                unitCosts[item] = ingredient.calculateUnitCostMicros();
+                quantities[item] = FixedPoint.toMicros(recipeItem.getQuantity());
+                item++;
+            }
+            recipes.add(recipe);
+        }
+        recipeStart[recipeCount] = item;
+    }
+
+    @Benchmark
+    public BigDecimal entityCalculateTotalCost() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (Recipe recipe : recipes) {
+            for (RecipeItem item : recipe.getItems()) {
+                item.applyUnitCost(item.getIngredient().calculateUnitCostMicros());
+            }
+            sum = sum.add(recipe.calculateTotalCost());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long[] scalarArrays() {
+        BatchCosting.scalarItemTotals(unitCosts, quantities, itemTotals, 0, itemTotals.length);
+        return sumPerRecipe();
+    }
+
+    @Benchmark
+    public long[] batchCosting() {
+        BatchCosting.itemTotals(unitCosts, quantities, itemTotals, 0, itemTotals.length);
+        return sumPerRecipe();
+    }
+
+    private long[] sumPerRecipe() {
+        long[] totals = new long[recipeStart.length - 1];
+        for (int r = 0; r < totals.length; r++) {
+            totals[r] = CostingEngine.sum(itemTotals, recipeStart[r], recipeStart[r + 1]);
+        }
+        return totals;
+    }
+}
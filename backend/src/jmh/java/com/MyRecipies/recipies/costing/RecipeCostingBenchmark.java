@@ -0,0 +1,119 @@
+package com.MyRecipies.recipies.costing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.entities.Product;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.entities.RecipeItem;
+import com.MyRecipies.recipies.entities.enums.UnitType;
+
+/**
+ * Compara o cálculo financeiro antigo (cadeia de BigDecimal) com o motor de
+ * ponto fixo. Execução: {@code ./mvnw -Pjmh test-compile exec:exec}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecipeCostingBenchmark {
+
+    @Param({ "10", "40" })
+    private int itemCount;
+
+    private Recipe recipe;
+    private List<RecipeItem> items;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+
+        Product product = new Product();
+        product.setPrice(new BigDecimal("89.90"));
+
+        recipe = new Recipe();
+        recipe.setProduct(product);
+        recipe.setAmount(12);
+
+        items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setPriceCost(BigDecimal.valueOf(random.nextInt(5_000) + 100, 2));
+            ingredient.setQuantityPerUnit(BigDecimal.ONE);
+            ingredient.setUnit(UnitType.KILOGRAM);
+
+            RecipeItem item = new RecipeItem();
+            item.setIngredient(ingredient);
+            item.setQuantity(BigDecimal.valueOf(random.nextInt(2_000) + 1, 3));
+            item.calculateSnapshot();
+            recipe.addItem(item);
+            items.add(item);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal[] bigDecimalFinancials() {
+
+        BigDecimal totalCost = items.stream()
+                .map(RecipeItem::getTotalCost)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .setScale(2, RoundingMode.HALF_UP);
+
+        BigDecimal costPerUnit = totalCost.divide(new BigDecimal(recipe.getAmount()), 2, RoundingMode.HALF_UP);
+
+        BigDecimal salePrice = recipe.getProduct().getPrice();
+        BigDecimal profit = salePrice.subtract(totalCost).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal margin = profit.divide(salePrice, 2, RoundingMode.HALF_UP)
+                .multiply(new BigDecimal(100))
+                .setScale(2, RoundingMode.HALF_UP);
+
+        return new BigDecimal[] { totalCost, costPerUnit, profit, margin };
+    }
+
+    @Benchmark
+    public RecipeFinancials fixedPointFinancials() {
+        return CostingEngine.financials(recipe.calculateTotalCostMicros(), recipe.getAmount(),
+                FixedPoint.toMicros(recipe.getProduct().getPrice()), CostingEngine.RECIPE_MARGIN_DIGITS);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalItemSnapshots() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (RecipeItem item : items) {
+            BigDecimal unitCost = item.getIngredient().getPriceCost()
+                    .divide(item.getIngredient().getQuantityPerUnit());
+            total = total.add(unitCost.multiply(item.getQuantity()));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long fixedPointItemSnapshots() {
+        long total = 0L;
+        for (RecipeItem item : items) {
+            long unitCost = FixedPoint.divide(FixedPoint.toMicros(item.getIngredient().getPriceCost()),
+                    FixedPoint.toMicros(item.getIngredient().getQuantityPerUnit()));
+            total += CostingEngine.itemTotal(unitCost, FixedPoint.toMicros(item.getQuantity()));
+        }
+        return total;
+    }
+}
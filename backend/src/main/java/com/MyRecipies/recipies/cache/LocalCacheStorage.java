@@ -0,0 +1,121 @@
+package com.MyRecipies.recipies.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import com.MyRecipies.recipies.dto.CacheRegionStatsDTO;
+
+/**
+ * Uma região do cache de segundo nível: mapa LRU limitado a {@code maxEntries},
+ * com expiração por entrada depois de {@code ttlMillis} (zero não expira).
+ */
+public class LocalCacheStorage implements DomainDataStorageAccess {
+
+    private final String region;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<Object, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LocalCacheStorage(String region, int maxEntries, long ttlMillis) {
+        this.region = region;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if (size() > LocalCacheStorage.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+
+        Object value = get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+
+        long expiresAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE;
+        synchronized (entries) {
+            entries.put(key, new Entry(value, expiresAt));
+        }
+        puts.increment();
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void evictData() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public void evictData(Object key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    public void release() {
+        evictData();
+    }
+
+    public CacheRegionStatsDTO stats() {
+
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheRegionStatsDTO(region, size, maxEntries, ttlMillis / 1000, hits.sum(), misses.sum(),
+                puts.sum(), evictions.sum());
+    }
+
+    private Object get(Object key) {
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                evictions.increment();
+                return null;
+            }
+            return entry.value();
+        }
+    }
+
+    private record Entry(Object value, long expiresAt) {
+    }
+}
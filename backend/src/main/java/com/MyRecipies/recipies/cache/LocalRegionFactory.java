@@ -0,0 +1,86 @@
+package com.MyRecipies.recipies.cache;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import com.MyRecipies.recipies.dto.CacheRegionStatsDTO;
+
+/**
+ * Provedor do cache de segundo nível do Hibernate em memória local. Cada região
+ * lê o tamanho e o TTL de {@code hibernate.cache.local.<região>.max-entries} e
+ * {@code .ttl-seconds}, com {@code hibernate.cache.local.default.*} como
+ * padrão. A região de timestamps nunca expira nem descarta entradas: perder
+ * uma delas faria o cache de consultas devolver resultados velhos.
+ */
+public class LocalRegionFactory extends RegionFactoryTemplate {
+
+    public static final String PREFIX = "hibernate.cache.local.";
+
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+    private static final long DEFAULT_TTL_SECONDS = 600;
+
+    private final Map<String, LocalCacheStorage> regions = new ConcurrentHashMap<>();
+    private Map<String, Object> configValues = Map.of();
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        this.configValues = new HashMap<>(configValues);
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(LocalCacheStorage::release);
+        regions.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+            DomainDataRegionBuildingContext buildingContext) {
+        return storage(regionConfig.getRegionName());
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+            SessionFactoryImplementor sessionFactory) {
+        return storage(regionName);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+            SessionFactoryImplementor sessionFactory) {
+        return regions.computeIfAbsent(regionName, name -> new LocalCacheStorage(name, Integer.MAX_VALUE, 0));
+    }
+
+    public List<CacheRegionStatsDTO> stats() {
+        return regions.values().stream()
+                .map(LocalCacheStorage::stats)
+                .sorted(Comparator.comparing(CacheRegionStatsDTO::getRegion))
+                .toList();
+    }
+
+    private LocalCacheStorage storage(String regionName) {
+        return regions.computeIfAbsent(regionName, name -> new LocalCacheStorage(name,
+                (int) setting(name, "max-entries", DEFAULT_MAX_ENTRIES),
+                setting(name, "ttl-seconds", DEFAULT_TTL_SECONDS) * 1000));
+    }
+
+    private long setting(String region, String key, long defaultValue) {
+
+        Object value = configValues.get(PREFIX + region + "." + key);
+        if (value == null) {
+            value = configValues.get(PREFIX + "default." + key);
+        }
+        return value == null ? defaultValue : Long.parseLong(value.toString().trim());
+    }
+}
@@ -0,0 +1,86 @@
+package com.MyRecipies.recipies.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.MyRecipies.recipies.dto.CacheRegionStatsDTO;
+
+/**
+ * Cache dos dados de login por e-mail (senha e papéis), limitado e com TTL.
+ * Vários logins simultâneos do mesmo usuário com o cache frio fazem uma única
+ * consulta: os demais esperam o resultado de quem chegou primeiro.
+ * <p>
+ * O cache é local de cada instância e o {@link UserCacheInvalidator} só limpa o
+ * da instância que gravou. Com várias instâncias, as outras podem aceitar a senha
+ * antiga ou os papéis antigos por até {@code users.cache.ttl-seconds} depois da
+ * alteração; diminua o TTL se essa janela for grande demais.
+ */
+@Component
+public class UserCache {
+
+    public static final String REGION = "users";
+
+    private final LocalCacheStorage storage;
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    // uma invalidação no meio de uma carga impede que o valor antigo seja gravado
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserCache(@Value("${users.cache.max-entries:10000}") int maxEntries,
+            @Value("${users.cache.ttl-seconds:300}") long ttlSeconds) {
+        storage = new LocalCacheStorage(REGION, maxEntries, ttlSeconds * 1000);
+    }
+
+    /**
+     * Devolve o valor em cache ou carrega com {@code loader}. Resultado nulo não
+     * é guardado.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String email, Supplier<T> loader) {
+
+        Object cached = storage.getFromCache(email, null);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loading.putIfAbsent(email, mine);
+        if (inFlight != null) {
+            try {
+                return (T) inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            long generation = invalidations.get();
+            T value = loader.get();
+            if (value != null && generation == invalidations.get()) {
+                storage.putIntoCache(email, value, null);
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(email, mine);
+        }
+    }
+
+    public void invalidate(String email) {
+        invalidations.incrementAndGet();
+        storage.evictData(email);
+    }
+
+    public CacheRegionStatsDTO stats() {
+        return storage.stats();
+    }
+}
@@ -0,0 +1,126 @@
+package com.MyRecipies.recipies.cache;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.MyRecipies.recipies.entities.User;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Invalida o {@link UserCache} em toda gravação de {@link User} pelo Hibernate:
+ * inclusão, alteração (também do e-mail antigo), exclusão e mudança de papéis,
+ * que só altera a coleção e não dispara os callbacks JPA da entidade. Comandos
+ * em massa (UPDATE/DELETE por query) não geram eventos e invalidam por conta própria.
+ */
+@Component
+public class UserCacheInvalidator implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof User user) {
+            invalidate(user.getEmail());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User user) {
+            invalidate(user.getEmail());
+            if (event.getOldState() != null) {
+                Object oldEmail = event.getOldState()[event.getPersister().getPropertyIndex("email")];
+                if (oldEmail instanceof String email && !email.equals(user.getEmail())) {
+                    invalidate(email);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User user) {
+            invalidate(user.getEmail());
+        }
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void onCollectionChange(AbstractCollectionEvent event) {
+        if (event.getAffectedOwnerOrNull() instanceof User user) {
+            invalidate(user.getEmail());
+        }
+    }
+
+    // de novo depois do commit: um login entre o flush e o commit ainda leria a linha antiga
+    private void invalidate(String email) {
+
+        userCache.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    userCache.invalidate(email);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.MyRecipies.recipies.config;
+
+import java.util.Set;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Usuário da requisição montado a partir das claims do JWT. Tem o que as
+ * checagens de dono e de papel precisam, sem consulta ao banco.
+ */
+public class AuthenticatedUser implements AuthenticatedPrincipal {
+
+    private final Long id;
+    private final String username;
+    private final Set<String> authorities;
+
+    public AuthenticatedUser(Long id, String username, Set<String> authorities) {
+        this.id = id;
+        this.username = username;
+        this.authorities = Set.copyOf(authorities);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Set<String> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean hasRole(String roleName) {
+        return authorities.contains(roleName);
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
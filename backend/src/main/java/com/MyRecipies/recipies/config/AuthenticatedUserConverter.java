@@ -0,0 +1,59 @@
+package com.MyRecipies.recipies.config;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+/**
+ * Monta o {@link AuthenticatedUser} uma vez por requisição, a partir das claims
+ * {@code user_id}, {@code username} e {@code authorities} do token.
+ */
+public class AuthenticatedUserConverter implements Converter<Jwt, AuthenticatedUserToken> {
+
+    public static final String USER_ID_CLAIM = "user_id";
+    public static final String USERNAME_CLAIM = "username";
+    public static final String AUTHORITIES_CLAIM = "authorities";
+
+    private final JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+
+    public AuthenticatedUserConverter() {
+        authoritiesConverter.setAuthoritiesClaimName(AUTHORITIES_CLAIM);
+        authoritiesConverter.setAuthorityPrefix("");
+    }
+
+    @Override
+    public AuthenticatedUserToken convert(Jwt jwt) {
+
+        Long id = userId(jwt.getClaims().get(USER_ID_CLAIM));
+        if (id == null) {
+            throw new InvalidBearerTokenException("Token sem identificação do usuário");
+        }
+
+        Collection<GrantedAuthority> authorities = authoritiesConverter.convert(jwt);
+        Set<String> names = authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+
+        AuthenticatedUser user = new AuthenticatedUser(id, jwt.getClaimAsString(USERNAME_CLAIM), names);
+        return new AuthenticatedUserToken(jwt, user, authorities);
+    }
+
+    // emitido como texto; número ainda aceito para os tokens anteriores à mudança
+    private static Long userId(Object claim) {
+        if (claim instanceof Number number) {
+            return number.longValue();
+        }
+        if (claim instanceof String text) {
+            try {
+                return Long.valueOf(text);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.MyRecipies.recipies.config;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.AbstractOAuth2TokenAuthenticationToken;
+
+// autenticação por JWT cujo principal é o AuthenticatedUser, e não o Jwt
+public class AuthenticatedUserToken extends AbstractOAuth2TokenAuthenticationToken<Jwt> {
+
+    private static final long serialVersionUID = 1L;
+
+    public AuthenticatedUserToken(Jwt jwt, AuthenticatedUser user,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(jwt, user, jwt, authorities);
+        setAuthenticated(true);
+    }
+
+    @Override
+    public Map<String, Object> getTokenAttributes() {
+        return getToken().getClaims();
+    }
+}
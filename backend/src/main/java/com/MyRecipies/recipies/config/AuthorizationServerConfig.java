@@ -1,31 +1,35 @@
 package com.MyRecipies.recipies.config;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
 import java.time.Duration;
 import java.util.List;
-import java.util.UUID;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
-import org.springframework.security.config.Customizer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
 import org.springframework.security.oauth2.core.OAuth2Token;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationConsentService;
-import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsentService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
-import org.springframework.security.oauth2.server.authorization.authentication.OAuth2ClientAuthenticationToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
 import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
@@ -39,15 +43,22 @@ import org.springframework.security.oauth2.server.authorization.token.Delegating
 import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
 import org.springframework.security.oauth2.server.authorization.token.JwtGenerator;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2AccessTokenGenerator;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2RefreshTokenGenerator;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenGenerator;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.security.web.header.writers.CacheControlHeadersWriter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import com.MyRecipies.recipies.config.customgrant.CustomPasswordAuthenticationConverter;
 import com.MyRecipies.recipies.config.customgrant.CustomPasswordAuthenticationProvider;
-import com.MyRecipies.recipies.config.customgrant.CustomUserAuthorities;
+import com.MyRecipies.recipies.config.customgrant.TokenErrorResponseHandler;
+import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.services.PasswordHashingService;
+import com.MyRecipies.recipies.services.SigningKeyService;
 import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
 
@@ -63,16 +74,33 @@ public class AuthorizationServerConfig {
 	@Value("${security.jwt.duration}")
 	private Integer jwtDurationSeconds;
 
+	@Value("${security.jwt.refresh-duration}")
+	private Integer refreshDurationSeconds;
+
+	// igual ao intervalo de recarga: uma chave nova fica publicada bem antes de assinar
+	@Value("${security.jwt.keys.reload-seconds:300}")
+	private Integer jwkSetMaxAgeSeconds;
+
 	@Autowired
 	private UserDetailsService userDetailsService;
     
+	@Autowired
+	private PasswordHashingService passwordHashing;
+
+	@Autowired
+	private AuthenticatedUserConverter authenticatedUserConverter;
+
+	@Autowired
+	private SigningKeyService signingKeyService;
+
 	@Autowired
 	private PasswordEncoder passwordEncoder;
 
 	@SuppressWarnings("removal")
 	@Bean
 	@Order(2)
-	public SecurityFilterChain asSecurityFilterChain(HttpSecurity http) throws Exception {
+	public SecurityFilterChain asSecurityFilterChain(HttpSecurity http, OAuth2AuthorizationService authorizationService)
+			throws Exception {
 
 		OAuth2AuthorizationServerConfiguration.applyDefaultSecurity(http);
 
@@ -80,17 +108,28 @@ public class AuthorizationServerConfig {
 		http.getConfigurer(OAuth2AuthorizationServerConfigurer.class)
 			.tokenEndpoint(tokenEndpoint -> tokenEndpoint
 				.accessTokenRequestConverter(new CustomPasswordAuthenticationConverter())
-				.authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService(), tokenGenerator(), userDetailsService, passwordEncoder)));
+				.authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService, tokenGenerator(), userDetailsService, passwordHashing))
+				.errorResponseHandler(new TokenErrorResponseHandler()));
 
-		http.oauth2ResourceServer(oauth2ResourceServer -> oauth2ResourceServer.jwt(Customizer.withDefaults()));
+		http.oauth2ResourceServer(oauth2ResourceServer -> oauth2ResourceServer
+			.jwt(jwt -> jwt.jwtAuthenticationConverter(authenticatedUserConverter)));
+
+		http.headers(headers -> headers
+			.cacheControl(cacheControl -> cacheControl.disable())
+			.addHeaderWriter(cacheControlHeaders()));
 		// @formatter:on
 
 		return http.build();
 	}
 
+	// refresh tokens em oauth2_authorization, visíveis para todas as instâncias (TokenStoreService)
 	@Bean
-	public OAuth2AuthorizationService authorizationService() {
-		return new InMemoryOAuth2AuthorizationService();
+	@DependsOnDatabaseInitialization
+	public OAuth2AuthorizationService authorizationService(JdbcTemplate jdbcTemplate,
+			RegisteredClientRepository registeredClientRepository, ObjectProvider<SchemaMigrator> schemaMigrator) {
+		// o serviço lê os tipos das colunas ao ser criado: a tabela já precisa existir
+		schemaMigrator.getIfAvailable();
+		return new JdbcOAuth2AuthorizationService(jdbcTemplate, registeredClientRepository);
 	}
 
 	@Bean
@@ -101,13 +140,15 @@ public class AuthorizationServerConfig {
 	@Bean
 	public RegisteredClientRepository registeredClientRepository() {
 		// @formatter:off
+		// id fixo: as autorizações gravadas apontam para ele e precisam valer depois de um restart
 		RegisteredClient registeredClient = RegisteredClient
-			.withId(UUID.randomUUID().toString())
+			.withId(clientId)
 			.clientId(clientId)
 			.clientSecret(passwordEncoder.encode(clientSecret))
 			.scope("read")
 			.scope("write")
 			.authorizationGrantType(new AuthorizationGrantType("password"))
+			.authorizationGrantType(AuthorizationGrantType.REFRESH_TOKEN)
 			.tokenSettings(tokenSettings())
 			.clientSettings(clientSettings())
 			.build();
@@ -122,6 +163,8 @@ public class AuthorizationServerConfig {
 		return TokenSettings.builder()
 			.accessTokenFormat(OAuth2TokenFormat.SELF_CONTAINED)
 			.accessTokenTimeToLive(Duration.ofSeconds(jwtDurationSeconds))
+			.refreshTokenTimeToLive(Duration.ofSeconds(refreshDurationSeconds))
+			.reuseRefreshTokens(false)
 			.build();
 		// @formatter:on
 	}
@@ -138,29 +181,46 @@ public class AuthorizationServerConfig {
 
 	@Bean
 	public OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator() {
-		NimbusJwtEncoder jwtEncoder = new NimbusJwtEncoder(jwkSource());
+		// só a chave ativa assina; as demais do JWK Set servem apenas para verificar
+		NimbusJwtEncoder jwtEncoder = new NimbusJwtEncoder(
+				(jwkSelector, securityContext) -> jwkSelector.select(new JWKSet(signingKeyService.signingKey())));
 		JwtGenerator jwtGenerator = new JwtGenerator(jwtEncoder);
 		jwtGenerator.setJwtCustomizer(tokenCustomizer());
 		OAuth2AccessTokenGenerator accessTokenGenerator = new OAuth2AccessTokenGenerator();
-		return new DelegatingOAuth2TokenGenerator(jwtGenerator, accessTokenGenerator);
+		OAuth2RefreshTokenGenerator refreshTokenGenerator = new OAuth2RefreshTokenGenerator();
+		return new DelegatingOAuth2TokenGenerator(jwtGenerator, accessTokenGenerator, refreshTokenGenerator);
 	}
 
 	@Bean
 	public OAuth2TokenCustomizer<JwtEncodingContext> tokenCustomizer() {
 		return context -> {
-			OAuth2ClientAuthenticationToken principal = context.getPrincipal();
-			CustomUserAuthorities user = (CustomUserAuthorities) principal.getDetails();
-			List<String> authorities = user.getAuthorities().stream().map(x -> x.getAuthority()).toList();
-			if (context.getTokenType().getValue().equals("access_token")) {
-				// @formatter:off
-				context.getClaims()
-					.claim("authorities", authorities)
-					.claim("username", user.getUsername());
-				// @formatter:on
+			if (!OAuth2TokenType.ACCESS_TOKEN.equals(context.getTokenType())) {
+				return;
 			}
+			// relido também no refresh: papéis alterados valem no próximo token e usuário removido não renova
+			UserDetails user = loadUser(context.getPrincipal().getName());
+			// texto: os claims também vão para oauth2_authorization, e Long fica fora da allowlist do Jackson
+			String userId = user instanceof User entity ? String.valueOf(entity.getId()) : null;
+			// ArrayList: os claims vão para oauth2_authorization e o Jackson só aceita coleções conhecidas
+			List<String> authorities = user.getAuthorities().stream().map(x -> x.getAuthority())
+					.collect(Collectors.toList());
+			// @formatter:off
+			context.getClaims()
+				.claim(AuthenticatedUserConverter.AUTHORITIES_CLAIM, authorities)
+				.claim(AuthenticatedUserConverter.USERNAME_CLAIM, user.getUsername())
+				.claim(AuthenticatedUserConverter.USER_ID_CLAIM, userId);
+			// @formatter:on
 		};
 	}
 
+	private UserDetails loadUser(String username) {
+		try {
+			return userDetailsService.loadUserByUsername(username);
+		} catch (UsernameNotFoundException e) {
+			throw new OAuth2AuthenticationException(new OAuth2Error(OAuth2ErrorCodes.INVALID_GRANT));
+		}
+	}
+
 	@Bean
 	public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
 		return OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
@@ -168,27 +228,20 @@ public class AuthorizationServerConfig {
 
 	@Bean
 	public JWKSource<SecurityContext> jwkSource() {
-		RSAKey rsaKey = generateRsa();
-		JWKSet jwkSet = new JWKSet(rsaKey);
-		return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
-	}
-
-	private static RSAKey generateRsa() {
-		KeyPair keyPair = generateRsaKey();
-		RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-		RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-		return new RSAKey.Builder(publicKey).privateKey(privateKey).keyID(UUID.randomUUID().toString()).build();
+		return (jwkSelector, securityContext) -> signingKeyService.select(jwkSelector);
 	}
 
-	private static KeyPair generateRsaKey() {
-		KeyPair keyPair;
-		try {
-			KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-			keyPairGenerator.initialize(2048);
-			keyPair = keyPairGenerator.generateKeyPair();
-		} catch (Exception ex) {
-			throw new IllegalStateException(ex);
-		}
-		return keyPair;
+	// o JWK Set pode ficar em cache nos clientes; as respostas de token, nunca
+	private HeaderWriter cacheControlHeaders() {
+		RequestMatcher jwkSetEndpoint = PathPatternRequestMatcher.withDefaults()
+				.matcher(authorizationServerSettings().getJwkSetEndpoint());
+		HeaderWriter noCache = new CacheControlHeadersWriter();
+		return (request, response) -> {
+			if (jwkSetEndpoint.matches(request)) {
+				response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + jwkSetMaxAgeSeconds);
+			} else {
+				noCache.writeHeaders(request, response);
+			}
+		};
 	}
 }
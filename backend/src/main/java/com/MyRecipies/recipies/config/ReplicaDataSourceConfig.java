@@ -0,0 +1,92 @@
+package com.MyRecipies.recipies.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// só entra quando há réplicas configuradas; sem elas o Spring Boot monta o DataSource de sempre
+@Configuration
+@ConditionalOnExpression("!'${db.replicas.urls:}'.isBlank()")
+public class ReplicaDataSourceConfig implements DisposableBean {
+
+    // atraso zero quando a réplica já aplicou todo o WAL recebido, mesmo com o primário parado
+    private static final String POSTGRES_LAG_QUERY = """
+            SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                   ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END""";
+
+    @Value("${db.replicas.urls}")
+    private String urls;
+
+    @Value("${db.replicas.username:${spring.datasource.username}}")
+    private String username;
+
+    @Value("${db.replicas.password:${spring.datasource.password}}")
+    private String password;
+
+    @Value("${db.replicas.max-lag-seconds:5}")
+    private double maxLagSeconds;
+
+    @Value("${db.replicas.lag-check-interval-ms:5000}")
+    private long lagCheckIntervalMillis;
+
+    @Value("${db.replicas.lag-query:}")
+    private String lagQuery;
+
+    // curto para a réplica fora do ar falhar logo, na verificação de atraso e nas leituras
+    @Value("${db.replicas.connection-timeout-ms:1000}")
+    private long connectionTimeoutMillis;
+
+    @Value("${db.replicas.validation-timeout-ms:500}")
+    private long validationTimeoutMillis;
+
+    private ReplicaRoutingDataSource routing;
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties) {
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls.split(",")) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(connectionTimeoutMillis);
+            replica.setValidationTimeout(validationTimeoutMillis);
+            replicas.add(replica);
+        }
+
+        routing = new ReplicaRoutingDataSource(primary, replicas,
+                lagQuery.isBlank() ? POSTGRES_LAG_QUERY : lagQuery, maxLagSeconds, lagCheckIntervalMillis);
+        routing.start();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Override
+    public void destroy() {
+        if (routing != null) {
+            routing.close();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.MyRecipies.recipies.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Manda transações {@code readOnly} para as réplicas (em rodízio) e todo o resto
+ * para o primário. Precisa ficar atrás de um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * para que a conexão só seja escolhida depois que a transação já se declarou
+ * somente leitura.
+ * <p>
+ * O atraso de cada réplica é medido em segundo plano, numa thread por réplica
+ * iniciada por {@link #start()}; a escolha da conexão só lê o resultado e nunca
+ * espera uma réplica lenta. Réplicas com atraso acima de {@code maxLagSeconds},
+ * que não respondem à consulta de atraso ou ainda não verificadas ficam de fora
+ * do rodízio até a próxima verificação. Depois de uma
+ * escrita, as leituras da mesma requisição também vão para o primário, para
+ * que quem acabou de salvar enxergue o que salvou.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+    private static final String WROTE_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".WROTE";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final long lagCheckIntervalMillis;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, String lagQuery,
+            double maxLagSeconds, long lagCheckIntervalMillis) {
+
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagCheckIntervalMillis = lagCheckIntervalMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + (i + 1), replicaDataSources.get(i));
+            replicas.add(replica);
+            targets.put(replica.key, replica.dataSource);
+        }
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Faz as próximas leituras da requisição atual irem para o primário, mesmo
+     * sem escrita nela.
+     */
+    public static void readYourWrites() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(WROTE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites();
+            }
+            return PRIMARY;
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(WROTE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return PRIMARY;
+        }
+
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica.key;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Começa a verificar o atraso de cada réplica a cada {@code lagCheckIntervalMillis},
+     * cada uma na sua thread: uma réplica fora do ar não atrasa a verificação das outras.
+     */
+    public synchronized void start() {
+
+        if (lagChecker != null || replicas.isEmpty()) {
+            return;
+        }
+        lagChecker = Executors.newScheduledThreadPool(replicas.size(), runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Replica replica : replicas) {
+            lagChecker.scheduleWithFixedDelay(() -> check(replica), 0, lagCheckIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+            lagChecker = null;
+        }
+    }
+
+    // verificação imediata de todas as réplicas, na thread de quem chama
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            check(replica);
+        }
+    }
+
+    private void check(Replica replica) {
+
+        double lag = lagSeconds(replica);
+        boolean healthy = lag <= maxLagSeconds;
+        if (healthy != replica.healthy) {
+            logger.warn("Réplica {} {} (atraso {}s)", replica.key, healthy ? "no rodízio" : "fora do rodízio", lag);
+        }
+        replica.healthy = healthy;
+    }
+
+    private double lagSeconds(Replica replica) {
+
+        try (Connection connection = replica.dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(1);
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                return rs.next() ? rs.getDouble(1) : 0.0;
+            }
+        } catch (SQLException e) {
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+
+    private static final class Replica {
+
+        private final String key;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+}
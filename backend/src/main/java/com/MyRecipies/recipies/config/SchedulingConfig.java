@@ -0,0 +1,12 @@
+package com.MyRecipies.recipies.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// desligado no perfil de teste, onde os jobs são chamados direto
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,31 @@
+package com.MyRecipies.recipies.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// o perfil de teste gera o schema pelo Hibernate, então as migrações ficam desligadas lá
+@Configuration
+@ConditionalOnProperty(name = "db.migrations.enabled", havingValue = "true")
+public class SchemaMigrationConfig {
+
+    @Value("${db.migrations.location}")
+    private String location;
+
+    @Bean
+    public SchemaMigrator schemaMigrator(DataSource dataSource) {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, location);
+        migrator.migrate();
+        return migrator;
+    }
+
+    // o Hibernate só sobe depois que o schema estiver atualizado
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor schemaMigratorDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor(SchemaMigrator.class);
+    }
+}
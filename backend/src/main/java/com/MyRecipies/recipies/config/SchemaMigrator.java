@@ -0,0 +1,212 @@
+package com.MyRecipies.recipies.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptException;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+/**
+ * Aplica em ordem os scripts {@code V<versão>__<descrição>.sql} de um diretório
+ * do classpath e registra cada um em {@code schema_migrations}. Cada script roda
+ * na própria transação junto com o registro. Scripts já aplicados não podem
+ * mudar: o checksum gravado é conferido a cada subida.
+ * <p>
+ * No PostgreSQL a execução inteira fica sob um advisory lock de sessão, então
+ * instâncias subindo juntas migram uma de cada vez e as seguintes só leem o
+ * histórico já atualizado, sem repetir DDL que a primeira aplicou.
+ * <p>
+ * Scripts que começam com {@value #NO_TRANSACTION} rodam em autocommit, para
+ * comandos que não aceitam transação como {@code CREATE INDEX CONCURRENTLY}.
+ * Uma falha no meio deixa aplicados os comandos anteriores, então todos eles
+ * precisam poder rodar de novo ({@code IF NOT EXISTS}).
+ */
+public class SchemaMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private static final String NO_TRANSACTION = "-- no-transaction";
+
+    // chave do pg_advisory_lock, igual em todas as instâncias
+    private static final long LOCK_KEY = 0x4d795265636970L;
+
+    private static final String HISTORY_TABLE = """
+            CREATE TABLE IF NOT EXISTS schema_migrations (
+                version INT PRIMARY KEY,
+                description VARCHAR(200) NOT NULL,
+                checksum BIGINT NOT NULL,
+                installed_on TIMESTAMP NOT NULL
+            )""";
+
+    private final DataSource dataSource;
+    private final String location;
+
+    public SchemaMigrator(DataSource dataSource, String location) {
+        this.dataSource = dataSource;
+        this.location = location;
+    }
+
+    /**
+     * Aplica os scripts pendentes e devolve quantos foram aplicados.
+     */
+    public int migrate() {
+
+        List<Migration> migrations = load();
+
+        try (Connection connection = dataSource.getConnection()) {
+
+            boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            if (postgres) {
+                lock(connection, "SELECT pg_advisory_lock(" + LOCK_KEY + ")");
+            }
+            try {
+                return migrate(connection, migrations);
+            } finally {
+                if (postgres) {
+                    lock(connection, "SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao migrar o schema: " + e.getMessage(), e);
+        }
+    }
+
+    private int migrate(Connection connection, List<Migration> migrations) throws SQLException {
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(HISTORY_TABLE);
+        }
+
+        Map<Integer, Long> applied = applied(connection);
+        int count = 0;
+        for (Migration migration : migrations) {
+
+            Long checksum = applied.get(migration.version());
+            if (checksum == null) {
+                apply(connection, migration);
+                count++;
+            } else if (checksum != migration.checksum()) {
+                throw new IllegalStateException(
+                        "Migração V" + migration.version() + " foi alterada depois de aplicada!");
+            }
+        }
+        return count;
+    }
+
+    // o lock é da sessão e vale através dos commits de cada script
+    private static void lock(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private List<Migration> load() {
+
+        List<Migration> migrations = new ArrayList<>();
+        try {
+            Resource[] scripts = new PathMatchingResourcePatternResolver().getResources(location + "/V*__*.sql");
+            for (Resource script : scripts) {
+
+                Matcher matcher = FILE_NAME.matcher(script.getFilename());
+                if (!matcher.matches()) {
+                    throw new IllegalStateException("Nome de migração inválido: " + script.getFilename());
+                }
+                String sql = script.getContentAsString(StandardCharsets.UTF_8);
+                migrations.add(new Migration(Integer.parseInt(matcher.group(1)),
+                        matcher.group(2).replace('_', ' '), script, checksum(script),
+                        !sql.startsWith(NO_TRANSACTION)));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao ler as migrações em " + location, e);
+        }
+
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Migração V" + migrations.get(i).version() + " duplicada!");
+            }
+        }
+        return migrations;
+    }
+
+    private Map<Integer, Long> applied(Connection connection) throws SQLException {
+
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(!migration.transactional());
+        try {
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.script(), StandardCharsets.UTF_8));
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO schema_migrations (version, description, checksum, installed_on) VALUES (?, ?, ?, ?)")) {
+                insert.setInt(1, migration.version());
+                insert.setString(2, migration.description());
+                insert.setLong(3, migration.checksum());
+                insert.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                insert.executeUpdate();
+            }
+
+            if (migration.transactional()) {
+                connection.commit();
+            }
+            logger.info("Migração V{} aplicada: {}", migration.version(), migration.description());
+        } catch (SQLException | ScriptException e) {
+            if (migration.transactional()) {
+                connection.rollback();
+            }
+            throw new IllegalStateException("Falha ao aplicar a migração V" + migration.version() + ": "
+                    + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static long checksum(Resource script) throws IOException {
+
+        CRC32 crc = new CRC32();
+        try (InputStream in = script.getInputStream()) {
+            crc.update(in.readAllBytes());
+        }
+        return crc.getValue();
+    }
+
+    private record Migration(int version, String description, Resource script, long checksum,
+            boolean transactional) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.MyRecipies.recipies.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -10,9 +11,13 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class SecurityConfig {
 
+    // subir o custo regrava o hash de cada usuário no próximo login (upgradeEncoding)
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder getPasswordEncoder(){
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
 }
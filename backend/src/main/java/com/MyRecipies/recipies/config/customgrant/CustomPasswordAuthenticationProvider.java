@@ -1,24 +1,26 @@
 package com.MyRecipies.recipies.config.customgrant;
 
 import java.security.Principal;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.ClaimAccessor;
 import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.OAuth2Error;
 import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
 import org.springframework.security.oauth2.core.OAuth2Token;
 import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
@@ -32,29 +34,32 @@ import org.springframework.security.oauth2.server.authorization.token.OAuth2Toke
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenGenerator;
 import org.springframework.util.Assert;
 
+import com.MyRecipies.recipies.services.PasswordHashingService;
+import com.MyRecipies.recipies.services.UserService;
+import com.MyRecipies.recipies.services.exceptions.PasswordHashingBusyException;
+
 public class CustomPasswordAuthenticationProvider implements AuthenticationProvider {
 
+	private static final Logger logger = LoggerFactory.getLogger(CustomPasswordAuthenticationProvider.class);
+
 	private static final String ERROR_URI = "https://datatracker.ietf.org/doc/html/rfc6749#section-5.2";
 	private final OAuth2AuthorizationService authorizationService;
 	private final UserDetailsService userDetailsService;
 	private final OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator;
-	private final PasswordEncoder passwordEncoder;
-	private String username = "";
-	private String password = "";
-	private Set<String> authorizedScopes = new HashSet<>();
+	private final PasswordHashingService passwordHashing;
 
 	public CustomPasswordAuthenticationProvider(OAuth2AuthorizationService authorizationService,
 			OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator, 
-			UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
+			UserDetailsService userDetailsService, PasswordHashingService passwordHashing) {
 		
 		Assert.notNull(authorizationService, "authorizationService cannot be null");
 		Assert.notNull(tokenGenerator, "TokenGenerator cannot be null");
 		Assert.notNull(userDetailsService, "UserDetailsService cannot be null");
-		Assert.notNull(passwordEncoder, "PasswordEncoder cannot be null");
+		Assert.notNull(passwordHashing, "PasswordHashingService cannot be null");
 		this.authorizationService = authorizationService;
 		this.tokenGenerator = tokenGenerator;
 		this.userDetailsService = userDetailsService;
-		this.passwordEncoder = passwordEncoder;
+		this.passwordHashing = passwordHashing;
 	}
 	
 	@Override
@@ -63,8 +68,9 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
 		CustomPasswordAuthenticationToken customPasswordAuthenticationToken = (CustomPasswordAuthenticationToken) authentication;
 		OAuth2ClientAuthenticationToken clientPrincipal = getAuthenticatedClientElseThrowInvalidClient(customPasswordAuthenticationToken);
 		RegisteredClient registeredClient = clientPrincipal.getRegisteredClient();
-		username = customPasswordAuthenticationToken.getUsername();
-		password = customPasswordAuthenticationToken.getPassword();	
+		// locais: o provider é um só para todas as requisições
+		String username = customPasswordAuthenticationToken.getUsername();
+		String password = customPasswordAuthenticationToken.getPassword();
 		
 		UserDetails user = null;
 		try {
@@ -73,36 +79,39 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
 			throw new OAuth2AuthenticationException("Invalid credentials");
 		}
 				
-		if (!passwordEncoder.matches(password, user.getPassword()) || !user.getUsername().equals(username)) {
+		boolean matches;
+		try {
+			matches = passwordHashing.matches(password, user.getPassword());
+		} catch (PasswordHashingBusyException e) {
+			throw new OAuth2AuthenticationException(
+					new OAuth2Error(OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE, e.getMessage(), ERROR_URI));
+		}
+		if (!matches || !user.getUsername().equals(username)) {
 			throw new OAuth2AuthenticationException("Invalid credentials");
 		}
+		rehashIfOutdated(user, password);
 		
-		authorizedScopes = user.getAuthorities().stream()
+		Set<String> authorizedScopes = user.getAuthorities().stream()
 				.map(scope -> scope.getAuthority())
 				.filter(scope -> registeredClient.getScopes().contains(scope))
 				.collect(Collectors.toSet());
 		
-		//-----------Create a new Security Context Holder Context----------
-		OAuth2ClientAuthenticationToken oAuth2ClientAuthenticationToken = (OAuth2ClientAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-		CustomUserAuthorities customPasswordUser = new CustomUserAuthorities(username, user.getAuthorities());
-		oAuth2ClientAuthenticationToken.setDetails(customPasswordUser);
-		
-		var newcontext = SecurityContextHolder.createEmptyContext();
-		newcontext.setAuthentication(oAuth2ClientAuthenticationToken);
-		SecurityContextHolder.setContext(newcontext);		
+		//-----------USER PRINCIPAL----------
+		// gravado em oauth2_authorization e usado de novo no refresh; os papéis são relidos a cada token
+		Authentication userPrincipal = UsernamePasswordAuthenticationToken.authenticated(user.getUsername(), null, List.of());
 		
 		//-----------TOKEN BUILDERS----------
 		DefaultOAuth2TokenContext.Builder tokenContextBuilder = DefaultOAuth2TokenContext.builder()
 				.registeredClient(registeredClient)
-				.principal(clientPrincipal)
+				.principal(userPrincipal)
 				.authorizationServerContext(AuthorizationServerContextHolder.getContext())
 				.authorizedScopes(authorizedScopes)
 				.authorizationGrantType(new AuthorizationGrantType("password"))
 				.authorizationGrant(customPasswordAuthenticationToken);
 		
 		OAuth2Authorization.Builder authorizationBuilder = OAuth2Authorization.withRegisteredClient(registeredClient)
-				.attribute(Principal.class.getName(), clientPrincipal)
-				.principalName(clientPrincipal.getName())
+				.attribute(Principal.class.getName(), userPrincipal)
+				.principalName(userPrincipal.getName())
 				.authorizationGrantType(new AuthorizationGrantType("password"))
 				.authorizedScopes(authorizedScopes);
 		
@@ -125,10 +134,41 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
 			authorizationBuilder.accessToken(accessToken);
 		}
 				
+		//-----------REFRESH TOKEN----------
+		// renovar a sessão com ele não passa pelo BCrypt de novo
+		OAuth2RefreshToken refreshToken = null;
+		if (registeredClient.getAuthorizationGrantTypes().contains(AuthorizationGrantType.REFRESH_TOKEN)) {
+			tokenContext = tokenContextBuilder.tokenType(OAuth2TokenType.REFRESH_TOKEN).build();
+			OAuth2Token generatedRefreshToken = this.tokenGenerator.generate(tokenContext);
+			if (!(generatedRefreshToken instanceof OAuth2RefreshToken)) {
+				OAuth2Error error = new OAuth2Error(OAuth2ErrorCodes.SERVER_ERROR,
+						"The token generator failed to generate the refresh token.", ERROR_URI);
+				throw new OAuth2AuthenticationException(error);
+			}
+			refreshToken = (OAuth2RefreshToken) generatedRefreshToken;
+			authorizationBuilder.refreshToken(refreshToken);
+		}
+				
 		OAuth2Authorization authorization = authorizationBuilder.build();
 		this.authorizationService.save(authorization);
 		
-		return new OAuth2AccessTokenAuthenticationToken(registeredClient, clientPrincipal, accessToken);
+		return new OAuth2AccessTokenAuthenticationToken(registeredClient, clientPrincipal, accessToken, refreshToken);
+	}
+
+	// hash gravado com custo menor que o configurado: regrava em segundo plano, sem atrasar o login
+	// nem revogar a sessão que está sendo criada
+	private void rehashIfOutdated(UserDetails user, String password) {
+
+		if (!passwordHashing.upgradeEncoding(user.getPassword())
+				|| !(userDetailsService instanceof UserService userService)) {
+			return;
+		}
+		passwordHashing.encodeInBackground(password)
+				.thenAccept(encoded -> userService.upgradePasswordHash(user, encoded))
+				.exceptionally(e -> {
+					logger.warn("Não foi possível regravar o hash da senha de {}", user.getUsername(), e);
+					return null;
+				});
 	}
 
 	@Override
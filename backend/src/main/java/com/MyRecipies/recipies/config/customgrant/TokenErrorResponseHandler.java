@@ -0,0 +1,45 @@
+package com.MyRecipies.recipies.config.customgrant;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.http.converter.OAuth2ErrorHttpMessageConverter;
+import org.springframework.security.oauth2.server.authorization.web.authentication.OAuth2ErrorAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Igual ao tratamento padrão do endpoint de token, exceto por
+ * {@code temporarily_unavailable}: responde 503 com Retry-After para o cliente
+ * tentar de novo em vez de tratar como credencial inválida.
+ */
+public class TokenErrorResponseHandler implements AuthenticationFailureHandler {
+
+	private static final String RETRY_AFTER_SECONDS = "1";
+
+	private final AuthenticationFailureHandler defaultHandler = new OAuth2ErrorAuthenticationFailureHandler();
+	private final OAuth2ErrorHttpMessageConverter errorConverter = new OAuth2ErrorHttpMessageConverter();
+
+	@Override
+	public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+			AuthenticationException exception) throws IOException, ServletException {
+
+		if (exception instanceof OAuth2AuthenticationException oauth2Exception
+				&& OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE.equals(oauth2Exception.getError().getErrorCode())) {
+			ServletServerHttpResponse httpResponse = new ServletServerHttpResponse(response);
+			httpResponse.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+			httpResponse.getHeaders().set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+			errorConverter.write(oauth2Exception.getError(), null, httpResponse);
+			return;
+		}
+		defaultHandler.onAuthenticationFailure(request, response, exception);
+	}
+}
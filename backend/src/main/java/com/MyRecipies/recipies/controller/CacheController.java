@@ -0,0 +1,28 @@
+package com.MyRecipies.recipies.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.MyRecipies.recipies.dto.CacheRegionStatsDTO;
+import com.MyRecipies.recipies.services.CacheService;
+
+@RestController
+@RequestMapping(value = "/cache")
+public class CacheController {
+
+    @Autowired
+    private CacheService service;
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @GetMapping(value = "/stats")
+    public ResponseEntity<List<CacheRegionStatsDTO>> stats(){
+        List<CacheRegionStatsDTO> list = service.stats();
+        return ResponseEntity.ok(list);
+    }
+}
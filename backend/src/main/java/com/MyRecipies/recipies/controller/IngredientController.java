@@ -15,10 +15,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.MyRecipies.recipies.dto.CursorPageDTO;
 import com.MyRecipies.recipies.dto.IngredientDTO;
+import com.MyRecipies.recipies.dto.IngredientUsageDTO;
 import com.MyRecipies.recipies.services.IngredientService;
 
 @RestController
@@ -42,6 +45,26 @@ public class IngredientController {
         return ResponseEntity.ok(page);
     }
 
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
+    @GetMapping(value = "/seek")
+    public ResponseEntity<CursorPageDTO<IngredientDTO>> seekByClientId(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean count){
+        CursorPageDTO<IngredientDTO> page = service.seekByClientId(cursor, size, count);
+        return ResponseEntity.ok(page);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @GetMapping(value = "/all/seek")
+    public ResponseEntity<CursorPageDTO<IngredientDTO>> seekAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean count){
+        CursorPageDTO<IngredientDTO> page = service.seekAll(cursor, size, count);
+        return ResponseEntity.ok(page);
+    }
+
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
     @GetMapping(value = "/{id}")
     public ResponseEntity<IngredientDTO> findById(@PathVariable Long id){
@@ -49,6 +72,13 @@ public class IngredientController {
         return ResponseEntity.ok(dto);
     }
 
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
+    @GetMapping(value = "/{id}/usage")
+    public ResponseEntity<IngredientUsageDTO> findUsage(@PathVariable Long id){
+        IngredientUsageDTO dto = service.findUsage(id);
+        return ResponseEntity.ok(dto);
+    }
+
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
     @PostMapping
     public ResponseEntity<IngredientDTO> insert(@RequestBody IngredientDTO dto){
@@ -0,0 +1,26 @@
+package com.MyRecipies.recipies.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.MyRecipies.recipies.dto.PasswordHashingStatsDTO;
+import com.MyRecipies.recipies.services.PasswordHashingService;
+
+@RestController
+@RequestMapping(value = "/password-hashing")
+public class PasswordHashingController {
+
+    @Autowired
+    private PasswordHashingService service;
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @GetMapping(value = "/stats")
+    public ResponseEntity<PasswordHashingStatsDTO> stats(){
+        PasswordHashingStatsDTO dto = service.stats();
+        return ResponseEntity.ok(dto);
+    }
+}
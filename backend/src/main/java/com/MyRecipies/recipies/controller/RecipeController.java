@@ -6,6 +6,7 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,12 +16,22 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.MyRecipies.recipies.dto.CursorPageDTO;
 import com.MyRecipies.recipies.dto.RecipeDTO;
+import com.MyRecipies.recipies.dto.RecipeRefreshDTO;
+import com.MyRecipies.recipies.dto.RecipeSummaryDTO;
 import com.MyRecipies.recipies.dto.RecipeVersionDTO;
+import com.MyRecipies.recipies.dto.SimulationRequestDTO;
+import com.MyRecipies.recipies.dto.SimulationResultDTO;
 import com.MyRecipies.recipies.services.RecipeService;
+import com.MyRecipies.recipies.services.SimulationService;
+
+import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping(value = "/recipes")
@@ -29,20 +40,64 @@ public class RecipeController {
     @Autowired
     private RecipeService service;
 
+    @Autowired
+    private SimulationService simulationService;
+
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
     @GetMapping
-    public ResponseEntity<Page<RecipeDTO>> findByClientId(Pageable pageable) {
-        Page<RecipeDTO> page = service.findByClientId(pageable);
+    public ResponseEntity<Page<RecipeSummaryDTO>> findByClientId(Pageable pageable) {
+        Page<RecipeSummaryDTO> page = service.findByClientId(pageable);
         return ResponseEntity.ok(page);
     }
 
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
     @GetMapping(value = "/all")
-    public ResponseEntity<Page<RecipeDTO>> findAll(Pageable pageable) {
-        Page<RecipeDTO> page = service.findAll(pageable);
+    public ResponseEntity<Page<RecipeSummaryDTO>> findAll(Pageable pageable) {
+        Page<RecipeSummaryDTO> page = service.findAll(pageable);
         return ResponseEntity.ok(page);
     }
 
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
+    @GetMapping(value = "/seek")
+    public ResponseEntity<CursorPageDTO<RecipeSummaryDTO>> seekByClientId(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean count) {
+        CursorPageDTO<RecipeSummaryDTO> page = service.seekByClientId(cursor, size, count);
+        return ResponseEntity.ok(page);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @GetMapping(value = "/all/seek")
+    public ResponseEntity<CursorPageDTO<RecipeSummaryDTO>> seekAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean count) {
+        CursorPageDTO<RecipeSummaryDTO> page = service.seekAll(cursor, size, count);
+        return ResponseEntity.ok(page);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
+    @GetMapping(value = "/details")
+    public ResponseEntity<Page<RecipeDTO>> findDetailsByClientId(Pageable pageable) {
+        Page<RecipeDTO> page = service.findDetailsByClientId(pageable);
+        return ResponseEntity.ok(page);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @GetMapping(value = "/all/details")
+    public ResponseEntity<Page<RecipeDTO>> findAllDetails(Pageable pageable) {
+        Page<RecipeDTO> page = service.findAllDetails(pageable);
+        return ResponseEntity.ok(page);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @GetMapping(value = "/all/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAll() {
+        StreamingResponseBody body = service::exportAll;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
     @GetMapping(value = "/{id}")
     public ResponseEntity<RecipeDTO> findById(@PathVariable Long id) {
@@ -96,6 +151,21 @@ public class RecipeController {
         return ResponseEntity.ok(dto);
     }
 
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
+    @PostMapping("/simulations")
+    public ResponseEntity<List<SimulationResultDTO>> simulate(@RequestParam(required = false) Long clientId,
+            @Valid @RequestBody SimulationRequestDTO request) {
+        List<SimulationResultDTO> result = simulationService.simulate(clientId, request);
+        return ResponseEntity.ok(result);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
+    @PutMapping("/refresh-prices")
+    public ResponseEntity<RecipeRefreshDTO> refreshAllRecipePrices(@RequestParam(required = false) Long clientId) {
+        RecipeRefreshDTO dto = service.refreshAllRecipePrices(clientId);
+        return ResponseEntity.ok(dto);
+    }
+
     @PutMapping("/{id}/refresh-prices")
     public ResponseEntity<RecipeDTO> refreshRecipePrices(@PathVariable Long id) {
         RecipeDTO dto = service.refreshRecipePrices(id);
@@ -2,6 +2,7 @@ package com.MyRecipies.recipies.controller.handlers;
 
 import java.time.Instant;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -13,6 +14,10 @@ import com.MyRecipies.recipies.dto.CustomError;
 import com.MyRecipies.recipies.dto.ValidationError;
 import com.MyRecipies.recipies.services.exceptions.DatabaseException;
 import com.MyRecipies.recipies.services.exceptions.ForbiddenException;
+import com.MyRecipies.recipies.services.exceptions.InvalidCursorException;
+import com.MyRecipies.recipies.services.exceptions.InvalidSortException;
+import com.MyRecipies.recipies.services.exceptions.PasswordHashingBusyException;
+import com.MyRecipies.recipies.services.exceptions.RecipeCycleException;
 import com.MyRecipies.recipies.services.exceptions.ResourceNotFoundException;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -52,4 +57,32 @@ CustomError err = new CustomError(Instant.now(), status.value(), e.getMessage(),
 return ResponseEntity.status(status).body(err);
 }
 
+@ExceptionHandler(RecipeCycleException.class)
+public ResponseEntity<CustomError> recipeCycle(RecipeCycleException e, HttpServletRequest request) {
+HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY;
+CustomError err = new CustomError(Instant.now(), status.value(), e.getMessage(), request.getRequestURI());
+return ResponseEntity.status(status).body(err);
+}
+
+@ExceptionHandler(InvalidCursorException.class)
+public ResponseEntity<CustomError> invalidCursor(InvalidCursorException e, HttpServletRequest request) {
+HttpStatus status = HttpStatus.BAD_REQUEST;
+CustomError err = new CustomError(Instant.now(), status.value(), e.getMessage(), request.getRequestURI());
+return ResponseEntity.status(status).body(err);
+}
+
+@ExceptionHandler(InvalidSortException.class)
+public ResponseEntity<CustomError> invalidSort(InvalidSortException e, HttpServletRequest request) {
+HttpStatus status = HttpStatus.BAD_REQUEST;
+CustomError err = new CustomError(Instant.now(), status.value(), e.getMessage(), request.getRequestURI());
+return ResponseEntity.status(status).body(err);
+}
+
+@ExceptionHandler(PasswordHashingBusyException.class)
+public ResponseEntity<CustomError> passwordHashingBusy(PasswordHashingBusyException e, HttpServletRequest request) {
+HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+CustomError err = new CustomError(Instant.now(), status.value(), e.getMessage(), request.getRequestURI());
+return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "1").body(err);
+}
+
 }
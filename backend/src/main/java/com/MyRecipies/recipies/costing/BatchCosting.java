@@ -0,0 +1,53 @@
+package com.MyRecipies.recipies.costing;
+
+/**
+ * Custo de muitos itens de uma vez sobre arrays primitivos (layout CSR: os itens
+ * da receita {@code r} ficam em {@code recipeStart[r]..recipeStart[r + 1]}).
+ * Usa a Vector API quando a JVM sobe com {@code --add-modules jdk.incubator.vector};
+ * sem o módulo cai no laço escalar, com o mesmo resultado. O {@code spring-boot:run}
+ * já passa a flag; com {@code java -jar} ela precisa vir na linha de comando ou em
+ * {@code JDK_JAVA_OPTIONS}.
+ */
+public final class BatchCosting {
+
+    private static final boolean VECTOR_ENABLED = ModuleLayer.boot()
+            .findModule("jdk.incubator.vector")
+            .isPresent() && !Boolean.getBoolean("costing.vector.disabled");
+
+    private BatchCosting() {
+    }
+
+    public static boolean isVectorized() {
+        return VECTOR_ENABLED;
+    }
+
+    /**
+     * {@code totals[i] = itemTotal(unitCosts[i], quantities[i])} para {@code from <= i < to}.
+     */
+    public static void itemTotals(long[] unitCosts, long[] quantities, long[] totals, int from, int to) {
+        if (VECTOR_ENABLED) {
+            VectorCostKernel.itemTotals(unitCosts, quantities, totals, from, to);
+        } else {
+            scalarItemTotals(unitCosts, quantities, totals, from, to);
+        }
+    }
+
+    public static long[] recipeTotals(long[] unitCosts, long[] quantities, int[] recipeStart) {
+
+        int items = recipeStart[recipeStart.length - 1];
+        long[] itemTotals = new long[items];
+        itemTotals(unitCosts, quantities, itemTotals, 0, items);
+
+        long[] totals = new long[recipeStart.length - 1];
+        for (int recipe = 0; recipe < totals.length; recipe++) {
+            totals[recipe] = CostingEngine.sum(itemTotals, recipeStart[recipe], recipeStart[recipe + 1]);
+        }
+        return totals;
+    }
+
+    static void scalarItemTotals(long[] unitCosts, long[] quantities, long[] totals, int from, int to) {
+        for (int i = from; i < to; i++) {
+            totals[i] = CostingEngine.itemTotal(unitCosts[i], quantities[i]);
+        }
+    }
+}
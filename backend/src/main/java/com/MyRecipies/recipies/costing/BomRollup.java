@@ -0,0 +1,70 @@
+package com.MyRecipies.recipies.costing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.MyRecipies.recipies.entities.Product;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.entities.RecipeItem;
+import com.MyRecipies.recipies.services.exceptions.RecipeCycleException;
+
+/**
+ * Custo unitário de produtos com subprodutos aninhados (bill of materials).
+ * Cada produto é calculado uma única vez por instância, sempre depois dos seus
+ * subprodutos; ciclos entre receitas geram {@link RecipeCycleException}.
+ * Uma instância vale para uma única passada (não é thread-safe).
+ */
+public class BomRollup {
+
+    private final Map<Product, Long> unitCosts = new IdentityHashMap<>();
+    private final Map<Product, Boolean> visiting = new IdentityHashMap<>();
+    private final List<Product> order = new ArrayList<>();
+
+    public long unitCostMicros(Product product) {
+
+        Long cached = unitCosts.get(product);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (visiting.put(product, Boolean.TRUE) != null) {
+            throw new RecipeCycleException("Receita com dependência circular: " + product.getName());
+        }
+
+        long unitCost = 0L;
+        Recipe recipe = product.getRecipe();
+        if (recipe != null) {
+            long totalCost = 0L;
+            for (RecipeItem item : recipe.getItems()) {
+                totalCost = Math.addExact(totalCost,
+                        CostingEngine.itemTotal(itemUnitCostMicros(item), FixedPoint.toMicros(item.getQuantity())));
+            }
+            unitCost = CostingEngine.unitCost(totalCost, recipe.getAmount());
+        }
+
+        visiting.remove(product);
+        unitCosts.put(product, unitCost);
+        order.add(product);
+        return unitCost;
+    }
+
+    public long itemUnitCostMicros(RecipeItem item) {
+        if (item.getIngredient() != null) {
+            return item.getIngredient().calculateUnitCostMicros();
+        }
+        if (item.getSubProduct() != null) {
+            return unitCostMicros(item.getSubProduct());
+        }
+        return 0L;
+    }
+
+    /**
+     * Produtos já calculados, em ordem topológica (subprodutos antes dos pais).
+     */
+    public List<Product> topologicalOrder() {
+        return Collections.unmodifiableList(order);
+    }
+}
@@ -0,0 +1,264 @@
+package com.MyRecipies.recipies.costing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.entities.Product;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.entities.RecipeItem;
+
+/**
+ * Retrato imutável das receitas de um cliente, em arrays agrupados por nível de
+ * subproduto, para recalcular custos com outros preços de ingredientes sem tocar
+ * no banco. Cada nível só depende dos anteriores, então os itens de um nível
+ * inteiro vão de uma vez para {@link BatchCosting}. Depois de montado não
+ * referencia entidades e pode ser avaliado por várias threads ao mesmo tempo.
+ */
+public final class CostGraph {
+
+    private final Map<Long, Integer> ingredientIndex;
+    private final long[] priceCosts;
+    private final long[] quantitiesPerUnit;
+
+    // produtos ordenados por nível (levelStart[l]..levelStart[l + 1]);
+    // itens no formato CSR (itemStart[p]..itemStart[p + 1]), ref < 0 aponta para o produto -ref - 1
+    private final int[] levelStart;
+    private final int[] amounts;
+    private final long[] salePrices;
+    private final int[] itemStart;
+    private final int[] itemRefs;
+    private final long[] itemQuantities;
+
+    // receitas ativas devolvidas na simulação, apontando para a posição do produto
+    private final int[] recipeProducts;
+    private final long[] recipeIds;
+    private final String[] productNames;
+
+    private CostGraph(Builder builder) {
+
+        ingredientIndex = Map.copyOf(builder.ingredientIndex);
+        priceCosts = toLongArray(builder.priceCosts);
+        quantitiesPerUnit = toLongArray(builder.quantitiesPerUnit);
+
+        int productCount = builder.nodes.size();
+        int maxLevel = 0;
+        for (Node node : builder.nodes) {
+            maxLevel = Math.max(maxLevel, node.level);
+        }
+
+        // ordenação estável por nível; position[antigo] = novo
+        levelStart = new int[maxLevel + 2];
+        for (Node node : builder.nodes) {
+            levelStart[node.level + 1]++;
+        }
+        for (int level = 0; level <= maxLevel; level++) {
+            levelStart[level + 1] += levelStart[level];
+        }
+        int[] next = Arrays.copyOf(levelStart, levelStart.length);
+        int[] position = new int[productCount];
+        for (int old = 0; old < productCount; old++) {
+            position[old] = next[builder.nodes.get(old).level]++;
+        }
+
+        Node[] ordered = new Node[productCount];
+        for (int old = 0; old < productCount; old++) {
+            ordered[position[old]] = builder.nodes.get(old);
+        }
+
+        amounts = new int[productCount];
+        salePrices = new long[productCount];
+        itemStart = new int[productCount + 1];
+        int itemCount = 0;
+        for (Node node : ordered) {
+            itemCount += node.refs.size();
+        }
+        itemRefs = new int[itemCount];
+        itemQuantities = new long[itemCount];
+
+        int item = 0;
+        for (int product = 0; product < productCount; product++) {
+            Node node = ordered[product];
+            amounts[product] = node.amount;
+            salePrices[product] = node.salePrice;
+            itemStart[product] = item;
+            for (int k = 0; k < node.refs.size(); k++) {
+                int ref = node.refs.get(k);
+                itemRefs[item] = ref >= 0 ? ref : -position[-ref - 1] - 1;
+                itemQuantities[item] = node.quantities.get(k);
+                item++;
+            }
+        }
+        itemStart[productCount] = item;
+
+        recipeProducts = new int[builder.recipeProducts.size()];
+        for (int recipe = 0; recipe < recipeProducts.length; recipe++) {
+            recipeProducts[recipe] = position[builder.recipeProducts.get(recipe)];
+        }
+        recipeIds = toLongArray(builder.recipeIds);
+        productNames = builder.productNames.toArray(String[]::new);
+    }
+
+    /**
+     * Monta o retrato a partir das receitas já carregadas com itens, ingredientes
+     * e subprodutos. Ciclos entre receitas geram
+     * {@link com.MyRecipies.recipies.services.exceptions.RecipeCycleException}.
+     */
+    public static CostGraph of(List<Recipe> recipes) {
+
+        BomRollup rollup = new BomRollup();
+        for (Recipe recipe : recipes) {
+            rollup.unitCostMicros(recipe.getProduct());
+        }
+
+        Builder builder = new Builder();
+        Map<Long, Integer> productIndex = new HashMap<>();
+
+        for (Product product : rollup.topologicalOrder()) {
+
+            if (productIndex.containsKey(product.getId())) {
+                continue;
+            }
+
+            Recipe recipe = product.getRecipe();
+            Node node = new Node();
+            node.amount = recipe != null && recipe.getAmount() != null ? recipe.getAmount() : 0;
+            node.salePrice = FixedPoint.toMicros(product.getPrice());
+
+            if (recipe != null) {
+                for (RecipeItem item : recipe.getItems()) {
+                    if (item.getIngredient() != null) {
+                        node.refs.add(builder.ingredient(item.getIngredient()));
+                    } else if (item.getSubProduct() != null) {
+                        // subprodutos já estão no grafo por causa da ordem topológica
+                        int sub = productIndex.get(item.getSubProduct().getId());
+                        node.refs.add(-sub - 1);
+                        node.level = Math.max(node.level, builder.nodes.get(sub).level + 1);
+                    } else {
+                        continue;
+                    }
+                    node.quantities.add(FixedPoint.toMicros(item.getQuantity()));
+                }
+            }
+
+            int index = builder.nodes.size();
+            productIndex.put(product.getId(), index);
+            builder.nodes.add(node);
+
+            if (recipe != null && !recipe.getDeleted()) {
+                builder.recipeProducts.add(index);
+                builder.recipeIds.add(recipe.getId());
+                builder.productNames.add(product.getName());
+            }
+        }
+
+        return new CostGraph(builder);
+    }
+
+    public int recipeCount() {
+        return recipeIds.length;
+    }
+
+    public long recipeId(int recipe) {
+        return recipeIds[recipe];
+    }
+
+    public String productName(int recipe) {
+        return productNames[recipe];
+    }
+
+    /**
+     * Posição do ingrediente nos arrays de preço, ou -1 se nenhuma receita o usa.
+     */
+    public int ingredientIndex(Long ingredientId) {
+        return ingredientIndex.getOrDefault(ingredientId, -1);
+    }
+
+    /**
+     * Cópia dos preços atuais dos ingredientes, em micro-unidades, para ser
+     * alterada por um cenário e passada para {@link #evaluate(long[])}.
+     */
+    public long[] priceCosts() {
+        return Arrays.copyOf(priceCosts, priceCosts.length);
+    }
+
+    public RecipeFinancials[] evaluate(long[] scenarioPriceCosts) {
+
+        long[] ingredientUnitCosts = new long[scenarioPriceCosts.length];
+        for (int i = 0; i < ingredientUnitCosts.length; i++) {
+            ingredientUnitCosts[i] = quantitiesPerUnit[i] == 0L
+                    ? 0L
+                    : FixedPoint.divide(scenarioPriceCosts[i], quantitiesPerUnit[i]);
+        }
+
+        long[] totalCosts = new long[amounts.length];
+        long[] unitCosts = new long[amounts.length];
+        long[] itemUnitCosts = new long[itemRefs.length];
+        long[] itemTotals = new long[itemRefs.length];
+
+        for (int level = 0; level < levelStart.length - 1; level++) {
+
+            int firstProduct = levelStart[level];
+            int lastProduct = levelStart[level + 1];
+            int firstItem = itemStart[firstProduct];
+            int lastItem = itemStart[lastProduct];
+
+            for (int item = firstItem; item < lastItem; item++) {
+                int ref = itemRefs[item];
+                itemUnitCosts[item] = ref >= 0 ? ingredientUnitCosts[ref] : unitCosts[-ref - 1];
+            }
+
+            BatchCosting.itemTotals(itemUnitCosts, itemQuantities, itemTotals, firstItem, lastItem);
+
+            for (int product = firstProduct; product < lastProduct; product++) {
+                totalCosts[product] = CostingEngine.sum(itemTotals, itemStart[product], itemStart[product + 1]);
+                unitCosts[product] = CostingEngine.unitCost(totalCosts[product], amounts[product]);
+            }
+        }
+
+        RecipeFinancials[] financials = new RecipeFinancials[recipeProducts.length];
+        for (int recipe = 0; recipe < recipeProducts.length; recipe++) {
+            int product = recipeProducts[recipe];
+            financials[recipe] = CostingEngine.financials(totalCosts[product], amounts[product],
+                    salePrices[product], CostingEngine.RECIPE_MARGIN_DIGITS);
+        }
+        return financials;
+    }
+
+    private static long[] toLongArray(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static final class Node {
+
+        private int amount;
+        private long salePrice;
+        private int level;
+        private final List<Integer> refs = new ArrayList<>();
+        private final List<Long> quantities = new ArrayList<>();
+    }
+
+    private static final class Builder {
+
+        private final Map<Long, Integer> ingredientIndex = new HashMap<>();
+        private final List<Long> priceCosts = new ArrayList<>();
+        private final List<Long> quantitiesPerUnit = new ArrayList<>();
+
+        private final List<Node> nodes = new ArrayList<>();
+
+        private final List<Integer> recipeProducts = new ArrayList<>();
+        private final List<Long> recipeIds = new ArrayList<>();
+        private final List<String> productNames = new ArrayList<>();
+
+        private int ingredient(Ingredient ingredient) {
+            return ingredientIndex.computeIfAbsent(ingredient.getId(), id -> {
+                priceCosts.add(FixedPoint.toMicros(ingredient.getPriceCost()));
+                quantitiesPerUnit.add(FixedPoint.toMicros(ingredient.getQuantityPerUnit()));
+                return priceCosts.size() - 1;
+            });
+        }
+    }
+}
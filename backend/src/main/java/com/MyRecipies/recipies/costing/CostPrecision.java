@@ -0,0 +1,49 @@
+package com.MyRecipies.recipies.costing;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Política única de precisão dos valores de custo, usada pelas entidades, DTOs
+ * e pelo schema ({@code db.txt}): colunas {@code NUMERIC(19, escala)}, 6 casas
+ * para quantidades e snapshots (as micro-unidades de {@link FixedPoint}) e 2
+ * casas para valores em dinheiro, sempre com {@link RoundingMode#HALF_UP}.
+ * Divisões nunca produzem dízimas infinitas nem falham com divisor zero.
+ */
+public final class CostPrecision {
+
+    public static final int PRECISION = 19;
+    public static final int COST_SCALE = FixedPoint.SCALE;
+    public static final int MONEY_SCALE = 2;
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+    public static final MathContext MATH_CONTEXT = new MathContext(PRECISION, ROUNDING);
+
+    private static final BigDecimal ZERO_COST = BigDecimal.ZERO.setScale(COST_SCALE);
+
+    private CostPrecision() {
+    }
+
+    public static BigDecimal cost(BigDecimal value) {
+        return value == null ? null : value.setScale(COST_SCALE, ROUNDING);
+    }
+
+    public static BigDecimal money(BigDecimal value) {
+        return value == null ? null : value.setScale(MONEY_SCALE, ROUNDING);
+    }
+
+    /**
+     * Divide na escala de custo; divisor nulo ou zero resulta em zero, como
+     * receitas sem rendimento e ingredientes sem quantidade por unidade.
+     */
+    public static BigDecimal divide(BigDecimal dividend, BigDecimal divisor) {
+        if (dividend == null || divisor == null || divisor.signum() == 0) {
+            return ZERO_COST;
+        }
+        return dividend.divide(divisor, COST_SCALE, ROUNDING);
+    }
+
+    public static BigDecimal divide(BigDecimal dividend, int divisor) {
+        return divide(dividend, BigDecimal.valueOf(divisor));
+    }
+}
@@ -0,0 +1,62 @@
+package com.MyRecipies.recipies.costing;
+
+/**
+ * Cálculos de custo sobre valores em micro-unidades ({@link FixedPoint}).
+ * Reproduz o arredondamento HALF_UP com 2 casas usado nas respostas da API.
+ */
+public final class CostingEngine {
+
+    /** Margem arredondada em 2 casas antes de virar percentual (ex.: 0,41 -> 41,00%). */
+    public static final int RECIPE_MARGIN_DIGITS = 2;
+
+    /** Margem arredondada em 4 casas antes de virar percentual (ex.: 0,4123 -> 41,23%). */
+    public static final int VERSION_MARGIN_DIGITS = 4;
+
+    private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1_000L, 10_000L };
+
+    private CostingEngine() {
+    }
+
+    public static long itemTotal(long unitCostMicros, long quantityMicros) {
+        return FixedPoint.multiply(unitCostMicros, quantityMicros);
+    }
+
+    public static long sum(long[] values, int from, int to) {
+        long total = 0L;
+        for (int i = from; i < to; i++) {
+            total = Math.addExact(total, values[i]);
+        }
+        return total;
+    }
+
+    public static long unitCost(long totalCostMicros, Integer amount) {
+        if (amount == null || amount <= 0) {
+            return 0L;
+        }
+        return FixedPoint.divideHalfUp(totalCostMicros, amount);
+    }
+
+    public static RecipeFinancials financials(long totalCostMicros, Integer amount, long salePriceMicros,
+            int marginDigits) {
+
+        long totalCostCents = FixedPoint.toCents(totalCostMicros);
+
+        boolean hasCostPerUnit = amount != null && amount > 0;
+        long costPerUnitCents = hasCostPerUnit ? FixedPoint.divideHalfUp(totalCostCents, amount) : 0L;
+
+        long profitMicros = salePriceMicros - totalCostCents * FixedPoint.MICROS_PER_CENT;
+        long profitCents = FixedPoint.toCents(profitMicros);
+
+        boolean hasMargin = salePriceMicros > 0;
+        long marginHundredths = 0L;
+        if (hasMargin) {
+            long fraction = FixedPoint.divideHalfUp(
+                    Math.multiplyExact(profitCents * FixedPoint.MICROS_PER_CENT, POWERS_OF_TEN[marginDigits]),
+                    salePriceMicros);
+            marginHundredths = fraction * POWERS_OF_TEN[4 - marginDigits];
+        }
+
+        return new RecipeFinancials(totalCostCents, costPerUnitCents, profitCents, marginHundredths,
+                hasCostPerUnit, hasMargin);
+    }
+}
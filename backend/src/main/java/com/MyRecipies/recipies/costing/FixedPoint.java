@@ -0,0 +1,80 @@
+package com.MyRecipies.recipies.costing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Aritmética de ponto fixo em micro-unidades (6 casas decimais) guardadas em
+ * {@code long}. Todo arredondamento segue {@link RoundingMode#HALF_UP}.
+ */
+public final class FixedPoint {
+
+    public static final int SCALE = 6;
+    public static final long ONE = 1_000_000L;
+    public static final long MICROS_PER_CENT = 10_000L;
+
+    private static final BigDecimal ONE_DECIMAL = BigDecimal.valueOf(ONE);
+
+    private FixedPoint() {
+    }
+
+    public static long toMicros(BigDecimal value) {
+        if (value == null) {
+            return 0L;
+        }
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long micros) {
+        return BigDecimal.valueOf(micros, SCALE);
+    }
+
+    public static long toCents(long micros) {
+        return divideHalfUp(micros, MICROS_PER_CENT);
+    }
+
+    public static BigDecimal centsToMoney(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public static long multiply(long aMicros, long bMicros) {
+        long high = Math.multiplyHigh(aMicros, bMicros);
+        long low = aMicros * bMicros;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return divideHalfUp(low, ONE);
+        }
+        return BigDecimal.valueOf(aMicros)
+                .multiply(BigDecimal.valueOf(bMicros))
+                .divide(ONE_DECIMAL, 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    public static long divide(long dividendMicros, long divisorMicros) {
+        long high = Math.multiplyHigh(dividendMicros, ONE);
+        long low = dividendMicros * ONE;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return divideHalfUp(low, divisorMicros);
+        }
+        return BigDecimal.valueOf(dividendMicros)
+                .multiply(ONE_DECIMAL)
+                .divide(BigDecimal.valueOf(divisorMicros), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    /**
+     * Divisão inteira com arredondamento HALF_UP (meio afasta do zero), igual ao
+     * {@link BigDecimal#divide(BigDecimal, int, RoundingMode)}.
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        long absRemainder = Math.abs(remainder);
+        if (absRemainder >= Math.abs(divisor) - absRemainder) {
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,32 @@
+package com.MyRecipies.recipies.costing;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado financeiro de uma receita em centavos. A margem é guardada em
+ * centésimos de ponto percentual (1234 = 12,34%).
+ */
+public record RecipeFinancials(
+        long totalCostCents,
+        long costPerUnitCents,
+        long profitCents,
+        long marginHundredths,
+        boolean hasCostPerUnit,
+        boolean hasMargin) {
+
+    public BigDecimal totalCost() {
+        return FixedPoint.centsToMoney(totalCostCents);
+    }
+
+    public BigDecimal costPerUnit() {
+        return hasCostPerUnit ? FixedPoint.centsToMoney(costPerUnitCents) : null;
+    }
+
+    public BigDecimal profit() {
+        return FixedPoint.centsToMoney(profitCents);
+    }
+
+    public BigDecimal margin() {
+        return hasMargin ? BigDecimal.valueOf(marginHundredths, 2) : null;
+    }
+}
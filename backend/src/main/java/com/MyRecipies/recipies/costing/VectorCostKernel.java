@@ -0,0 +1,71 @@
+package com.MyRecipies.recipies.costing;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Versão vetorial de {@link CostingEngine#itemTotal(long, long)}. Só é carregada
+ * por {@link BatchCosting} quando o módulo incubado está presente.
+ */
+final class VectorCostKernel {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = VectorSpecies.of(double.class, LONGS.vectorShape());
+
+    // abaixo disso o produto cabe em long (2^62 ~ 4,61e18) e o double erra o quociente em no máximo 1
+    private static final double SAFE_PRODUCT = 4.0e18;
+    private static final double INVERSE_ONE = 1.0 / FixedPoint.ONE;
+    private static final long HALF = FixedPoint.ONE / 2;
+
+    private VectorCostKernel() {
+    }
+
+    static void itemTotals(long[] unitCosts, long[] quantities, long[] totals, int from, int to) {
+
+        int i = from;
+        int upper = from + LONGS.loopBound(to - from);
+
+        for (; i < upper; i += LONGS.length()) {
+
+            LongVector unitCost = LongVector.fromArray(LONGS, unitCosts, i);
+            LongVector quantity = LongVector.fromArray(LONGS, quantities, i);
+
+            DoubleVector estimate = toDouble(unitCost).mul(toDouble(quantity));
+            VectorMask<Long> safe = unitCost.compare(VectorOperators.GE, 0L)
+                    .and(quantity.compare(VectorOperators.GE, 0L))
+                    .and(estimate.compare(VectorOperators.LT, SAFE_PRODUCT).cast(LONGS));
+
+            // negativos ou produtos grandes seguem o caminho exato com BigDecimal
+            if (!safe.allTrue()) {
+                BatchCosting.scalarItemTotals(unitCosts, quantities, totals, i, i + LONGS.length());
+                continue;
+            }
+
+            LongVector product = unitCost.mul(quantity);
+            LongVector quotient = (LongVector) toDouble(product).mul(INVERSE_ONE)
+                    .convert(VectorOperators.D2L, 0);
+            LongVector remainder = product.sub(quotient.mul(FixedPoint.ONE));
+
+            VectorMask<Long> under = remainder.compare(VectorOperators.LT, 0L);
+            quotient = quotient.sub(1L, under);
+            remainder = remainder.add(FixedPoint.ONE, under);
+
+            VectorMask<Long> over = remainder.compare(VectorOperators.GE, FixedPoint.ONE);
+            quotient = quotient.add(1L, over);
+            remainder = remainder.sub(FixedPoint.ONE, over);
+
+            // HALF_UP
+            quotient = quotient.add(1L, remainder.compare(VectorOperators.GE, HALF));
+            quotient.intoArray(totals, i);
+        }
+
+        BatchCosting.scalarItemTotals(unitCosts, quantities, totals, i, to);
+    }
+
+    private static DoubleVector toDouble(LongVector vector) {
+        return (DoubleVector) vector.convertShape(VectorOperators.L2D, DOUBLES, 0);
+    }
+}
@@ -0,0 +1,65 @@
+package com.MyRecipies.recipies.dto;
+
+public class CacheRegionStatsDTO {
+
+    private String region;
+    private long size;
+    private int maxEntries;
+    private long ttlSeconds;
+    private long hits;
+    private long misses;
+    private long puts;
+    private long evictions;
+
+    public CacheRegionStatsDTO() {
+    }
+
+    public CacheRegionStatsDTO(String region, long size, int maxEntries, long ttlSeconds, long hits, long misses,
+            long puts, long evictions) {
+        this.region = region;
+        this.size = size;
+        this.maxEntries = maxEntries;
+        this.ttlSeconds = ttlSeconds;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.evictions = evictions;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,32 @@
+package com.MyRecipies.recipies.dto;
+
+import java.util.List;
+
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+    private String nextCursor;
+    private Long totalElements;
+
+    public CursorPageDTO() {
+    }
+
+    public CursorPageDTO(List<T> content, String nextCursor, Long totalElements) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+}
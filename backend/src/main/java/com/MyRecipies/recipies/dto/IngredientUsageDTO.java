@@ -0,0 +1,41 @@
+package com.MyRecipies.recipies.dto;
+
+import java.math.BigDecimal;
+
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.entities.enums.UnitType;
+
+public class IngredientUsageDTO {
+
+    private Long ingredientId;
+    private String name;
+    private UnitType unit;
+    private BigDecimal totalQuantity;
+
+    public IngredientUsageDTO() {
+    }
+
+    public IngredientUsageDTO(Ingredient entity, BigDecimal totalQuantity) {
+        ingredientId = entity.getId();
+        name = entity.getName();
+        unit = entity.getUnit();
+        this.totalQuantity = totalQuantity;
+    }
+
+    public Long getIngredientId() {
+        return ingredientId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public UnitType getUnit() {
+        return unit;
+    }
+
+    public BigDecimal getTotalQuantity() {
+        return totalQuantity;
+    }
+
+}
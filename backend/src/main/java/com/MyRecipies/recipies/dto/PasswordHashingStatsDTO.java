@@ -0,0 +1,72 @@
+package com.MyRecipies.recipies.dto;
+
+public class PasswordHashingStatsDTO {
+
+    private int threads;
+    private int activeThreads;
+    private int queueDepth;
+    private int queueCapacity;
+    private long completed;
+    private long rejected;
+    private long timedOut;
+    private double averageQueueWaitMillis;
+    private double averageHashMillis;
+    private double maxHashMillis;
+
+    public PasswordHashingStatsDTO() {
+    }
+
+    public PasswordHashingStatsDTO(int threads, int activeThreads, int queueDepth, int queueCapacity, long completed,
+            long rejected, long timedOut, double averageQueueWaitMillis, double averageHashMillis, double maxHashMillis) {
+        this.threads = threads;
+        this.activeThreads = activeThreads;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.completed = completed;
+        this.rejected = rejected;
+        this.timedOut = timedOut;
+        this.averageQueueWaitMillis = averageQueueWaitMillis;
+        this.averageHashMillis = averageHashMillis;
+        this.maxHashMillis = maxHashMillis;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    public double getAverageQueueWaitMillis() {
+        return averageQueueWaitMillis;
+    }
+
+    public double getAverageHashMillis() {
+        return averageHashMillis;
+    }
+
+    public double getMaxHashMillis() {
+        return maxHashMillis;
+    }
+}
@@ -0,0 +1,53 @@
+package com.MyRecipies.recipies.dto;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public class PriceChangeDTO {
+
+    @NotNull
+    private Long ingredientId;
+
+    // variação percentual sobre o preço atual (18 = +18%, -5 = -5%)
+    @DecimalMin(value = "-100", message = "A variação não pode ser menor que -100%")
+    private BigDecimal percentChange;
+
+    // preço absoluto; quando informado, tem prioridade sobre a variação
+    @PositiveOrZero
+    private BigDecimal priceCost;
+
+    public PriceChangeDTO() {
+    }
+
+    public PriceChangeDTO(Long ingredientId, BigDecimal percentChange, BigDecimal priceCost) {
+        this.ingredientId = ingredientId;
+        this.percentChange = percentChange;
+        this.priceCost = priceCost;
+    }
+
+    public Long getIngredientId() {
+        return ingredientId;
+    }
+
+    public BigDecimal getPercentChange() {
+        return percentChange;
+    }
+
+    public BigDecimal getPriceCost() {
+        return priceCost;
+    }
+
+    // sem preço nem variação a alteração não muda nada e esconderia um erro do cliente
+    @JsonIgnore
+    @AssertTrue(message = "Informe o preço ou a variação percentual")
+    public boolean isPriceOrPercentChangeInformed() {
+        return priceCost != null || percentChange != null;
+    }
+
+}
@@ -66,6 +66,10 @@ public class RecipeDTO {
         lastUpdateDate = entity.getLastUpdateDate();
         items = entity.getItems().stream().map(x -> new RecipeItemDTO(x)).collect(Collectors.toList());
         client = new ClientDTO(entity.getClient());
+        totalCost = entity.getTotalCost();
+        costPerUnit = entity.getCostPerUnit();
+        profit = entity.getProfit();
+        margin = entity.getMargin();
     }
 
     public String getProductName() {
@@ -0,0 +1,24 @@
+package com.MyRecipies.recipies.dto;
+
+public class RecipeRefreshDTO {
+
+    private Long clientId;
+    private Integer refreshedRecipes;
+
+    public RecipeRefreshDTO() {
+    }
+
+    public RecipeRefreshDTO(Long clientId, Integer refreshedRecipes) {
+        this.clientId = clientId;
+        this.refreshedRecipes = refreshedRecipes;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public Integer getRefreshedRecipes() {
+        return refreshedRecipes;
+    }
+
+}
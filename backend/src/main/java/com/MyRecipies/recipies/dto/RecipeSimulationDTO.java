@@ -0,0 +1,52 @@
+package com.MyRecipies.recipies.dto;
+
+import java.math.BigDecimal;
+
+import com.MyRecipies.recipies.costing.RecipeFinancials;
+
+public class RecipeSimulationDTO {
+
+    private Long recipeId;
+    private String productName;
+    private BigDecimal totalCost;
+    private BigDecimal costPerUnit;
+    private BigDecimal profit;
+    private BigDecimal margin;
+
+    public RecipeSimulationDTO() {
+    }
+
+    public RecipeSimulationDTO(Long recipeId, String productName, RecipeFinancials financials) {
+        this.recipeId = recipeId;
+        this.productName = productName;
+        totalCost = financials.totalCost();
+        costPerUnit = financials.costPerUnit();
+        profit = financials.profit();
+        margin = financials.margin();
+    }
+
+    public Long getRecipeId() {
+        return recipeId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public BigDecimal getTotalCost() {
+        return totalCost;
+    }
+
+    public BigDecimal getCostPerUnit() {
+        return costPerUnit;
+    }
+
+    public BigDecimal getProfit() {
+        return profit;
+    }
+
+    public BigDecimal getMargin() {
+        return margin;
+    }
+
+}
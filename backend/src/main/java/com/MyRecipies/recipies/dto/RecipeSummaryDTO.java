@@ -0,0 +1,104 @@
+package com.MyRecipies.recipies.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// linha da listagem de receitas, montada direto pelo RecipeRepository com o resumo financeiro gravado
+public class RecipeSummaryDTO {
+
+    private Long id;
+    private Long clientId;
+    private String productName;
+    private BigDecimal productPrice;
+    private String imgUrl;
+    private String description;
+    private Integer amount;
+    private LocalDate createDate;
+    private LocalDateTime lastUpdateDate;
+    private Integer itemCount;
+
+    private BigDecimal totalCost;
+    private BigDecimal costPerUnit;
+    private BigDecimal profit;
+    private BigDecimal margin;
+
+    public RecipeSummaryDTO() {
+    }
+
+    public RecipeSummaryDTO(Long id, Long clientId, String productName, BigDecimal productPrice, String imgUrl,
+            String description, Integer amount, LocalDate createDate, LocalDateTime lastUpdateDate, Integer itemCount,
+            BigDecimal totalCost, BigDecimal costPerUnit, BigDecimal profit, BigDecimal margin) {
+        this.id = id;
+        this.clientId = clientId;
+        this.productName = productName;
+        this.productPrice = productPrice;
+        this.imgUrl = imgUrl;
+        this.description = description;
+        this.amount = amount;
+        this.createDate = createDate;
+        this.lastUpdateDate = lastUpdateDate;
+        this.itemCount = itemCount;
+        this.totalCost = totalCost;
+        this.costPerUnit = costPerUnit;
+        this.profit = profit;
+        this.margin = margin;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public BigDecimal getProductPrice() {
+        return productPrice;
+    }
+
+    public String getImgUrl() {
+        return imgUrl;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Integer getAmount() {
+        return amount;
+    }
+
+    public LocalDate getCreateDate() {
+        return createDate;
+    }
+
+    public LocalDateTime getLastUpdateDate() {
+        return lastUpdateDate;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public BigDecimal getTotalCost() {
+        return totalCost;
+    }
+
+    public BigDecimal getCostPerUnit() {
+        return costPerUnit;
+    }
+
+    public BigDecimal getProfit() {
+        return profit;
+    }
+
+    public BigDecimal getMargin() {
+        return margin;
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.MyRecipies.recipies.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+public class SimulationRequestDTO {
+
+    @NotEmpty(message = "Informe ao menos um cenário")
+    @Valid
+    private List<SimulationScenarioDTO> scenarios = new ArrayList<>();
+
+    public SimulationRequestDTO() {
+    }
+
+    public SimulationRequestDTO(List<SimulationScenarioDTO> scenarios) {
+        this.scenarios = scenarios;
+    }
+
+    public List<SimulationScenarioDTO> getScenarios() {
+        return scenarios;
+    }
+
+}
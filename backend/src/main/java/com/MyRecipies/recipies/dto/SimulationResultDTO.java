@@ -0,0 +1,27 @@
+package com.MyRecipies.recipies.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SimulationResultDTO {
+
+    private String scenario;
+    private List<RecipeSimulationDTO> recipes = new ArrayList<>();
+
+    public SimulationResultDTO() {
+    }
+
+    public SimulationResultDTO(String scenario, List<RecipeSimulationDTO> recipes) {
+        this.scenario = scenario;
+        this.recipes = recipes;
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    public List<RecipeSimulationDTO> getRecipes() {
+        return recipes;
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.MyRecipies.recipies.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.Valid;
+
+public class SimulationScenarioDTO {
+
+    private String name;
+
+    @Valid
+    private List<PriceChangeDTO> changes = new ArrayList<>();
+
+    public SimulationScenarioDTO() {
+    }
+
+    public SimulationScenarioDTO(String name, List<PriceChangeDTO> changes) {
+        this.name = name;
+        this.changes = changes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<PriceChangeDTO> getChanges() {
+        return changes;
+    }
+
+}
@@ -4,8 +4,14 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.MyRecipies.recipies.costing.CostPrecision;
+import com.MyRecipies.recipies.costing.FixedPoint;
 import com.MyRecipies.recipies.entities.enums.UnitType;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -17,20 +23,24 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ingredients")
 @Table(name = "ingredients")
 public class Ingredient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingredients_seq")
+    @SequenceGenerator(name = "ingredients_seq", sequenceName = "ingredients_seq", allocationSize = 50)
     private Long id;
     private String name;
 
     private String brand;
 
-    @Column(name = "price_cost", nullable = false)
+    @Column(name = "price_cost", nullable = false, precision = CostPrecision.PRECISION, scale = CostPrecision.MONEY_SCALE)
     private BigDecimal priceCost;
 
     private String imgUrl;
@@ -40,7 +50,7 @@ public class Ingredient {
 
     private LocalDateTime lastUpdateDate;
 
-    @Column(name = "quantity_per_unit", nullable = false)
+    @Column(name = "quantity_per_unit", nullable = false, precision = CostPrecision.PRECISION, scale = CostPrecision.COST_SCALE)
     private BigDecimal quantityPerUnit;
 
     @Enumerated(EnumType.STRING)
@@ -173,7 +183,14 @@ public class Ingredient {
     }
 
     public BigDecimal calculateUnitCost() {
-        return this.priceCost.divide(this.quantityPerUnit);
+        return FixedPoint.toBigDecimal(calculateUnitCostMicros());
+    }
+
+    public long calculateUnitCostMicros() {
+        long quantityPerUnit = FixedPoint.toMicros(this.quantityPerUnit);
+        if (quantityPerUnit == 0L)
+            return 0L;
+        return FixedPoint.divide(FixedPoint.toMicros(this.priceCost), quantityPerUnit);
     }
 
 }
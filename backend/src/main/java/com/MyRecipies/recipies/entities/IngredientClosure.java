@@ -0,0 +1,83 @@
+package com.MyRecipies.recipies.entities;
+
+import java.math.BigDecimal;
+
+import com.MyRecipies.recipies.costing.CostPrecision;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// quantidade total de um ingrediente por unidade produzida, somando todos os níveis de subprodutos
+@Entity
+@Table(name = "product_ingredient_closure",
+        uniqueConstraints = @UniqueConstraint(name = "uk_closure_product_ingredient",
+                columnNames = { "product_id", "ingredient_id" }))
+public class IngredientClosure {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_ingredient_closure_seq")
+    @SequenceGenerator(name = "product_ingredient_closure_seq", sequenceName = "product_ingredient_closure_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ingredient_id", nullable = false)
+    private Ingredient ingredient;
+
+    @Column(nullable = false, precision = CostPrecision.PRECISION, scale = CostPrecision.COST_SCALE)
+    private BigDecimal quantity;
+
+    public IngredientClosure() {
+    }
+
+    public IngredientClosure(Product product, Ingredient ingredient, BigDecimal quantity) {
+        this.product = product;
+        this.ingredient = ingredient;
+        this.quantity = quantity;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public void setProduct(Product product) {
+        this.product = product;
+    }
+
+    public Ingredient getIngredient() {
+        return ingredient;
+    }
+
+    public void setIngredient(Ingredient ingredient) {
+        this.ingredient = ingredient;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+
+}
@@ -4,6 +4,12 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.MyRecipies.recipies.costing.CostPrecision;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,20 +19,24 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
 @Table(name = "products")
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false)
+    @Column(nullable = false, precision = CostPrecision.PRECISION, scale = CostPrecision.MONEY_SCALE)
     private BigDecimal price;
 
     private String imgUrl;
@@ -123,11 +133,7 @@ public class Product {
         if (this.recipe == null)
             return BigDecimal.ZERO; // produtos sem receita não têm custo calculado
 
-        BigDecimal totalCost = this.recipe.calculateTotalCost();
-        if (this.recipe.getAmount() == 0)
-            return BigDecimal.ZERO;
-
-        return totalCost.divide(BigDecimal.valueOf(this.recipe.getAmount()));
+        return this.recipe.calculateUnitCost();
     }
 
 }
@@ -5,6 +5,13 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.SQLRestriction;
+
+import com.MyRecipies.recipies.costing.CostPrecision;
+import com.MyRecipies.recipies.costing.CostingEngine;
+import com.MyRecipies.recipies.costing.FixedPoint;
+import com.MyRecipies.recipies.costing.RecipeFinancials;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -18,7 +25,9 @@ import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
+// receitas excluídas somem de toda consulta, inclusive findById e associações
 @Entity
+@SQLRestriction("deleted = false")
 @Table(name = "recipes")
 public class Recipe {
 
@@ -30,6 +39,10 @@ public class Recipe {
     @JoinColumn(name = "product_id")
     private Product product;
 
+    // cópia de product.name para a paginação por cursor usar um índice só de recipes
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+
     private LocalDateTime lastUpdateDate;
     private String description;
     private Integer amount;
@@ -37,6 +50,26 @@ public class Recipe {
     @Column(nullable = false)
     private Boolean deleted = false;
 
+    // base do arquivamento: excluídas há mais tempo que recipes.archive.after-days saem das tabelas quentes
+    private LocalDateTime deletedAt;
+
+    // último número de versão usado; só o RecipeRepository.incrementVersionCounters altera
+    @Column(name = "version_counter", nullable = false, updatable = false)
+    private Integer versionCounter = 0;
+
+    // resumo financeiro gravado junto com os itens, para listagens e ordenação no banco
+    @Column(name = "total_cost", precision = CostPrecision.PRECISION, scale = CostPrecision.MONEY_SCALE)
+    private BigDecimal totalCost;
+
+    @Column(name = "cost_per_unit", precision = CostPrecision.PRECISION, scale = CostPrecision.MONEY_SCALE)
+    private BigDecimal costPerUnit;
+
+    @Column(precision = CostPrecision.PRECISION, scale = CostPrecision.MONEY_SCALE)
+    private BigDecimal profit;
+
+    @Column(precision = 9, scale = 2)
+    private BigDecimal margin;
+
     @ManyToOne
     @JoinColumn(name = "client_id")
     private User client;
@@ -74,6 +107,14 @@ public class Recipe {
         this.product = product;
     }
 
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
     public LocalDateTime getLastUpdateDate() {
         return lastUpdateDate;
     }
@@ -132,6 +173,9 @@ public class Recipe {
     @PrePersist
     protected void onCreate() {
         this.lastUpdateDate = LocalDateTime.now();
+        if (productName == null && product != null) {
+            productName = product.getName();
+        }
     }
 
     @PreUpdate
@@ -139,16 +183,20 @@ public class Recipe {
         this.lastUpdateDate = LocalDateTime.now();
     }
 
+    public long calculateTotalCostMicros() {
+        long total = 0L;
+        for (RecipeItem item : items) {
+            total = Math.addExact(total, FixedPoint.toMicros(item.getTotalCost()));
+        }
+        return total;
+    }
+
     public BigDecimal calculateTotalCost() {
-        return items.stream()
-                .map(RecipeItem::getTotalCost)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return FixedPoint.toBigDecimal(calculateTotalCostMicros());
     }
 
     public BigDecimal calculateUnitCost() {
-        if (amount == 0)
-            return BigDecimal.ZERO;
-        return calculateTotalCost().divide(BigDecimal.valueOf(amount));
+        return CostPrecision.divide(calculateTotalCost(), amount == null ? 0 : amount);
     }
 
     public BigDecimal calculateUnitProfit() {
@@ -164,7 +212,7 @@ public class Recipe {
         if (unitCost.compareTo(BigDecimal.ZERO) == 0)
             return BigDecimal.ZERO;
 
-        return calculateUnitProfit().divide(unitCost).multiply(BigDecimal.valueOf(100));
+        return CostPrecision.divide(calculateUnitProfit(), unitCost).movePointRight(2);
     }
 
     public List<RecipeVersion> getVersions() {
@@ -175,6 +223,34 @@ public class Recipe {
         this.versions = versions;
     }
 
+    public BigDecimal getTotalCost() {
+        return totalCost;
+    }
+
+    public BigDecimal getCostPerUnit() {
+        return costPerUnit;
+    }
+
+    public BigDecimal getProfit() {
+        return profit;
+    }
+
+    public BigDecimal getMargin() {
+        return margin;
+    }
+
+    public RecipeFinancials calculateFinancials() {
+        return CostingEngine.financials(calculateTotalCostMicros(), amount,
+                FixedPoint.toMicros(product.getPrice()), CostingEngine.RECIPE_MARGIN_DIGITS);
+    }
+
+    public void applyFinancials(RecipeFinancials financials) {
+        totalCost = financials.totalCost();
+        costPerUnit = financials.costPerUnit();
+        profit = financials.profit();
+        margin = financials.margin();
+    }
+
     public Boolean getDeleted() {
         return deleted;
     }
@@ -183,4 +259,16 @@ public class Recipe {
         this.deleted = deleted;
     }
 
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public Integer getVersionCounter() {
+        return versionCounter;
+    }
+
 }
@@ -2,6 +2,10 @@ package com.MyRecipies.recipies.entities;
 
 import java.math.BigDecimal;
 
+import com.MyRecipies.recipies.costing.CostPrecision;
+import com.MyRecipies.recipies.costing.CostingEngine;
+import com.MyRecipies.recipies.costing.FixedPoint;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -9,6 +13,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -16,7 +21,8 @@ import jakarta.persistence.Table;
 public class RecipeItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_items_seq")
+    @SequenceGenerator(name = "recipe_items_seq", sequenceName = "recipe_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -31,13 +37,13 @@ public class RecipeItem {
     @JoinColumn(name = "ingredient_id")
     private Ingredient ingredient;
 
-    @Column(nullable = false)
+    @Column(nullable = false, precision = CostPrecision.PRECISION, scale = CostPrecision.COST_SCALE)
     private BigDecimal quantity;
 
-    @Column(nullable = false)
+    @Column(nullable = false, precision = CostPrecision.PRECISION, scale = CostPrecision.COST_SCALE)
     private BigDecimal unitCostSnapshot;
 
-    @Column(nullable = false)
+    @Column(nullable = false, precision = CostPrecision.PRECISION, scale = CostPrecision.COST_SCALE)
     private BigDecimal totalCostSnapshot;
     
     public RecipeItem() {
@@ -92,16 +98,21 @@ public class RecipeItem {
     }
 
     public void calculateSnapshot() {
-        BigDecimal unitCost = BigDecimal.ZERO;
+        long unitCost = 0L;
 
         if (ingredient != null) {
-            unitCost = ingredient.calculateUnitCost();
+            unitCost = FixedPoint.toMicros(ingredient.calculateUnitCost());
         } else if (subProduct != null) {
-            unitCost = subProduct.calculateUnitCost();
+            unitCost = FixedPoint.toMicros(subProduct.calculateUnitCost());
         }
 
-        this.unitCostSnapshot = unitCost;
-        this.totalCostSnapshot = unitCost.multiply(quantity);
+        applyUnitCost(unitCost);
+    }
+
+    public void applyUnitCost(long unitCostMicros) {
+        this.unitCostSnapshot = FixedPoint.toBigDecimal(unitCostMicros);
+        this.totalCostSnapshot = FixedPoint.toBigDecimal(
+                CostingEngine.itemTotal(unitCostMicros, FixedPoint.toMicros(quantity)));
     }
 
     public BigDecimal getUnitCost() {
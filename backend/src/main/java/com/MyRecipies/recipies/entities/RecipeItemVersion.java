@@ -2,14 +2,17 @@ package com.MyRecipies.recipies.entities;
 
 import java.math.BigDecimal;
 
+import com.MyRecipies.recipies.costing.CostPrecision;
 import com.MyRecipies.recipies.entities.enums.UnitType;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -17,16 +20,20 @@ import jakarta.persistence.Table;
 public class RecipeItemVersion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_item_versions_seq")
+    @SequenceGenerator(name = "recipe_item_versions_seq", sequenceName = "recipe_item_versions_seq", allocationSize = 50)
     private Long id;
 
     private Long ingredientId;
     private Long subProductId;
 
     private String ingredientName;
+    @Column(precision = CostPrecision.PRECISION, scale = CostPrecision.COST_SCALE)
     private BigDecimal quantity;
+    @Column(precision = CostPrecision.PRECISION, scale = CostPrecision.COST_SCALE)
     private BigDecimal unitCostSnapshot;
     private UnitType unit;
+    @Column(precision = CostPrecision.PRECISION, scale = CostPrecision.COST_SCALE)
     private BigDecimal totalCostSnapshot;
 
     @ManyToOne
@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.MyRecipies.recipies.costing.CostPrecision;
 import com.MyRecipies.recipies.entities.enums.VersionActionType;
 
 import jakarta.persistence.CascadeType;
@@ -18,12 +19,18 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_recipe_version_number",
+        columnNames = { "recipe_product_id", "version_number" }))
 public class RecipeVersion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_version_seq")
+    @SequenceGenerator(name = "recipe_version_seq", sequenceName = "recipe_version_seq", allocationSize = 50)
     private Long id;
 
     private Integer versionNumber;
@@ -33,6 +40,7 @@ public class RecipeVersion {
     private Integer amount;
 
     private String productNameSnapshot;
+    @Column(precision = CostPrecision.PRECISION, scale = CostPrecision.MONEY_SCALE)
     private BigDecimal productPriceSnapshot;
 
     @Enumerated(EnumType.STRING)
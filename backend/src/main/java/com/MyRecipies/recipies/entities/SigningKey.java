@@ -0,0 +1,90 @@
+package com.MyRecipies.recipies.entities;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// par RSA que assina os JWT, em DER codificado em Base64; a privada cifrada pelo SigningKeyService
+@Entity
+@Table(name = "signing_keys")
+public class SigningKey {
+
+    @Id
+    @Column(length = 64)
+    private String kid;
+
+    @Column(nullable = false, length = 4000)
+    private String publicKey;
+
+    @Column(nullable = false, length = 4000)
+    private String privateKey;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // publicada antes de assinar, para que os outros nós já a conheçam
+    @Column(nullable = false)
+    private Instant activatesAt;
+
+    // preenchido na rotação: continua valendo para verificar os tokens que assinou
+    private Instant expiresAt;
+
+    public SigningKey() {
+    }
+
+    public SigningKey(String kid, String publicKey, String privateKey, Instant createdAt, Instant activatesAt) {
+        this.kid = kid;
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+        this.createdAt = createdAt;
+        this.activatesAt = activatesAt;
+    }
+
+    public String getKid() {
+        return kid;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getActivatesAt() {
+        return activatesAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public int hashCode() {
+        return kid == null ? 0 : kid.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        SigningKey other = (SigningKey) obj;
+        return kid != null && kid.equals(other.kid);
+    }
+}
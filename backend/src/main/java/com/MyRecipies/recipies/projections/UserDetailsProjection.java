@@ -2,6 +2,7 @@ package com.MyRecipies.recipies.projections;
 
 public interface UserDetailsProjection {
 
+    Long getUserId();
     String getUsername();
 	String getPassword();
 	Long getRoleId();
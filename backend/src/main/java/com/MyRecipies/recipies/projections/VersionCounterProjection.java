@@ -0,0 +1,7 @@
+package com.MyRecipies.recipies.projections;
+
+public interface VersionCounterProjection {
+
+    Long getId();
+    Integer getVersionCounter();
+}
@@ -0,0 +1,37 @@
+package com.MyRecipies.recipies.repositories;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.MyRecipies.recipies.entities.IngredientClosure;
+
+public interface IngredientClosureRepository extends JpaRepository<IngredientClosure, Long> {
+
+    @Query("SELECT c FROM IngredientClosure c WHERE c.product.id = :productId")
+    List<IngredientClosure> findByProductId(Long productId);
+
+    @Modifying
+    @Query("DELETE FROM IngredientClosure c WHERE c.product.id = :productId")
+    void deleteByProductId(Long productId);
+
+    /*
+     * Quantidade do ingrediente para produzir um lote de cada receita final do
+     * cliente, as que não entram como subproduto de outra receita ativa. O
+     * closure da receita final já inclui os subprodutos em todos os níveis, então
+     * somar também as receitas deles contaria o mesmo ingrediente duas vezes.
+     */
+    @Query("""
+            SELECT COALESCE(SUM(c.quantity * r.amount), 0)
+            FROM IngredientClosure c, Recipe r
+            WHERE r.product = c.product
+            AND c.ingredient.id = :ingredientId
+            AND r.client.id = :clientId
+            AND NOT EXISTS (SELECT 1 FROM RecipeItem i JOIN i.recipe parent
+                WHERE i.subProduct = r.product AND parent.deleted = false)
+            """)
+    BigDecimal sumQuantityAcrossRecipes(Long ingredientId, Long clientId);
+}
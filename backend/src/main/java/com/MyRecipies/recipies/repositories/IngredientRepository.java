@@ -1,15 +1,42 @@
 package com.MyRecipies.recipies.repositories;
 
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.MyRecipies.recipies.entities.Ingredient;
 
+import jakarta.persistence.QueryHint;
+
 public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
 
     @Query("SELECT i FROM Ingredient i WHERE i.client.id = :clientId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Page<Ingredient> findByClientId(Long clientId, Pageable pageable);
 
+    @Query("""
+            SELECT i FROM Ingredient i
+            WHERE i.client.id = :clientId
+            AND (i.name > :name OR (i.name = :name AND i.id > :id))
+            ORDER BY i.name, i.id
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Ingredient> seekByClientId(Long clientId, String name, Long id, Limit limit);
+
+    @Query("""
+            SELECT i FROM Ingredient i
+            WHERE i.name > :name OR (i.name = :name AND i.id > :id)
+            ORDER BY i.name, i.id
+            """)
+    List<Ingredient> seekAll(String name, Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    long countByClientId(Long clientId);
+
 }
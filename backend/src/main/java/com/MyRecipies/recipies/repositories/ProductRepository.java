@@ -1,9 +1,15 @@
 package com.MyRecipies.recipies.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.MyRecipies.recipies.entities.Product;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    @Query("SELECT p FROM Product p JOIN FETCH p.recipe r WHERE p.id IN :ids")
+    List<Product> findWithRecipeByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,111 @@
+package com.MyRecipies.recipies.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+
+import com.MyRecipies.recipies.entities.Recipe;
+
+import jakarta.persistence.QueryHint;
+
+/**
+ * SQL nativo do arquivamento: as receitas excluídas ficam invisíveis para o JPQL
+ * por causa do filtro da entidade. Os INSERTs listam as colunas para que o
+ * arquivo não dependa da ordem física das tabelas; o hint de native spaces
+ * evita que o Hibernate esvazie todo o cache de segundo nível a cada comando.
+ * O job roda em todos os nós: {@code FOR UPDATE SKIP LOCKED} faz cada nó pegar
+ * um lote diferente em vez de arquivar as mesmas receitas duas vezes.
+ * {@code recipes_archive} não guarda {@code deleted}: toda receita arquivada é excluída.
+ */
+public interface RecipeArchiveRepository extends Repository<Recipe, Long> {
+
+    @Query(nativeQuery = true, value = """
+            SELECT product_id FROM recipes
+            WHERE deleted = true AND deleted_at < :cutoff
+            ORDER BY product_id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """)
+    List<Long> findArchivableIds(LocalDateTime cutoff, int limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipe_item_versions_archive"))
+    @Query(nativeQuery = true, value = """
+            INSERT INTO recipe_item_versions_archive
+            (id, version_id, ingredient_id, sub_product_id, ingredient_name, quantity, unit,
+             unit_cost_snapshot, total_cost_snapshot, archived_at)
+            SELECT iv.id, iv.version_id, iv.ingredient_id, iv.sub_product_id, iv.ingredient_name, iv.quantity, iv.unit,
+                   iv.unit_cost_snapshot, iv.total_cost_snapshot, :archivedAt
+            FROM recipe_item_versions iv
+            JOIN recipe_version v ON v.id = iv.version_id
+            WHERE v.recipe_product_id IN :recipeIds
+            """)
+    int archiveItemVersions(Collection<Long> recipeIds, LocalDateTime archivedAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipe_item_versions"))
+    @Query(nativeQuery = true, value = """
+            DELETE FROM recipe_item_versions
+            WHERE version_id IN (SELECT v.id FROM recipe_version v WHERE v.recipe_product_id IN :recipeIds)
+            """)
+    int deleteItemVersions(Collection<Long> recipeIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipe_version_archive"))
+    @Query(nativeQuery = true, value = """
+            INSERT INTO recipe_version_archive
+            (id, recipe_product_id, version_number, created_at, description, amount, product_name_snapshot,
+             product_price_snapshot, action_type, archived_at)
+            SELECT v.id, v.recipe_product_id, v.version_number, v.created_at, v.description, v.amount,
+                   v.product_name_snapshot, v.product_price_snapshot, v.action_type, :archivedAt
+            FROM recipe_version v
+            WHERE v.recipe_product_id IN :recipeIds
+            """)
+    int archiveVersions(Collection<Long> recipeIds, LocalDateTime archivedAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipe_version"))
+    @Query(nativeQuery = true, value = "DELETE FROM recipe_version WHERE recipe_product_id IN :recipeIds")
+    int deleteVersions(Collection<Long> recipeIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipe_items_archive"))
+    @Query(nativeQuery = true, value = """
+            INSERT INTO recipe_items_archive
+            (id, recipe_id, ingredient_id, sub_product_id, quantity, unit_cost_snapshot, total_cost_snapshot, archived_at)
+            SELECT i.id, i.recipe_id, i.ingredient_id, i.sub_product_id, i.quantity, i.unit_cost_snapshot,
+                   i.total_cost_snapshot, :archivedAt
+            FROM recipe_items i
+            WHERE i.recipe_id IN :recipeIds
+            """)
+    int archiveItems(Collection<Long> recipeIds, LocalDateTime archivedAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipe_items"))
+    @Query(nativeQuery = true, value = "DELETE FROM recipe_items WHERE recipe_id IN :recipeIds")
+    int deleteItems(Collection<Long> recipeIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipes_archive"))
+    @Query(nativeQuery = true, value = """
+            INSERT INTO recipes_archive
+            (product_id, client_id, product_name, description, amount, last_update_date, total_cost, cost_per_unit,
+             profit, margin, version_counter, deleted_at, archived_at)
+            SELECT r.product_id, r.client_id, r.product_name, r.description, r.amount, r.last_update_date,
+                   r.total_cost, r.cost_per_unit, r.profit, r.margin, r.version_counter, r.deleted_at, :archivedAt
+            FROM recipes r
+            WHERE r.product_id IN :recipeIds
+            """)
+    int archiveRecipes(Collection<Long> recipeIds, LocalDateTime archivedAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipes"))
+    @Query(nativeQuery = true, value = "DELETE FROM recipes WHERE product_id IN :recipeIds")
+    int deleteRecipes(Collection<Long> recipeIds);
+}
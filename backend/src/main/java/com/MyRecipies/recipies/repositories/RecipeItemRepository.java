@@ -1,9 +1,27 @@
 package com.MyRecipies.recipies.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import com.MyRecipies.recipies.entities.Recipe;
 import com.MyRecipies.recipies.entities.RecipeItem;
 
 public interface RecipeItemRepository extends JpaRepository<RecipeItem, Long> {
 
+    @Query("SELECT DISTINCT ri.recipe FROM RecipeItem ri WHERE ri.subProduct.id = :productId")
+    List<Recipe> findParentRecipesBySubProductId(Long productId);
+
+    @Query("SELECT DISTINCT ri.recipe FROM RecipeItem ri WHERE ri.subProduct.id IN :productIds")
+    List<Recipe> findParentRecipesBySubProductIds(Collection<Long> productIds);
+
+    // o filtro de excluídas da entidade não vale no JOIN implícito, por isso o deleted explícito
+    @Query("SELECT COUNT(ri) > 0 FROM RecipeItem ri WHERE ri.subProduct.id = :productId AND ri.recipe.deleted = false")
+    boolean existsActiveParentBySubProductId(Long productId);
+
+    @Query("SELECT DISTINCT ri.recipe FROM RecipeItem ri WHERE ri.ingredient.id = :ingredientId")
+    List<Recipe> findRecipesByIngredientId(Long ingredientId);
+
 }
@@ -1,19 +1,132 @@
 package com.MyRecipies.recipies.repositories;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.lang.NonNull;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import com.MyRecipies.recipies.dto.RecipeSummaryDTO;
 import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.projections.VersionCounterProjection;
+
+import jakarta.persistence.QueryHint;
 
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
 
-    @Query("SELECT r FROM Recipe r WHERE r.client.id = :clientId AND r.deleted = false")
+    @Query("SELECT r FROM Recipe r WHERE r.client.id = :clientId")
     Page<Recipe> findByClientId(Long clientId, Pageable pageable);
 
-    @Query("SELECT r FROM Recipe r WHERE r.deleted = false")
-    @NonNull
-    Page<Recipe> findAll(@NonNull Pageable pageable);
+    @Query("""
+            SELECT r FROM Recipe r
+            JOIN FETCH r.product
+            LEFT JOIN FETCH r.items i
+            LEFT JOIN FETCH i.ingredient
+            LEFT JOIN FETCH i.subProduct
+            WHERE r.client.id = :clientId
+            """)
+    List<Recipe> findWithItemsByClientId(Long clientId);
+
+    // resumo financeiro gravado em Recipe; só a contagem de itens vai às recipe_items
+    @Query(value = """
+            SELECT new com.MyRecipies.recipies.dto.RecipeSummaryDTO(
+                r.id, r.client.id, p.name, p.price, p.imgUrl, r.description, r.amount,
+                p.createDate, r.lastUpdateDate, SIZE(r.items), r.totalCost, r.costPerUnit, r.profit, r.margin)
+            FROM Recipe r
+            JOIN r.product p
+            WHERE r.client.id = :clientId
+            """,
+            countQuery = "SELECT COUNT(r) FROM Recipe r WHERE r.client.id = :clientId")
+    Page<RecipeSummaryDTO> findSummariesByClientId(Long clientId, Pageable pageable);
+
+    @Query(value = """
+            SELECT new com.MyRecipies.recipies.dto.RecipeSummaryDTO(
+                r.id, r.client.id, p.name, p.price, p.imgUrl, r.description, r.amount,
+                p.createDate, r.lastUpdateDate, SIZE(r.items), r.totalCost, r.costPerUnit, r.profit, r.margin)
+            FROM Recipe r
+            JOIN r.product p
+            """,
+            countQuery = "SELECT COUNT(r) FROM Recipe r")
+    Page<RecipeSummaryDTO> findAllSummaries(Pageable pageable);
+
+    @Query("SELECT r.id FROM Recipe r WHERE r.client.id = :clientId")
+    Page<Long> findIdsByClientId(Long clientId, Pageable pageable);
+
+    @Query("SELECT r.id FROM Recipe r")
+    Page<Long> findAllIds(Pageable pageable);
+
+    // segunda fase da paginação: só as receitas da página, já com tudo que o RecipeDTO lê
+    @EntityGraph(attributePaths = { "product", "client", "items", "items.ingredient", "items.subProduct" })
+    @Query("SELECT r FROM Recipe r WHERE r.id IN :ids")
+    List<Recipe> findWithDetailsByIdIn(Collection<Long> ids);
+
+    @Query("""
+            SELECT new com.MyRecipies.recipies.dto.RecipeSummaryDTO(
+                r.id, r.client.id, p.name, p.price, p.imgUrl, r.description, r.amount,
+                p.createDate, r.lastUpdateDate, SIZE(r.items), r.totalCost, r.costPerUnit, r.profit, r.margin)
+            FROM Recipe r
+            JOIN r.product p
+            WHERE r.id IN :ids
+            """)
+    List<RecipeSummaryDTO> findSummariesByIdIn(Collection<Long> ids);
+
+    // servidas por idx_recipes_client_name e idx_recipes_name, sem ler products
+    @Query("""
+            SELECT r.id FROM Recipe r
+            WHERE r.client.id = :clientId
+            AND (r.productName > :name OR (r.productName = :name AND r.id > :id))
+            ORDER BY r.productName, r.id
+            """)
+    List<Long> seekIdsByClientId(Long clientId, String name, Long id, Limit limit);
+
+    @Query("""
+            SELECT r.id FROM Recipe r
+            WHERE r.productName > :name OR (r.productName = :name AND r.id > :id)
+            ORDER BY r.productName, r.id
+            """)
+    List<Long> seekAllIds(String name, Long id, Limit limit);
+
+    // exportação: cursor no banco, sem snapshot para dirty checking e sem encher o cache de segundo nível
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE") })
+    @Query("SELECT r FROM Recipe r JOIN FETCH r.product JOIN FETCH r.client ORDER BY r.id")
+    Stream<Recipe> streamAllForExport();
+
+    @Query("SELECT COUNT(r) FROM Recipe r WHERE r.client.id = :clientId")
+    long countActiveByClientId(Long clientId);
+
+    @Query("SELECT COUNT(r) FROM Recipe r")
+    long countActive();
+
+    // o UPDATE trava as linhas até o fim da transação, então edições concorrentes nunca repetem número
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Recipe r SET r.versionCounter = r.versionCounter + 1 WHERE r.id IN :recipeIds")
+    int incrementVersionCounters(Collection<Long> recipeIds);
+
+    @Query("SELECT r.id FROM Recipe r WHERE r.totalCost IS NULL ORDER BY r.id")
+    List<Long> findIdsWithoutFinancials(Limit limit);
+
+    // UPDATE direto, sem o @PreUpdate que mudaria a data da última alteração
+    @Modifying
+    @Query("""
+            UPDATE Recipe r SET r.totalCost = :totalCost, r.costPerUnit = :costPerUnit, r.profit = :profit,
+                r.margin = :margin
+            WHERE r.id = :id
+            """)
+    int updateFinancials(Long id, BigDecimal totalCost, BigDecimal costPerUnit, BigDecimal profit, BigDecimal margin);
+
+    @Query("SELECT r.id AS id, r.versionCounter AS versionCounter FROM Recipe r WHERE r.id IN :recipeIds")
+    List<VersionCounterProjection> findVersionCounters(Collection<Long> recipeIds);
 }
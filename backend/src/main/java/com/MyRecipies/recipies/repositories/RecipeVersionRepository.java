@@ -4,15 +4,17 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.MyRecipies.recipies.entities.RecipeVersion;
 
 public interface RecipeVersionRepository extends JpaRepository<RecipeVersion, Long> {
 
+    // filtra pela FK para usar o índice; o JOIN aplica o filtro de receitas excluídas
+    @Query("SELECT v FROM RecipeVersion v JOIN FETCH v.recipe WHERE v.recipe.id = :recipeId ORDER BY v.versionNumber DESC")
     List<RecipeVersion> findByRecipeIdOrderByVersionNumberDesc(Long recipeId);
 
+    @Query("SELECT v FROM RecipeVersion v JOIN FETCH v.recipe WHERE v.id = :versionId AND v.recipe.id = :recipeId")
     Optional<RecipeVersion> findByIdAndRecipeId(Long versionId, Long recipeId);
 
 }
-
-
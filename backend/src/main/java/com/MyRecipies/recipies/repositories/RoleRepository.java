@@ -1,10 +1,16 @@
 package com.MyRecipies.recipies.repositories;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.MyRecipies.recipies.entities.Role;
 
+import jakarta.persistence.QueryHint;
+
 public interface RoleRepository extends JpaRepository<Role, Long> {
 
+    // roda a cada cadastro de usuário e os papéis quase nunca mudam
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Role findByAuthority(String authority);
 }
@@ -0,0 +1,25 @@
+package com.MyRecipies.recipies.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.MyRecipies.recipies.entities.SigningKey;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+
+    @Query("SELECT k FROM SigningKey k WHERE k.expiresAt IS NULL OR k.expiresAt > :now ORDER BY k.activatesAt DESC, k.kid")
+    List<SigningKey> findValid(Instant now);
+
+    // só um nó consegue aposentar as chaves atuais; para os outros o UPDATE não acha nada
+    @Modifying
+    @Query("UPDATE SigningKey k SET k.expiresAt = :expiresAt WHERE k.expiresAt IS NULL AND k.createdAt < :createdBefore")
+    int retireCreatedBefore(Instant createdBefore, Instant expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM SigningKey k WHERE k.expiresAt <= :now")
+    int deleteExpired(Instant now);
+}
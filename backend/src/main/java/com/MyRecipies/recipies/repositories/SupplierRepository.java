@@ -2,13 +2,18 @@ package com.MyRecipies.recipies.repositories;
 
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.MyRecipies.recipies.entities.Supplier;
 
+import jakarta.persistence.QueryHint;
+
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
 
     @Query("SELECT s FROM Supplier s WHERE s.client.id = :clientId")
-List<Supplier> findByClientId(Long clientId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Supplier> findByClientId(Long clientId);
 }
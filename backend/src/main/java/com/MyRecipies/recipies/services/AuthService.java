@@ -1,9 +1,11 @@
 package com.MyRecipies.recipies.services;
 
+import java.util.Collection;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.config.AuthenticatedUser;
 import com.MyRecipies.recipies.services.exceptions.ForbiddenException;
 
 @Service
@@ -13,11 +15,26 @@ public class AuthService {
     private UserService userService;
 
     public void validateSelfOrAdmin(Long userId){
-        User me = userService.authenticated();
+        AuthenticatedUser me = userService.principal();
 
         if(!me.hasRole("ROLE_ADMIN") && !me.getId().equals(userId)){
             throw new ForbiddenException("Acesso negado!");
         }
 
     }
+
+    // um único usuário autenticado para validar vários donos de uma vez
+    public void validateSelfOrAdmin(Collection<Long> userIds){
+        AuthenticatedUser me = userService.principal();
+
+        if(me.hasRole("ROLE_ADMIN")){
+            return;
+        }
+
+        for(Long userId : userIds){
+            if(!me.getId().equals(userId)){
+                throw new ForbiddenException("Acesso negado!");
+            }
+        }
+    }
 }
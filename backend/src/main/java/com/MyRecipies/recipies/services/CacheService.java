@@ -0,0 +1,35 @@
+package com.MyRecipies.recipies.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.MyRecipies.recipies.cache.LocalRegionFactory;
+import com.MyRecipies.recipies.cache.UserCache;
+import com.MyRecipies.recipies.dto.CacheRegionStatsDTO;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@Service
+public class CacheService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserCache userCache;
+
+    public List<CacheRegionStatsDTO> stats() {
+
+        List<CacheRegionStatsDTO> stats = new ArrayList<>();
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        if (sessionFactory.getCache().getRegionFactory() instanceof LocalRegionFactory regionFactory) {
+            stats.addAll(regionFactory.stats());
+        }
+        stats.add(userCache.stats());
+        return stats;
+    }
+}
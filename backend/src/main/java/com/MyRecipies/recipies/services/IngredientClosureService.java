@@ -0,0 +1,143 @@
+package com.MyRecipies.recipies.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.MyRecipies.recipies.costing.FixedPoint;
+import com.MyRecipies.recipies.entities.IngredientClosure;
+import com.MyRecipies.recipies.entities.Product;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.entities.RecipeItem;
+import com.MyRecipies.recipies.repositories.IngredientClosureRepository;
+import com.MyRecipies.recipies.repositories.IngredientRepository;
+import com.MyRecipies.recipies.repositories.RecipeItemRepository;
+import com.MyRecipies.recipies.services.exceptions.RecipeCycleException;
+
+@Service
+public class IngredientClosureService {
+
+    @Autowired
+    private IngredientClosureRepository repository;
+
+    @Autowired
+    private RecipeItemRepository recipeItemRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    // recalcula a receita alterada e todos os produtos que a usam como subproduto, em qualquer nível
+    @Transactional
+    public void refresh(Recipe recipe) {
+
+        Map<Long, Recipe> affected = collectAffected(recipe);
+
+        Map<Long, Map<Long, Long>> closures = new HashMap<>();
+        Set<Long> visiting = new HashSet<>();
+        Set<Product> computed = new LinkedHashSet<>();
+        for (Recipe affectedRecipe : affected.values()) {
+            flatten(affectedRecipe.getProduct(), affected, closures, visiting, computed);
+        }
+
+        for (Product product : computed) {
+            save(product, closures.get(product.getId()));
+        }
+    }
+
+    private Map<Long, Recipe> collectAffected(Recipe recipe) {
+
+        Map<Long, Recipe> affected = new LinkedHashMap<>();
+        affected.put(recipe.getProduct().getId(), recipe);
+
+        Deque<Long> pending = new ArrayDeque<>();
+        pending.add(recipe.getProduct().getId());
+
+        while (!pending.isEmpty()) {
+            for (Recipe parent : recipeItemRepository.findParentRecipesBySubProductId(pending.poll())) {
+                if (affected.putIfAbsent(parent.getProduct().getId(), parent) == null) {
+                    pending.add(parent.getProduct().getId());
+                }
+            }
+        }
+        return affected;
+    }
+
+    private Map<Long, Long> flatten(Product product, Map<Long, Recipe> affected,
+            Map<Long, Map<Long, Long>> closures, Set<Long> visiting, Set<Product> computed) {
+
+        Map<Long, Long> cached = closures.get(product.getId());
+        if (cached != null) {
+            return cached;
+        }
+
+        Recipe recipe = affected.get(product.getId());
+        if (recipe == null) {
+            Map<Long, Long> stored = new HashMap<>();
+            for (IngredientClosure closure : repository.findByProductId(product.getId())) {
+                stored.put(closure.getIngredient().getId(), FixedPoint.toMicros(closure.getQuantity()));
+            }
+            // subprodutos ainda sem linhas na tabela são calculados pela receita e gravados junto
+            if (!stored.isEmpty() || product.getRecipe() == null) {
+                closures.put(product.getId(), stored);
+                return stored;
+            }
+            recipe = product.getRecipe();
+        }
+
+        if (!visiting.add(product.getId())) {
+            throw new RecipeCycleException("Receita com dependência circular: " + product.getName());
+        }
+
+        Map<Long, Long> perBatch = new HashMap<>();
+        for (RecipeItem item : recipe.getItems()) {
+            long quantity = FixedPoint.toMicros(item.getQuantity());
+            if (item.getIngredient() != null) {
+                perBatch.merge(item.getIngredient().getId(), quantity, Math::addExact);
+            } else if (item.getSubProduct() != null) {
+                Map<Long, Long> sub = flatten(item.getSubProduct(), affected, closures, visiting, computed);
+                for (Map.Entry<Long, Long> entry : sub.entrySet()) {
+                    perBatch.merge(entry.getKey(), FixedPoint.multiply(entry.getValue(), quantity), Math::addExact);
+                }
+            }
+        }
+
+        visiting.remove(product.getId());
+
+        Map<Long, Long> perUnit = new HashMap<>();
+        Integer amount = recipe.getAmount();
+        if (amount != null && amount > 0) {
+            for (Map.Entry<Long, Long> entry : perBatch.entrySet()) {
+                perUnit.put(entry.getKey(), FixedPoint.divideHalfUp(entry.getValue(), amount));
+            }
+        }
+
+        closures.put(product.getId(), Collections.unmodifiableMap(perUnit));
+        computed.add(product);
+        return perUnit;
+    }
+
+    private void save(Product product, Map<Long, Long> closure) {
+
+        repository.deleteByProductId(product.getId());
+
+        List<IngredientClosure> rows = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : closure.entrySet()) {
+            rows.add(new IngredientClosure(product,
+                    ingredientRepository.getReferenceById(entry.getKey()),
+                    FixedPoint.toBigDecimal(entry.getValue())));
+        }
+        repository.saveAll(rows);
+    }
+}
@@ -1,16 +1,24 @@
 package com.MyRecipies.recipies.services;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.MyRecipies.recipies.costing.CostPrecision;
+import com.MyRecipies.recipies.dto.CursorPageDTO;
 import com.MyRecipies.recipies.dto.IngredientDTO;
+import com.MyRecipies.recipies.dto.IngredientUsageDTO;
 import com.MyRecipies.recipies.entities.Ingredient;
 import com.MyRecipies.recipies.entities.Supplier;
+import com.MyRecipies.recipies.repositories.IngredientClosureRepository;
 import com.MyRecipies.recipies.repositories.IngredientRepository;
 import com.MyRecipies.recipies.repositories.SupplierRepository;
 import com.MyRecipies.recipies.services.exceptions.DatabaseException;
@@ -33,10 +41,16 @@ public class IngredientService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private IngredientClosureRepository closureRepository;
+
+    @Autowired
+    private RecipeService recipeService;
+
     @Transactional(readOnly = true)
     public Page<IngredientDTO> findByClientId(Pageable pageable){
 
-        Long userId = userService.authenticated().getId();
+        Long userId = userService.principal().getId();
 
         Page<Ingredient> ingredients = repository.findByClientId(userId, pageable);
         return ingredients.map(x -> new IngredientDTO(x));
@@ -48,6 +62,27 @@ public class IngredientService {
         return ingredients.map(x -> new IngredientDTO(x));
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDTO<IngredientDTO> seekByClientId(String cursor, int size, boolean count){
+
+        Long userId = userService.principal().getId();
+        SeekCursor position = SeekCursor.decode(cursor);
+        int pageSize = SeekCursor.size(size);
+
+        List<Ingredient> ingredients = repository.seekByClientId(userId, position.name(), position.id(), Limit.of(pageSize + 1));
+        return toCursorPage(ingredients, pageSize, count ? repository.countByClientId(userId) : null);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<IngredientDTO> seekAll(String cursor, int size, boolean count){
+
+        SeekCursor position = SeekCursor.decode(cursor);
+        int pageSize = SeekCursor.size(size);
+
+        List<Ingredient> ingredients = repository.seekAll(position.name(), position.id(), Limit.of(pageSize + 1));
+        return toCursorPage(ingredients, pageSize, count ? repository.count() : null);
+    }
+
     @Transactional(readOnly = true)
         public IngredientDTO findById(Long id){
             Ingredient ingredient = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Recurso não encontrado!"));
@@ -55,11 +90,19 @@ public class IngredientService {
             return new IngredientDTO(ingredient);
         }
 
+    @Transactional(readOnly = true)
+    public IngredientUsageDTO findUsage(Long id) {
+        Ingredient ingredient = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Recurso não encontrado!"));
+        authService.validateSelfOrAdmin(ingredient.getClient().getId());
+        BigDecimal total = closureRepository.sumQuantityAcrossRecipes(id, ingredient.getClient().getId());
+        return new IngredientUsageDTO(ingredient, total);
+    }
+
     @Transactional
     public IngredientDTO insert(IngredientDTO dto){
         Ingredient ingredient = new Ingredient();
         dtoToEntity(ingredient, dto);
-        ingredient.setClient(userService.authenticated());
+        ingredient.setClient(userService.authenticatedReference());
         ingredient = repository.save(ingredient);
         return new IngredientDTO(ingredient);
     }
@@ -69,8 +112,13 @@ public class IngredientService {
         try {
     Ingredient ingredient = repository.getReferenceById(id);
     authService.validateSelfOrAdmin(ingredient.getClient().getId());
+    BigDecimal oldPriceCost = ingredient.getPriceCost();
+    BigDecimal oldQuantityPerUnit = ingredient.getQuantityPerUnit();
     dtoToEntity(ingredient, dto);
     ingredient = repository.save(ingredient);
+    if (changed(oldPriceCost, ingredient.getPriceCost()) || changed(oldQuantityPerUnit, ingredient.getQuantityPerUnit())) {
+        recipeService.propagateIngredientChange(id);
+    }
         return new IngredientDTO(ingredient);
     } catch (EntityNotFoundException e) {
         throw new ResourceNotFoundException("Ingrediente não encontrado! ID: " + id);
@@ -91,12 +139,29 @@ public void delete(Long id) {
    	}
 }
 
+    private static boolean changed(BigDecimal before, BigDecimal after) {
+        return before == null ? after != null : after == null || before.compareTo(after) != 0;
+    }
+
+    // a consulta traz um item a mais só para saber se existe próxima página
+    private static CursorPageDTO<IngredientDTO> toCursorPage(List<Ingredient> ingredients, int size, Long total) {
+
+        List<Ingredient> page = ingredients.size() > size ? ingredients.subList(0, size) : ingredients;
+
+        String nextCursor = null;
+        if (ingredients.size() > size) {
+            Ingredient last = page.get(page.size() - 1);
+            nextCursor = new SeekCursor(last.getName(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(page.stream().map(x -> new IngredientDTO(x)).toList(), nextCursor, total);
+    }
+
     private void dtoToEntity(Ingredient entity, IngredientDTO dto){
         entity.setName(dto.getName());
         entity.setBrand(dto.getBrand());
-        entity.setPriceCost(dto.getPriceCost());
+        entity.setPriceCost(CostPrecision.money(dto.getPriceCost()));
         entity.setImgUrl(dto.getImgUrl());
-        entity.setQuantityPerUnit(dto.getQuantityPerUnit());
+        entity.setQuantityPerUnit(CostPrecision.cost(dto.getQuantityPerUnit()));
         entity.setUnit(dto.getUnit());
         
         if (dto.getSupplierId() != null) {
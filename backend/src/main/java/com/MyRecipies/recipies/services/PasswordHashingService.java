@@ -0,0 +1,143 @@
+package com.MyRecipies.recipies.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.MyRecipies.recipies.dto.PasswordHashingStatsDTO;
+import com.MyRecipies.recipies.services.exceptions.PasswordHashingBusyException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * BCrypt fora das threads do Tomcat: um pool fixo com fila limitada. Fila
+ * cheia recusa na hora com {@link PasswordHashingBusyException} (503), em vez
+ * de prender todos os workers numa rajada de logins. A espera pelo resultado
+ * também é limitada ({@code hashing-timeout-ms}): estourou, mesmo 503.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final String BUSY_MESSAGE = "Servidor ocupado, tente novamente em instantes!";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+            @Value("${security.password.hashing-threads:4}") int threads,
+            @Value("${security.password.hashing-queue:64}") int queueCapacity,
+            @Value("${security.password.hashing-timeout-ms:5000}") long timeoutMillis) {
+
+        this.passwordEncoder = passwordEncoder;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(submit(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return await(submit(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    // para regravar o hash sem atrasar a resposta; com o pool cheio fica para o próximo login
+    public CompletableFuture<String> encodeInBackground(CharSequence rawPassword) {
+        try {
+            return submit(() -> passwordEncoder.encode(rawPassword));
+        } catch (PasswordHashingBusyException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // só lê o custo gravado no hash, sem calcular nada
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    public PasswordHashingStatsDTO stats() {
+
+        long done = completed.sum();
+        return new PasswordHashingStatsDTO(executor.getMaximumPoolSize(), executor.getActiveCount(),
+                executor.getQueue().size(), queueCapacity, done, rejected.sum(), timedOut.sum(),
+                averageMillis(queueWaitNanos.sum(), done), averageMillis(hashNanos.sum(), done),
+                maxHashNanos.get() / 1_000_000.0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitNanos.add(startedAt - queuedAt);
+                try {
+                    return task.get();
+                } finally {
+                    long elapsed = System.nanoTime() - startedAt;
+                    hashNanos.add(elapsed);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                    completed.increment();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException(BUSY_MESSAGE);
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // cancelada, a tarefa que ainda está na fila não chega a rodar
+            future.cancel(false);
+            timedOut.increment();
+            throw new PasswordHashingBusyException(BUSY_MESSAGE);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new PasswordHashingBusyException(BUSY_MESSAGE);
+        }
+    }
+
+    private static double averageMillis(long totalNanos, long count) {
+        return count == 0 ? 0.0 : totalNanos / 1_000_000.0 / count;
+    }
+}
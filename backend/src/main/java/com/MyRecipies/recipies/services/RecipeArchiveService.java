@@ -0,0 +1,75 @@
+package com.MyRecipies.recipies.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.MyRecipies.recipies.repositories.RecipeArchiveRepository;
+
+@Service
+public class RecipeArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeArchiveService.class);
+
+    @Autowired
+    private RecipeArchiveRepository archiveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${recipes.archive.after-days:30}")
+    private int afterDays;
+
+    @Value("${recipes.archive.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${recipes.archive.cron:0 0 3 * * *}")
+    public void archiveExpired() {
+
+        int archived = archiveDeletedBefore(LocalDateTime.now().minusDays(afterDays));
+        if (archived > 0) {
+            logger.info("{} receitas excluídas movidas para o arquivo", archived);
+        }
+    }
+
+    // cada lote numa transação curta, para não segurar travas nas tabelas quentes
+    public int archiveDeletedBefore(LocalDateTime cutoff) {
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int archived;
+        do {
+            archived = transaction.execute(status -> archiveBatch(cutoff));
+            total += archived;
+        } while (archived == batchSize);
+        return total;
+    }
+
+    // filhos antes dos pais, por causa das chaves estrangeiras
+    private int archiveBatch(LocalDateTime cutoff) {
+
+        List<Long> ids = archiveRepository.findArchivableIds(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        archiveRepository.archiveItemVersions(ids, now);
+        archiveRepository.deleteItemVersions(ids);
+        archiveRepository.archiveVersions(ids, now);
+        archiveRepository.deleteVersions(ids);
+        archiveRepository.archiveItems(ids, now);
+        archiveRepository.deleteItems(ids);
+        archiveRepository.archiveRecipes(ids, now);
+        archiveRepository.deleteRecipes(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,80 @@
+package com.MyRecipies.recipies.services;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.MyRecipies.recipies.costing.RecipeFinancials;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.repositories.RecipeRepository;
+
+/**
+ * Preenche o resumo financeiro das receitas gravadas antes das colunas de
+ * {@code V1__recipe_summary_columns.sql}, com o mesmo cálculo de cada gravação.
+ * Roda na subida até não sobrar receita sem resumo; nós subindo juntos só
+ * gravam os mesmos valores duas vezes.
+ */
+@Service
+public class RecipeBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeBackfillService.class);
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${recipes.backfill.batch-size:500}")
+    private int batchSize;
+
+    // falha aqui não derruba a aplicação: as receitas restantes ficam para a próxima subida
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+
+        try {
+            int filled = backfillFinancials();
+            if (filled > 0) {
+                logger.info("Resumo financeiro preenchido em {} receitas", filled);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao preencher o resumo financeiro das receitas: {}", e.getMessage());
+        }
+    }
+
+    public int backfillFinancials() {
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int filled;
+        do {
+            filled = transaction.execute(status -> backfillBatch());
+            total += filled;
+        } while (filled == batchSize);
+        return total;
+    }
+
+    private int backfillBatch() {
+
+        List<Long> ids = recipeRepository.findIdsWithoutFinancials(Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        for (Recipe recipe : recipeRepository.findWithDetailsByIdIn(ids)) {
+            RecipeFinancials financials = recipe.calculateFinancials();
+            recipeRepository.updateFinancials(recipe.getId(), financials.totalCost(), financials.costPerUnit(),
+                    financials.profit(), financials.margin());
+        }
+        return ids.size();
+    }
+}
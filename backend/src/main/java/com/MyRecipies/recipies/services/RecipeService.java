@@ -1,22 +1,44 @@
 package com.MyRecipies.recipies.services;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import org.springframework.transaction.annotation.Transactional;
 
+import com.MyRecipies.recipies.costing.BomRollup;
+import com.MyRecipies.recipies.costing.CostPrecision;
+import com.MyRecipies.recipies.costing.CostingEngine;
+import com.MyRecipies.recipies.costing.FixedPoint;
+import com.MyRecipies.recipies.costing.RecipeFinancials;
+import com.MyRecipies.recipies.dto.CursorPageDTO;
 import com.MyRecipies.recipies.dto.RecipeDTO;
 import com.MyRecipies.recipies.dto.RecipeItemDTO;
+import com.MyRecipies.recipies.dto.RecipeRefreshDTO;
+import com.MyRecipies.recipies.dto.RecipeSummaryDTO;
 import com.MyRecipies.recipies.dto.RecipeVersionDTO;
 import com.MyRecipies.recipies.entities.Ingredient;
 import com.MyRecipies.recipies.entities.Product;
@@ -26,17 +48,46 @@ import com.MyRecipies.recipies.entities.RecipeItemVersion;
 import com.MyRecipies.recipies.entities.RecipeVersion;
 import com.MyRecipies.recipies.entities.enums.UnitType;
 import com.MyRecipies.recipies.entities.enums.VersionActionType;
+import com.MyRecipies.recipies.projections.VersionCounterProjection;
 import com.MyRecipies.recipies.repositories.IngredientRepository;
 import com.MyRecipies.recipies.repositories.ProductRepository;
+import com.MyRecipies.recipies.repositories.RecipeItemRepository;
 import com.MyRecipies.recipies.repositories.RecipeRepository;
 import com.MyRecipies.recipies.repositories.RecipeVersionRepository;
+import com.MyRecipies.recipies.services.exceptions.DatabaseException;
+import com.MyRecipies.recipies.services.exceptions.InvalidSortException;
 import com.MyRecipies.recipies.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class RecipeService {
 
+    private static final Logger logger = LoggerFactory.getLogger(RecipeService.class);
+
+    // igual ao hibernate.default_batch_fetch_size: os itens de cada bloco vêm numa consulta só
+    private static final int EXPORT_CHUNK_SIZE = 100;
+
+    // propriedades aceitas no sort das listagens e o caminho correspondente em Recipe
+    private static final Map<String, String> SORTABLE = Map.ofEntries(
+            Map.entry("id", "id"),
+            Map.entry("productName", "productName"),
+            Map.entry("productPrice", "product.price"),
+            Map.entry("description", "description"),
+            Map.entry("amount", "amount"),
+            Map.entry("createDate", "product.createDate"),
+            Map.entry("lastUpdateDate", "lastUpdateDate"),
+            Map.entry("totalCost", "totalCost"),
+            Map.entry("costPerUnit", "costPerUnit"),
+            Map.entry("profit", "profit"),
+            Map.entry("margin", "margin"));
+
     @Autowired
     private RecipeRepository recipeRepository;
 
@@ -49,23 +100,102 @@ public class RecipeService {
     @Autowired
     private RecipeVersionRepository versionRepository;
 
+    @Autowired
+    private RecipeItemRepository recipeItemRepository;
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private IngredientClosureService closureService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public Page<RecipeSummaryDTO> findByClientId(Pageable pageable) {
+        Long userId = userService.principal().getId();
+        return recipeRepository.findSummariesByClientId(userId, sortable(pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<RecipeSummaryDTO> findAll(Pageable pageable) {
+        return recipeRepository.findAllSummaries(sortable(pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<RecipeSummaryDTO> seekByClientId(String cursor, int size, boolean count) {
+
+        Long userId = userService.principal().getId();
+        SeekCursor position = SeekCursor.decode(cursor);
+        int pageSize = SeekCursor.size(size);
+
+        List<Long> ids = recipeRepository.seekIdsByClientId(userId, position.name(), position.id(),
+                Limit.of(pageSize + 1));
+        return toCursorPage(ids, position, pageSize, count ? recipeRepository.countActiveByClientId(userId) : null);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<RecipeSummaryDTO> seekAll(String cursor, int size, boolean count) {
+
+        SeekCursor position = SeekCursor.decode(cursor);
+        int pageSize = SeekCursor.size(size);
+
+        List<Long> ids = recipeRepository.seekAllIds(position.name(), position.id(), Limit.of(pageSize + 1));
+        return toCursorPage(ids, position, pageSize, count ? recipeRepository.countActive() : null);
+    }
+
     @Transactional(readOnly = true)
-    public Page<RecipeDTO> findByClientId(Pageable pageable) {
-        Long userId = userService.authenticated().getId();
-        Page<Recipe> recipes = recipeRepository.findByClientId(userId, pageable);
-        return recipes.map(x -> new RecipeDTO(x));
+    public Page<RecipeDTO> findDetailsByClientId(Pageable pageable) {
+        Long userId = userService.principal().getId();
+        return findDetails(recipeRepository.findIdsByClientId(userId, sortable(pageable)));
     }
 
     @Transactional(readOnly = true)
-    public Page<RecipeDTO> findAll(Pageable pageable) {
-        Page<Recipe> recipes = recipeRepository.findAll(pageable);
-        return recipes.map(x -> new RecipeDTO(x));
+    public Page<RecipeDTO> findAllDetails(Pageable pageable) {
+        return findDetails(recipeRepository.findAllIds(sortable(pageable)));
+    }
+
+    // uma receita por linha; o contexto é limpo a cada bloco, então a memória não cresce com o total.
+    // Sem readOnly de propósito: a transação fica no primário, porque numa réplica uma consulta
+    // longa assim é cancelada por conflito com a replicação (max_standby_streaming_delay).
+    // As entidades continuam somente leitura pela dica da consulta, sem dirty checking.
+    @Transactional
+    public void exportAll(OutputStream out) throws IOException {
+
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        List<Recipe> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+
+        try (JsonGenerator generator = objectMapper.createGenerator(out);
+                Stream<Recipe> recipes = recipeRepository.streamAllForExport()) {
+            generator.setRootValueSeparator(null);
+
+            try {
+                Iterator<Recipe> it = recipes.iterator();
+                while (it.hasNext()) {
+                    chunk.add(it.next());
+                    if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                        writeChunk(writer, generator, chunk);
+                    }
+                }
+                writeChunk(writer, generator, chunk);
+            } catch (RuntimeException e) {
+                // o 200 já foi enviado: a última linha avisa que o arquivo está incompleto
+                logger.error("Exportação de receitas interrompida", e);
+                generator.writeStartObject();
+                generator.writeStringField("error", "Exportação interrompida, arquivo incompleto");
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                generator.flush();
+                throw e;
+            }
+        }
     }
 
     @Transactional(readOnly = true)
@@ -76,26 +206,19 @@ public class RecipeService {
 
         authService.validateSelfOrAdmin(recipe.getClient().getId());
 
-        if (recipe.getDeleted()) {
-            throw new ResourceNotFoundException("Receita deletada");
-        }
-
-        RecipeDTO dto = new RecipeDTO(recipe);
-        calculateFinancialData(recipe, dto);
-        return dto;
+        return new RecipeDTO(recipe);
     }
 
     @Transactional
     public RecipeDTO insert(RecipeDTO dto) {
         Recipe entity = new Recipe();
         dtoToEntity(entity, dto);
-        entity.setClient(userService.authenticated());
+        entity.setClient(userService.authenticatedReference());
         entity = recipeRepository.save(entity);
+        closureService.refresh(entity);
         createVersion(entity, VersionActionType.CREATE);
 
-        RecipeDTO newDTO = new RecipeDTO(entity);
-        calculateFinancialData(entity, newDTO);
-        return newDTO;
+        return new RecipeDTO(entity);
     }
 
     @Transactional
@@ -109,11 +232,9 @@ public class RecipeService {
 
             dtoToEntity(entity, dto);
             entity = recipeRepository.save(entity);
+            closureService.refresh(entity);
 
-            RecipeDTO newDTO = new RecipeDTO(entity);
-            calculateFinancialData(entity, newDTO);
-
-            return newDTO;
+            return new RecipeDTO(entity);
 
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Receita não encontrada! ID: " + id);
@@ -128,9 +249,15 @@ public class RecipeService {
 
         authService.validateSelfOrAdmin(recipe.getClient().getId());
 
+        // receita excluída some do cálculo das receitas que a usam, que passariam a custar menos
+        if (recipeItemRepository.existsActiveParentBySubProductId(id)) {
+            throw new DatabaseException("Receita usada como sub-receita em outra receita");
+        }
+
         createVersion(recipe, VersionActionType.DELETE);
 
         recipe.setDeleted(true);
+        recipe.setDeletedAt(LocalDateTime.now());
 
         recipeRepository.save(recipe);
 
@@ -182,6 +309,7 @@ public class RecipeService {
 
         Product product = recipe.getProduct();
         product.setName(version.getProductNameSnapshot());
+        recipe.setProductName(product.getName());
         product.setPrice(version.getProductPriceSnapshot());
 
         recipe.getItems().clear();
@@ -205,12 +333,13 @@ public class RecipeService {
             recipe.getItems().add(item);
         }
 
-        recipe = recipeRepository.save(recipe);
+        new BomRollup().unitCostMicros(product);
+        updateFinancials(recipe);
 
-        RecipeDTO dto = new RecipeDTO(recipe);
-        calculateFinancialData(recipe, dto);
+        recipe = recipeRepository.save(recipe);
+        closureService.refresh(recipe);
 
-        return dto;
+        return new RecipeDTO(recipe);
     }
 
     @Transactional
@@ -223,6 +352,9 @@ public class RecipeService {
 
         createVersion(recipe, VersionActionType.REFRESH);
 
+        // subprodutos aninhados são calculados uma única vez por atualização
+        BomRollup rollup = new BomRollup();
+
         for (RecipeItem item : recipe.getItems()) {
 
             if (item.getIngredient() != null) {
@@ -233,7 +365,7 @@ public class RecipeService {
                 authService.validateSelfOrAdmin(ingredient.getClient().getId());
 
                 item.setIngredient(ingredient);
-                item.calculateSnapshot();
+                item.applyUnitCost(rollup.itemUnitCostMicros(item));
             } else if (item.getSubProduct() != null) {
 
                 Product sub = productRepository.findById(item.getSubProduct().getId())
@@ -241,74 +373,206 @@ public class RecipeService {
                 authService.validateSelfOrAdmin(sub.getRecipe().getClient().getId());
 
                 item.setSubProduct(sub);
-                item.calculateSnapshot();
+                item.applyUnitCost(rollup.itemUnitCostMicros(item));
             }
         }
 
+        updateFinancials(recipe);
         recipeRepository.save(recipe);
 
-        RecipeDTO dto = new RecipeDTO(recipe);
-        calculateFinancialData(recipe, dto);
+        return new RecipeDTO(recipe);
+    }
+
+    // atualiza todas as receitas do cliente com as consultas fixas abaixo, independente da quantidade
+    @Transactional
+    public RecipeRefreshDTO refreshAllRecipePrices(Long clientId) {
+
+        Long targetId = clientId != null ? clientId : userService.principal().getId();
+        authService.validateSelfOrAdmin(targetId);
 
-        return dto;
+        // subprodutos e ingredientes pertencem ao mesmo cliente, então já vêm nesta consulta
+        List<Recipe> recipes = recipeRepository.findWithItemsByClientId(targetId);
+
+        BomRollup rollup = new BomRollup();
+        Map<Long, Recipe> byProduct = new HashMap<>();
+        for (Recipe recipe : recipes) {
+            byProduct.put(recipe.getProduct().getId(), recipe);
+            rollup.unitCostMicros(recipe.getProduct());
+        }
+
+        List<Recipe> refreshed = new ArrayList<>();
+        for (Product product : rollup.topologicalOrder()) {
+
+            Recipe recipe = byProduct.remove(product.getId());
+            if (recipe != null && !recipe.getDeleted()) {
+                refreshed.add(recipe);
+            }
+        }
+
+        Map<Long, Integer> versionNumbers = nextVersionNumbers(refreshed);
+        List<RecipeVersion> versions = new ArrayList<>();
+        for (Recipe recipe : refreshed) {
+
+            versions.add(buildVersion(recipe, VersionActionType.REFRESH, versionNumbers.get(recipe.getId())));
+
+            for (RecipeItem item : recipe.getItems()) {
+                item.applyUnitCost(rollup.itemUnitCostMicros(item));
+            }
+            updateFinancials(recipe);
+        }
+
+        versionRepository.saveAll(versions);
+        recipeRepository.saveAll(refreshed);
+
+        return new RecipeRefreshDTO(targetId, refreshed.size());
     }
 
-    private void calculateFinancialData(Recipe entity, RecipeDTO dto) {
+    // recalcula só as receitas que usam o ingrediente, direta ou indiretamente, subindo nível a nível
+    @Transactional
+    public void propagateIngredientChange(Long ingredientId) {
+
+        Map<Long, Recipe> affected = new LinkedHashMap<>();
+        List<Recipe> level = recipeItemRepository.findRecipesByIngredientId(ingredientId);
 
-        BigDecimal totalCost = entity.getItems().stream()
-                .map(RecipeItem::getTotalCost)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        while (!level.isEmpty()) {
+            List<Long> productIds = new ArrayList<>();
+            for (Recipe recipe : level) {
+                if (affected.putIfAbsent(recipe.getProduct().getId(), recipe) == null) {
+                    productIds.add(recipe.getProduct().getId());
+                }
+            }
+            level = productIds.isEmpty()
+                    ? List.of()
+                    : recipeItemRepository.findParentRecipesBySubProductIds(productIds);
+        }
 
-        totalCost = totalCost.setScale(2, RoundingMode.HALF_UP);
-        dto.setTotalCost(totalCost);
+        if (affected.isEmpty()) {
+            return;
+        }
 
-        if (entity.getAmount() != null && entity.getAmount() > 0) {
-            BigDecimal costPerUnit = totalCost.divide(
-                    new BigDecimal(entity.getAmount()),
-                    2, RoundingMode.HALF_UP);
-            dto.setCostPerUnit(costPerUnit);
+        BomRollup rollup = new BomRollup();
+        for (Recipe recipe : affected.values()) {
+            rollup.unitCostMicros(recipe.getProduct());
         }
 
-        BigDecimal salePrice = entity.getProduct().getPrice();
+        // subprodutos antes das receitas que os usam
+        List<Recipe> refreshed = new ArrayList<>();
+        for (Product product : rollup.topologicalOrder()) {
 
-        BigDecimal profit = salePrice.subtract(totalCost)
-                .setScale(2, RoundingMode.HALF_UP);
+            Recipe recipe = affected.remove(product.getId());
+            if (recipe != null && !recipe.getDeleted()) {
+                refreshed.add(recipe);
+            }
+        }
 
-        dto.setProfit(profit);
+        Map<Long, Integer> versionNumbers = nextVersionNumbers(refreshed);
+        List<RecipeVersion> versions = new ArrayList<>();
+        for (Recipe recipe : refreshed) {
 
-        if (salePrice.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal margin = profit
-                    .divide(salePrice, 2, RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal(100))
-                    .setScale(2, RoundingMode.HALF_UP);
+            versions.add(buildVersion(recipe, VersionActionType.REFRESH, versionNumbers.get(recipe.getId())));
 
-            dto.setMargin(margin);
+            for (RecipeItem item : recipe.getItems()) {
+                item.applyUnitCost(rollup.itemUnitCostMicros(item));
+            }
+            updateFinancials(recipe);
         }
+
+        versionRepository.saveAll(versions);
+        recipeRepository.saveAll(refreshed);
     }
 
-    private void calculateVersionFinancialData(RecipeVersion version, RecipeVersionDTO dto) {
+    private void updateFinancials(Recipe entity) {
+        entity.applyFinancials(entity.calculateFinancials());
+    }
+
+    private void writeChunk(ObjectWriter writer, JsonGenerator generator, List<Recipe> chunk) throws IOException {
+
+        for (Recipe recipe : chunk) {
+            writer.writeValue(generator, new RecipeDTO(recipe));
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    // pagina só os IDs e busca as receitas da página de uma vez, mantendo a ordem pedida
+    private Page<RecipeDTO> findDetails(Page<Long> ids) {
+
+        Map<Long, Recipe> recipes = new HashMap<>();
+        if (ids.hasContent()) {
+            for (Recipe recipe : recipeRepository.findWithDetailsByIdIn(ids.getContent())) {
+                recipes.put(recipe.getId(), recipe);
+            }
+        }
+        // excluída ou arquivada entre as duas consultas: fica de fora da página
+        List<RecipeDTO> content = ids.getContent().stream()
+                .filter(recipes::containsKey)
+                .map(id -> new RecipeDTO(recipes.get(id)))
+                .toList();
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
+
+    // o sort vai direto para o ORDER BY: só propriedades conhecidas, nunca o nome vindo do cliente
+    private Pageable sortable(Pageable pageable) {
+
+        if (pageable.getSort().isUnsorted()) {
+            return pageable;
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            String path = SORTABLE.get(order.getProperty());
+            if (path == null) {
+                throw new InvalidSortException("Ordenação inválida: " + order.getProperty());
+            }
+            orders.add(order.withProperty(path));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(orders));
+    }
 
-        BigDecimal totalCost = version.getItems().stream()
-                .map(RecipeItemVersion::getTotalCostSnapshot)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
+    // os IDs vêm um a mais que o tamanho da página só para saber se existe próxima
+    private CursorPageDTO<RecipeSummaryDTO> toCursorPage(List<Long> ids, SeekCursor position, int size, Long total) {
 
-        dto.setTotalCost(totalCost);
+        List<Long> pageIds = ids.size() > size ? ids.subList(0, size) : ids;
 
-        BigDecimal salePrice = version.getProductPriceSnapshot();
+        Map<Long, RecipeSummaryDTO> summaries = new HashMap<>();
+        if (!pageIds.isEmpty()) {
+            for (RecipeSummaryDTO summary : recipeRepository.findSummariesByIdIn(pageIds)) {
+                summaries.put(summary.getId(), summary);
+            }
+        }
+        // excluída entre as duas consultas: fica de fora, e a próxima busca já não a encontra
+        List<RecipeSummaryDTO> content = pageIds.stream().filter(summaries::containsKey).map(summaries::get).toList();
+
+        String nextCursor = null;
+        if (ids.size() > size) {
+            if (content.isEmpty()) {
+                nextCursor = position.encode();
+            } else {
+                RecipeSummaryDTO last = content.get(content.size() - 1);
+                nextCursor = new SeekCursor(last.getProductName(), last.getId()).encode();
+            }
+        }
+        return new CursorPageDTO<>(content, nextCursor, total);
+    }
 
-        BigDecimal profit = salePrice.subtract(totalCost)
-                .setScale(2, RoundingMode.HALF_UP);
+    private void calculateVersionFinancialData(RecipeVersion version, RecipeVersionDTO dto) {
 
-        dto.setProfit(profit);
+        long totalCost = 0L;
+        for (RecipeItemVersion item : version.getItems()) {
+            totalCost = Math.addExact(totalCost, FixedPoint.toMicros(item.getTotalCostSnapshot()));
+        }
 
-        if (salePrice.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal margin = profit
-                    .divide(salePrice, 4, RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal(100))
-                    .setScale(2, RoundingMode.HALF_UP);
+        RecipeFinancials financials = CostingEngine.financials(
+                totalCost,
+                version.getAmount(),
+                FixedPoint.toMicros(version.getProductPriceSnapshot()),
+                CostingEngine.VERSION_MARGIN_DIGITS);
 
-            dto.setMargin(margin);
+        dto.setTotalCost(financials.totalCost());
+        dto.setProfit(financials.profit());
+        if (financials.hasMargin()) {
+            dto.setMargin(financials.margin());
         }
     }
 
@@ -330,6 +594,7 @@ public class RecipeService {
 
         product = productRepository.save(product);
         entity.setProduct(product);
+        entity.setProductName(product.getName());
         product.setRecipe(entity);
 
         entity.setDescription(dto.getDescription());
@@ -341,32 +606,107 @@ public class RecipeService {
             entity.getItems().clear();
         }
 
+        Map<Long, Ingredient> ingredients = new HashMap<>();
+        Map<Long, Product> subProducts = new HashMap<>();
+        loadItemReferences(dto.getItems(), ingredients, subProducts);
+
         for (RecipeItemDTO itemDTO : dto.getItems()) {
 
             RecipeItem item = new RecipeItem();
             item.setRecipe(entity);
 
             if (itemDTO.getIngredientId() != null) {
-                Ingredient ing = ingredientRepository.findById(itemDTO.getIngredientId())
-                        .orElseThrow(() -> new ResourceNotFoundException("Ingrediente não encontrado!"));
-                authService.validateSelfOrAdmin(ing.getClient().getId());
-                item.setIngredient(ing);
+                item.setIngredient(ingredients.get(itemDTO.getIngredientId()));
             } else if (itemDTO.getSubProductId() != null) {
-                Product sub = productRepository.findById(itemDTO.getSubProductId())
-                        .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado!"));
-                authService.validateSelfOrAdmin(sub.getRecipe().getClient().getId());
-                item.setSubProduct(sub);
+                item.setSubProduct(subProducts.get(itemDTO.getSubProductId()));
             }
 
-            item.setQuantity(itemDTO.getQuantity());
-
-            item.calculateSnapshot();
+            item.setQuantity(CostPrecision.cost(itemDTO.getQuantity()));
 
             entity.addItem(item);
         }
+
+        // valida ciclos entre receitas e calcula cada subproduto uma única vez
+        BomRollup rollup = new BomRollup();
+        rollup.unitCostMicros(product);
+
+        for (RecipeItem item : entity.getItems()) {
+            item.applyUnitCost(rollup.itemUnitCostMicros(item));
+        }
+
+        updateFinancials(entity);
+    }
+
+    // uma consulta por tipo de item, independente do tamanho da receita
+    private void loadItemReferences(List<RecipeItemDTO> items, Map<Long, Ingredient> ingredients,
+            Map<Long, Product> subProducts) {
+
+        Set<Long> ingredientIds = new LinkedHashSet<>();
+        Set<Long> subProductIds = new LinkedHashSet<>();
+        for (RecipeItemDTO itemDTO : items) {
+            if (itemDTO.getIngredientId() != null) {
+                ingredientIds.add(itemDTO.getIngredientId());
+            } else if (itemDTO.getSubProductId() != null) {
+                subProductIds.add(itemDTO.getSubProductId());
+            }
+        }
+
+        Set<Long> owners = new HashSet<>();
+
+        if (!ingredientIds.isEmpty()) {
+            for (Ingredient ingredient : ingredientRepository.findAllById(ingredientIds)) {
+                ingredients.put(ingredient.getId(), ingredient);
+                owners.add(ingredient.getClient().getId());
+            }
+        }
+        if (!subProductIds.isEmpty()) {
+            for (Product sub : productRepository.findWithRecipeByIdIn(subProductIds)) {
+                subProducts.put(sub.getId(), sub);
+                owners.add(sub.getRecipe().getClient().getId());
+            }
+        }
+
+        ingredientIds.removeAll(ingredients.keySet());
+        subProductIds.removeAll(subProducts.keySet());
+
+        if (!ingredientIds.isEmpty() || !subProductIds.isEmpty()) {
+            List<String> missing = new ArrayList<>();
+            if (!ingredientIds.isEmpty()) {
+                missing.add("ingredientes " + ingredientIds);
+            }
+            if (!subProductIds.isEmpty()) {
+                missing.add("produtos " + subProductIds);
+            }
+            throw new ResourceNotFoundException("Itens não encontrados! " + String.join("; ", missing));
+        }
+
+        if (!owners.isEmpty()) {
+            authService.validateSelfOrAdmin(owners);
+        }
     }
 
     private void createVersion(Recipe recipe, VersionActionType actionType) {
+        Integer versionNumber = nextVersionNumbers(List.of(recipe)).get(recipe.getId());
+        versionRepository.save(buildVersion(recipe, actionType, versionNumber));
+    }
+
+    // reserva no banco o próximo número de cada receita, sem carregar o histórico de versões
+    private Map<Long, Integer> nextVersionNumbers(List<Recipe> recipes) {
+
+        Map<Long, Integer> numbers = new HashMap<>();
+        if (recipes.isEmpty()) {
+            return numbers;
+        }
+
+        List<Long> ids = recipes.stream().map(Recipe::getId).toList();
+        recipeRepository.incrementVersionCounters(ids);
+        for (VersionCounterProjection counter : recipeRepository.findVersionCounters(ids)) {
+            numbers.put(counter.getId(), counter.getVersionCounter());
+        }
+        return numbers;
+    }
+
+    private RecipeVersion buildVersion(Recipe recipe, VersionActionType actionType, Integer versionNumber) {
 
         RecipeVersion version = new RecipeVersion();
         version.setRecipe(recipe);
@@ -376,10 +716,7 @@ public class RecipeService {
         version.setProductNameSnapshot(recipe.getProduct().getName());
         version.setProductPriceSnapshot(recipe.getProduct().getPrice());
         version.setActionType(actionType);
-
-        // Número da versão
-        int nextVersion = recipe.getVersions() == null ? 1 : recipe.getVersions().size() + 1;
-        version.setVersionNumber(nextVersion);
+        version.setVersionNumber(versionNumber);
 
         for (RecipeItem item : recipe.getItems()) {
 
@@ -406,6 +743,6 @@ public class RecipeService {
             version.getItems().add(itemVersion);
         }
 
-        versionRepository.save(version);
+        return version;
     }
 }
@@ -0,0 +1,42 @@
+package com.MyRecipies.recipies.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.MyRecipies.recipies.services.exceptions.InvalidCursorException;
+
+/**
+ * Posição opaca da paginação por cursor: o último (nome, id) devolvido. A
+ * próxima página começa logo depois dele, sem OFFSET, então o custo não cresce
+ * com a profundidade.
+ */
+public record SeekCursor(String name, Long id) {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    // antes de qualquer nome não vazio e de qualquer ID gerado
+    private static final SeekCursor FIRST = new SeekCursor("", 0L);
+
+    public static SeekCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new SeekCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException("Cursor inválido!");
+        }
+    }
+
+    public static int size(int requested) {
+        return Math.max(1, Math.min(requested, MAX_SIZE));
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + ":" + name).getBytes(StandardCharsets.UTF_8));
+    }
+}
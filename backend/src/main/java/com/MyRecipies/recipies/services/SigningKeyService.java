@@ -0,0 +1,278 @@
+package com.MyRecipies.recipies.services;
+
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.MyRecipies.recipies.entities.SigningKey;
+import com.MyRecipies.recipies.repositories.SigningKeyRepository;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+
+/**
+ * Chaves RSA dos JWT guardadas em {@code signing_keys}, para que todas as
+ * instâncias assinem e verifiquem com as mesmas chaves e os tokens sobrevivam
+ * a um restart. Cada nó mantém um retrato das chaves válidas e o recarrega a
+ * cada {@code reload-seconds}, ou na hora quando chega um token com
+ * {@code kid} desconhecido.
+ * <p>
+ * Na rotação a chave nova é publicada {@code publish-ahead-seconds} antes de
+ * começar a assinar, tempo para todos os nós (e caches do JWK Set) a
+ * conhecerem. A anterior continua publicada até expirar o último token que
+ * ela pode ter assinado.
+ * <p>
+ * A chave privada vai para o banco cifrada com AES-GCM pela chave de
+ * {@code security.jwt.keys.encryption-key} (Base64, 32 bytes), com o
+ * {@code kid} como dado autenticado: quem lê a tabela não consegue assinar.
+ */
+@Service
+public class SigningKeyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigningKeyService.class);
+
+    // limite para recarregar por kid desconhecido, que pode vir de token forjado
+    private static final long MIN_FORCED_RELOAD_MILLIS = 10_000;
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private static final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private SigningKeyRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${security.jwt.duration}")
+    private long tokenDurationSeconds;
+
+    @Value("${security.jwt.keys.rotation-seconds:2592000}")
+    private long rotationSeconds;
+
+    @Value("${security.jwt.keys.publish-ahead-seconds:3600}")
+    private long publishAheadSeconds;
+
+    @Value("${security.jwt.keys.reload-seconds:300}")
+    private long reloadSeconds;
+
+    private final SecretKey encryptionKey;
+
+    private volatile Snapshot snapshot;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private final AtomicLong lastForcedReload = new AtomicLong(Long.MIN_VALUE);
+
+    public SigningKeyService(@Value("${security.jwt.keys.encryption-key}") String encryptionKey) {
+        byte[] key = Base64.getDecoder().decode(encryptionKey);
+        if (key.length != 32) {
+            throw new IllegalStateException("security.jwt.keys.encryption-key deve ter 32 bytes em Base64");
+        }
+        this.encryptionKey = new SecretKeySpec(key, "AES");
+    }
+
+    /**
+     * Chaves que servem para verificar tokens, inclusive a que ainda vai
+     * começar a assinar e as aposentadas que não expiraram.
+     */
+    public List<JWK> select(JWKSelector selector) {
+
+        List<JWK> keys = selector.select(current().jwkSet());
+        if (keys.isEmpty() && selector.getMatcher().getKeyIDs() != null && forcedReloadAllowed()) {
+            keys = selector.select(reload().jwkSet());
+        }
+        return keys;
+    }
+
+    public RSAKey signingKey() {
+        return current().signingKey();
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.keys.reload-seconds:300}", timeUnit = TimeUnit.SECONDS)
+    public void rotateIfDue() {
+        if (rotateKeysCreatedBefore(Instant.now().minusSeconds(rotationSeconds))) {
+            logger.info("Nova chave de assinatura publicada; passa a assinar em {}s", publishAheadSeconds);
+        }
+    }
+
+    /**
+     * Aposenta as chaves criadas antes de {@code cutoff} e publica uma nova.
+     * Devolve false quando não havia o que aposentar, inclusive quando outro
+     * nó acabou de fazer a rotação.
+     */
+    public boolean rotateKeysCreatedBefore(Instant cutoff) {
+
+        Instant now = Instant.now();
+        Instant activatesAt = now.plusSeconds(publishAheadSeconds);
+
+        Boolean rotated = new TransactionTemplate(transactionManager).execute(status -> {
+            int retired = repository.retireCreatedBefore(cutoff, activatesAt.plusSeconds(tokenDurationSeconds));
+            if (retired == 0) {
+                return false;
+            }
+            repository.save(generate(now, activatesAt));
+            repository.deleteExpired(now);
+            return true;
+        });
+
+        if (rotated) {
+            reload();
+        }
+        return rotated;
+    }
+
+    private Snapshot current() {
+
+        Snapshot current = snapshot;
+        if (current == null) {
+            return reload();
+        }
+        // só uma thread recarrega; as outras seguem com o retrato atual
+        if (current.stale(reloadSeconds) && reloading.compareAndSet(false, true)) {
+            try {
+                return reload();
+            } catch (RuntimeException e) {
+                // banco fora do ar: segue com as chaves que já tem
+                logger.warn("Falha ao recarregar as chaves de assinatura: {}", e.getMessage());
+            } finally {
+                reloading.set(false);
+            }
+        }
+        return current;
+    }
+
+    // transação de escrita para ler do primário: numa réplica atrasada a chave nova ainda não existe
+    private synchronized Snapshot reload() {
+
+        List<SigningKey> keys = new TransactionTemplate(transactionManager).execute(status -> {
+            List<SigningKey> valid = repository.findValid(Instant.now());
+            return valid.isEmpty() ? List.of(createFirstKey()) : valid;
+        });
+
+        Instant now = Instant.now();
+        List<RSAKey> jwks = keys.stream().map(this::toJwk).toList();
+
+        // a mais recente já ativa; sem nenhuma ativa, a primeira a ativar
+        RSAKey signingKey = null;
+        for (int i = 0; i < keys.size(); i++) {
+            if (!keys.get(i).getActivatesAt().isAfter(now)) {
+                signingKey = jwks.get(i);
+                break;
+            }
+        }
+        if (signingKey == null) {
+            signingKey = jwks.get(jwks.size() - 1);
+        }
+
+        snapshot = new Snapshot(new JWKSet(List.<JWK>copyOf(jwks)), signingKey, System.currentTimeMillis());
+        return snapshot;
+    }
+
+    // nós subindo juntos num banco vazio podem criar uma chave cada; todas ficam publicadas
+    private SigningKey createFirstKey() {
+        Instant now = Instant.now();
+        SigningKey key = repository.save(generate(now, now));
+        logger.info("Chave de assinatura {} criada", key.getKid());
+        return key;
+    }
+
+    private boolean forcedReloadAllowed() {
+
+        long now = System.currentTimeMillis();
+        long last = lastForcedReload.get();
+        if (last != Long.MIN_VALUE && now - last < MIN_FORCED_RELOAD_MILLIS) {
+            return false;
+        }
+        return lastForcedReload.compareAndSet(last, now);
+    }
+
+    private SigningKey generate(Instant createdAt, Instant activatesAt) {
+
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048);
+            KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+            String kid = UUID.randomUUID().toString();
+            return new SigningKey(kid, Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()),
+                    encryptPrivateKey(kid, keyPair.getPrivate().getEncoded()), createdAt, activatesAt);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private RSAKey toJwk(SigningKey key) {
+
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            RSAPublicKey publicKey = (RSAPublicKey) keyFactory
+                    .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(key.getPublicKey())));
+            RSAPrivateKey privateKey = (RSAPrivateKey) keyFactory
+                    .generatePrivate(new PKCS8EncodedKeySpec(decryptPrivateKey(key.getKid(), key.getPrivateKey())));
+            return new RSAKey.Builder(publicKey).privateKey(privateKey).keyID(key.getKid()).build();
+        } catch (Exception e) {
+            throw new IllegalStateException("Chave de assinatura " + key.getKid() + " inválida", e);
+        }
+    }
+
+    // Base64 de IV || texto cifrado com a tag
+    String encryptPrivateKey(String kid, byte[] privateKey) throws Exception {
+
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        byte[] encrypted = cipher.doFinal(privateKey);
+
+        return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + encrypted.length)
+                .put(iv).put(encrypted).array());
+    }
+
+    // chave de cifra errada ou kid trocado de linha falham na verificação da tag
+    private byte[] decryptPrivateKey(String kid, String stored) throws Exception {
+
+        byte[] data = Base64.getDecoder().decode(stored);
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_BITS, data, 0, IV_BYTES));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        return cipher.doFinal(data, IV_BYTES, data.length - IV_BYTES);
+    }
+
+    private record Snapshot(JWKSet jwkSet, RSAKey signingKey, long loadedAt) {
+
+        private boolean stale(long reloadSeconds) {
+            return System.currentTimeMillis() - loadedAt >= reloadSeconds * 1000;
+        }
+    }
+}
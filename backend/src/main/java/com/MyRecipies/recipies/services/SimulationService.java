@@ -0,0 +1,112 @@
+package com.MyRecipies.recipies.services;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.MyRecipies.recipies.costing.CostGraph;
+import com.MyRecipies.recipies.costing.CostPrecision;
+import com.MyRecipies.recipies.costing.FixedPoint;
+import com.MyRecipies.recipies.costing.RecipeFinancials;
+import com.MyRecipies.recipies.dto.PriceChangeDTO;
+import com.MyRecipies.recipies.dto.RecipeSimulationDTO;
+import com.MyRecipies.recipies.dto.SimulationRequestDTO;
+import com.MyRecipies.recipies.dto.SimulationResultDTO;
+import com.MyRecipies.recipies.dto.SimulationScenarioDTO;
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.repositories.IngredientRepository;
+import com.MyRecipies.recipies.repositories.RecipeRepository;
+import com.MyRecipies.recipies.services.exceptions.ResourceNotFoundException;
+
+@Service
+public class SimulationService {
+
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthService authService;
+
+    // nada é gravado: os cenários são avaliados em paralelo sobre um único retrato em memória
+    @Transactional(readOnly = true)
+    public List<SimulationResultDTO> simulate(Long clientId, SimulationRequestDTO request) {
+
+        Long targetId = clientId != null ? clientId : userService.principal().getId();
+        authService.validateSelfOrAdmin(targetId);
+
+        CostGraph graph = CostGraph.of(recipeRepository.findWithItemsByClientId(targetId));
+
+        validateIngredients(graph, request, targetId);
+
+        return request.getScenarios().parallelStream()
+                .map(scenario -> evaluate(graph, scenario))
+                .toList();
+    }
+
+    private SimulationResultDTO evaluate(CostGraph graph, SimulationScenarioDTO scenario) {
+
+        long[] priceCosts = graph.priceCosts();
+
+        for (PriceChangeDTO change : scenario.getChanges()) {
+            int index = graph.ingredientIndex(change.getIngredientId());
+            if (index < 0) {
+                continue;
+            }
+            if (change.getPriceCost() != null) {
+                priceCosts[index] = FixedPoint.toMicros(change.getPriceCost());
+            } else if (change.getPercentChange() != null) {
+                long factor = FixedPoint.ONE + FixedPoint.toMicros(change.getPercentChange().divide(ONE_HUNDRED, CostPrecision.MATH_CONTEXT));
+                priceCosts[index] = FixedPoint.multiply(priceCosts[index], factor);
+            }
+        }
+
+        RecipeFinancials[] financials = graph.evaluate(priceCosts);
+
+        List<RecipeSimulationDTO> recipes = new ArrayList<>(financials.length);
+        for (int i = 0; i < financials.length; i++) {
+            recipes.add(new RecipeSimulationDTO(graph.recipeId(i), graph.productName(i), financials[i]));
+        }
+        return new SimulationResultDTO(scenario.getName(), recipes);
+    }
+
+    // ingredientes fora das receitas não mudam nenhum custo, mas precisam existir e ser do cliente
+    private void validateIngredients(CostGraph graph, SimulationRequestDTO request, Long clientId) {
+
+        Set<Long> unused = new LinkedHashSet<>();
+        for (SimulationScenarioDTO scenario : request.getScenarios()) {
+            for (PriceChangeDTO change : scenario.getChanges()) {
+                if (graph.ingredientIndex(change.getIngredientId()) < 0) {
+                    unused.add(change.getIngredientId());
+                }
+            }
+        }
+
+        if (unused.isEmpty()) {
+            return;
+        }
+
+        for (Ingredient ingredient : ingredientRepository.findAllById(unused)) {
+            if (ingredient.getClient().getId().equals(clientId)) {
+                unused.remove(ingredient.getId());
+            }
+        }
+
+        if (!unused.isEmpty()) {
+            throw new ResourceNotFoundException("Ingrediente não encontrado! ID: " + unused.iterator().next());
+        }
+    }
+}
@@ -31,7 +31,7 @@ public class SupplierService {
 
     @Transactional(readOnly = true)
     public List<SupplierDTO> findByClientId(){
-        Long userId = userService.authenticated().getId();
+        Long userId = userService.principal().getId();
         List<Supplier> suppliers = repository.findByClientId(userId);
         List<SupplierDTO> listDTO = suppliers.stream().map(x -> new SupplierDTO(x)).collect(Collectors.toList());
         return listDTO;
@@ -55,7 +55,7 @@ public class SupplierService {
     public SupplierDTO insert(SupplierDTO dto){
         Supplier supplier = new Supplier();
         dtoToEntity(supplier, dto);
-        supplier.setClient(userService.authenticated());
+        supplier.setClient(userService.authenticatedReference());
         supplier = repository.save(supplier);
         return new SupplierDTO(supplier);
     }
@@ -0,0 +1,47 @@
+package com.MyRecipies.recipies.services;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Manutenção de {@code oauth2_authorization}, onde o JdbcOAuth2AuthorizationService
+ * guarda os refresh tokens. As linhas são por usuário: {@code principal_name} é o e-mail.
+ */
+@Service
+public class TokenStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenStoreService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // os access tokens já emitidos seguem válidos até expirar; nenhum refresh token renova mais
+    public int revokeAll(String principalName) {
+        return jdbcTemplate.update("DELETE FROM oauth2_authorization WHERE principal_name = ?", principalName);
+    }
+
+    @Scheduled(cron = "${security.oauth2.authorizations.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+
+        int purged = purgeExpiredBefore(Instant.now());
+        if (purged > 0) {
+            logger.info("{} autorizações expiradas removidas", purged);
+        }
+    }
+
+    public int purgeExpiredBefore(Instant cutoff) {
+        Timestamp timestamp = Timestamp.from(cutoff);
+        return jdbcTemplate.update("""
+                DELETE FROM oauth2_authorization
+                WHERE (refresh_token_expires_at IS NULL OR refresh_token_expires_at < ?)
+                AND (access_token_expires_at IS NULL OR access_token_expires_at < ?)
+                """, timestamp, timestamp);
+    }
+}
@@ -7,13 +7,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.MyRecipies.recipies.cache.UserCache;
+import com.MyRecipies.recipies.config.AuthenticatedUser;
 import com.MyRecipies.recipies.dto.UserDTO;
 import com.MyRecipies.recipies.dto.UserInsertDTO;
 import com.MyRecipies.recipies.entities.Role;
@@ -21,26 +22,37 @@ import com.MyRecipies.recipies.entities.User;
 import com.MyRecipies.recipies.projections.UserDetailsProjection;
 import com.MyRecipies.recipies.repositories.RoleRepository;
 import com.MyRecipies.recipies.repositories.UserRepository;
+import com.MyRecipies.recipies.services.exceptions.ResourceNotFoundException;
 
 @Service
-public class UserService implements UserDetailsService{
+public class UserService implements UserDetailsService, UserDetailsPasswordService{
 
     @Autowired
     private UserRepository repository;
 
     @Autowired
-	private PasswordEncoder passwordEncoder;
+	private PasswordHashingService passwordHashing;
 
     @Autowired
 	private RoleRepository roleRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private TokenStoreService tokenStore;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        List<UserDetailsProjection> userList = repository.searchUserAndRolesByEmail(username);
-        if(userList.size() == 0){
+        List<UserDetailsProjection> userList = userCache.get(username, () -> {
+            List<UserDetailsProjection> rows = repository.searchUserAndRolesByEmail(username);
+            return rows.isEmpty() ? null : rows;
+        });
+        if(userList == null){
             throw new UsernameNotFoundException("User not found");
         }
         User user = new User();
+        user.setId(userList.get(0).getUserId());
         user.setEmail(username);
         user.setPassword(userList.get(0).getPassword());
         for (UserDetailsProjection details : userList) {
@@ -50,6 +62,27 @@ public class UserService implements UserDetailsService{
         return user;
     }
 
+    // troca de senha: derruba as sessões abertas, que não renovam mais o token
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        upgradePasswordHash(user, newPassword);
+        tokenStore.revokeAll(user.getUsername());
+        return user;
+    }
+
+    // chamado depois de um login com hash de custo antigo: mesma senha, sessões mantidas
+    @Transactional
+    public UserDetails upgradePasswordHash(UserDetails user, String newPassword) {
+        repository.updatePassword(user.getUsername(), newPassword);
+        // UPDATE direto não gera evento para o UserCacheInvalidator
+        userCache.invalidate(user.getUsername());
+        if(user instanceof User entity){
+            entity.setPassword(newPassword);
+        }
+        return user;
+    }
+
     @Transactional(readOnly = true)
     public List<UserDTO> findAll(){
         List<User> users = repository.findAll();
@@ -61,22 +94,29 @@ public class UserService implements UserDetailsService{
         User user = new User();
         dtoToEntity(user, dto);
         user = repository.save(user);
+        userCache.invalidate(user.getEmail());
         return new UserDTO(user);
     }
 
-    public User authenticated(){
-
-        try{
+    // o usuário vem pronto do token (AuthenticatedUserConverter), sem consulta
+    public AuthenticatedUser principal(){
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Jwt jwtPrincipal = (Jwt) authentication.getPrincipal();
-        String username = jwtPrincipal.getClaim("username");
-
-        return repository.findByEmail(username).get();
-
-        } catch(Exception e){
+        if(authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)){
             throw new UsernameNotFoundException("Email not found!");
         }
+        return user;
+    }
+
+    // o token segue válido depois que o usuário é removido: confere pelo id, sem buscar por e-mail
+    public User authenticated(){
+        return repository.findById(principal().getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado"));
+    }
+
+    // só para associar o usuário logado a uma entidade: proxy pelo id do token, sem SELECT
+    public User authenticatedReference(){
+        return repository.getReferenceById(principal().getId());
     }
 
     @Transactional(readOnly = true)
@@ -90,7 +130,7 @@ public class UserService implements UserDetailsService{
         entity.setEmail(dto.getEmail());
         entity.setPhone(dto.getPhone());
         entity.setBirthDate(dto.getBirthDate());
-        entity.setPassword(passwordEncoder.encode(dto.getPassword()));
+        entity.setPassword(passwordHashing.encode(dto.getPassword()));
         entity.addRole(roleRepository.findByAuthority("ROLE_CLIENT"));
     }
 }
@@ -0,0 +1,10 @@
+package com.MyRecipies.recipies.services.exceptions;
+
+public class InvalidSortException extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidSortException(String msg) {
+        super(msg);
+    }
+}
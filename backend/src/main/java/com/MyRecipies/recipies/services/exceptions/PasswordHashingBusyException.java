@@ -0,0 +1,10 @@
+package com.MyRecipies.recipies.services.exceptions;
+
+public class PasswordHashingBusyException extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingBusyException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,11 @@
+package com.MyRecipies.recipies.services.exceptions;
+
+public class RecipeCycleException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RecipeCycleException(String msg) {
+        super(msg);
+    }
+
+}
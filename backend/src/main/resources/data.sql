@@ -33,26 +33,30 @@ INSERT INTO suppliers (name, phone, email, address, client_id) VALUES ('Forneced
 -- ==========================================================
 -- 🧱 PRODUCTS
 -- ==========================================================
-INSERT INTO products (name, price, img_url, create_date, last_update_date) VALUES ('Bolo de Chocolate', 25.90, 'https://example.com/bolo.jpg', CURRENT_DATE, CURRENT_TIMESTAMP);
-INSERT INTO products (name, price, img_url, create_date, last_update_date) VALUES ('Torta de Limão', 32.50, 'https://example.com/torta.jpg', CURRENT_DATE, CURRENT_TIMESTAMP);
+INSERT INTO products (id, name, price, img_url, create_date, last_update_date) VALUES (1, 'Bolo de Chocolate', 25.90, 'https://example.com/bolo.jpg', CURRENT_DATE, CURRENT_TIMESTAMP);
+INSERT INTO products (id, name, price, img_url, create_date, last_update_date) VALUES (2, 'Torta de Limão', 32.50, 'https://example.com/torta.jpg', CURRENT_DATE, CURRENT_TIMESTAMP);
+
+-- IDs vêm de sequence com blocos de 50: o próximo bloco começa depois dos IDs fixos acima
+ALTER SEQUENCE products_seq RESTART WITH 52;
 
 
 -- ==========================================================
 -- 📘 RECIPES (product_id == id do product)
 -- ==========================================================
 INSERT INTO recipes
-(product_id, last_update_date, description, amount, client_id, deleted)
-VALUES (1, CURRENT_TIMESTAMP, 'Receita de bolo de chocolate simples', 8, 1, false);
+(product_id, product_name, last_update_date, description, amount, client_id, deleted, version_counter)
+VALUES (1, 'Bolo de Chocolate', CURRENT_TIMESTAMP, 'Receita de bolo de chocolate simples', 8, 1, false, 0);
 
 INSERT INTO recipes
-(product_id, last_update_date, description, amount, client_id, deleted)
-VALUES (2, CURRENT_TIMESTAMP, 'Receita de torta de limão gelada', 6, 1, false);
+(product_id, product_name, last_update_date, description, amount, client_id, deleted, version_counter)
+VALUES (2, 'Torta de Limão', CURRENT_TIMESTAMP, 'Receita de torta de limão gelada', 6, 1, false, 0);
 
 -- ==========================================================
 -- 🧂 INGREDIENTS
 -- ==========================================================
-INSERT INTO ingredients (name, brand, price_cost, img_url, create_date, last_update_date, quantity_per_unit, unit, supplier_id, client_id) VALUES ('Farinha de Trigo', 'Dona Benta', 4.50, NULL, CURRENT_DATE, CURRENT_TIMESTAMP, 1, 'KILOGRAM', 1, 1);
-INSERT INTO ingredients (name, brand, price_cost, img_url, create_date, last_update_date, quantity_per_unit, unit, supplier_id, client_id) VALUES ('Açúcar Refinado', 'União', 3.20, NULL, CURRENT_DATE, CURRENT_TIMESTAMP, 1, 'KILOGRAM', 1, 1);
-INSERT INTO ingredients (name, brand, price_cost, img_url, create_date, last_update_date, quantity_per_unit, unit, supplier_id, client_id) VALUES ('Ovos', 'Granja Sol', 0.70, NULL, CURRENT_DATE, CURRENT_TIMESTAMP, 12, 'UNIT', 2, 1);
-INSERT INTO ingredients (name, brand, price_cost, img_url, create_date, last_update_date, quantity_per_unit, unit, supplier_id, client_id) VALUES ('Limão Tahiti', 'Natural', 0.50, NULL, CURRENT_DATE, CURRENT_TIMESTAMP, 1, 'UNIT', 2, 1);
+INSERT INTO ingredients (id, name, brand, price_cost, img_url, create_date, last_update_date, quantity_per_unit, unit, supplier_id, client_id) VALUES (1, 'Farinha de Trigo', 'Dona Benta', 4.50, NULL, CURRENT_DATE, CURRENT_TIMESTAMP, 1, 'KILOGRAM', 1, 1);
+INSERT INTO ingredients (id, name, brand, price_cost, img_url, create_date, last_update_date, quantity_per_unit, unit, supplier_id, client_id) VALUES (2, 'Açúcar Refinado', 'União', 3.20, NULL, CURRENT_DATE, CURRENT_TIMESTAMP, 1, 'KILOGRAM', 1, 1);
+INSERT INTO ingredients (id, name, brand, price_cost, img_url, create_date, last_update_date, quantity_per_unit, unit, supplier_id, client_id) VALUES (3, 'Ovos', 'Granja Sol', 0.70, NULL, CURRENT_DATE, CURRENT_TIMESTAMP, 12, 'UNIT', 2, 1);
+INSERT INTO ingredients (id, name, brand, price_cost, img_url, create_date, last_update_date, quantity_per_unit, unit, supplier_id, client_id) VALUES (4, 'Limão Tahiti', 'Natural', 0.50, NULL, CURRENT_DATE, CURRENT_TIMESTAMP, 1, 'UNIT', 2, 1);
 
+ALTER SEQUENCE ingredients_seq RESTART WITH 54;
@@ -0,0 +1,15 @@
+-- ==========================================================
+-- 🗄️ NOME DO PRODUTO NO ARQUIVO DE RECEITAS
+-- recipes_archive (V7) ficou sem product_name; deleted fica de fora de
+-- propósito: toda linha arquivada é uma receita excluída
+-- ==========================================================
+ALTER TABLE recipes_archive ADD COLUMN IF NOT EXISTS product_name VARCHAR(255);
+
+-- linhas já arquivadas recuperam o nome da última versão arquivada
+UPDATE recipes_archive a SET product_name = (
+    SELECT v.product_name_snapshot FROM recipe_version_archive v
+    WHERE v.recipe_product_id = a.product_id
+    ORDER BY v.version_number DESC
+    LIMIT 1
+)
+WHERE a.product_name IS NULL;
@@ -0,0 +1,21 @@
+-- ==========================================================
+-- 📘 COLUNAS NOVAS DE RECIPES
+-- bancos criados pelo db.txt antigo não tinham a exclusão lógica
+-- nem o resumo financeiro gravado a cada alteração da receita
+-- ==========================================================
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS deleted BOOLEAN NOT NULL DEFAULT false;
+
+-- cópia de products.name: a paginação por cursor ordena por (nome, id) dentro do
+-- cliente, e com o nome só em products nenhum índice atendia as duas coisas
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS product_name VARCHAR(255);
+UPDATE recipes r SET product_name = (SELECT p.name FROM products p WHERE p.id = r.product_id)
+WHERE r.product_name IS NULL;
+ALTER TABLE recipes ALTER COLUMN product_name SET NOT NULL;
+
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS total_cost NUMERIC(19,2);
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS cost_per_unit NUMERIC(19,2);
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS profit NUMERIC(19,2);
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS margin NUMERIC(9,2);
+
+-- o resumo depende do cálculo em ponto fixo do backend: o RecipeBackfillService
+-- preenche as receitas com total_cost nulo na subida seguinte
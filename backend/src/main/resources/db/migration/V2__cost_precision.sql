@@ -0,0 +1,20 @@
+-- ==========================================================
+-- 💲 PRECISÃO DOS VALORES DE CUSTO (CostPrecision)
+-- NUMERIC(10,2) arredondava quantidades e snapshots em silêncio:
+-- dinheiro passa a NUMERIC(19,2), quantidades e custos a NUMERIC(19,6).
+-- só alarga os tipos, nenhum valor gravado muda
+-- ==========================================================
+ALTER TABLE products ALTER COLUMN price TYPE NUMERIC(19,2);
+
+ALTER TABLE ingredients ALTER COLUMN price_cost TYPE NUMERIC(19,2);
+ALTER TABLE ingredients ALTER COLUMN quantity_per_unit TYPE NUMERIC(19,6);
+
+ALTER TABLE recipe_items ALTER COLUMN quantity TYPE NUMERIC(19,6);
+ALTER TABLE recipe_items ALTER COLUMN unit_cost_snapshot TYPE NUMERIC(19,6);
+ALTER TABLE recipe_items ALTER COLUMN total_cost_snapshot TYPE NUMERIC(19,6);
+
+ALTER TABLE recipe_version ALTER COLUMN product_price_snapshot TYPE NUMERIC(19,2);
+
+ALTER TABLE recipe_item_versions ALTER COLUMN quantity TYPE NUMERIC(19,6);
+ALTER TABLE recipe_item_versions ALTER COLUMN unit_cost_snapshot TYPE NUMERIC(19,6);
+ALTER TABLE recipe_item_versions ALTER COLUMN total_cost_snapshot TYPE NUMERIC(19,6);
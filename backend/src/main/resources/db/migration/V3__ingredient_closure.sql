@@ -0,0 +1,21 @@
+-- ==========================================================
+-- 🧮 TABELA PRODUCT_INGREDIENT_CLOSURE
+-- quantidade achatada de cada ingrediente por unidade do produto
+-- (todos os níveis de subprodutos), mantida pelo backend
+-- ==========================================================
+CREATE TABLE IF NOT EXISTS product_ingredient_closure (
+    id BIGINT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    ingredient_id BIGINT NOT NULL,
+    quantity NUMERIC(19,6) NOT NULL,
+
+    CONSTRAINT fk_closure_product FOREIGN KEY (product_id)
+        REFERENCES products(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT fk_closure_ingredient FOREIGN KEY (ingredient_id)
+        REFERENCES ingredients(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT uk_closure_product_ingredient UNIQUE (product_id, ingredient_id)
+);
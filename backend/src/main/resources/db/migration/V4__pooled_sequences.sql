@@ -0,0 +1,26 @@
+-- ==========================================================
+-- 🔢 SEQUENCES DE ID
+-- o Hibernate reserva blocos de 50 IDs por chamada (allocationSize);
+-- bancos criados com IDENTITY perdem o default da coluna e cada
+-- sequence continua depois do maior ID já gravado
+-- ==========================================================
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE ingredients ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE recipe_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE recipe_version ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE recipe_item_versions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS ingredients_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS recipe_items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS recipe_version_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS recipe_item_versions_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS product_ingredient_closure_seq INCREMENT BY 50;
+
+-- o pooled optimizer usa o valor devolvido como topo do bloco: o primeiro bloco é MAX(id)+1..MAX(id)+50
+SELECT setval('products_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM products), false);
+SELECT setval('ingredients_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM ingredients), false);
+SELECT setval('recipe_items_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM recipe_items), false);
+SELECT setval('recipe_version_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM recipe_version), false);
+SELECT setval('recipe_item_versions_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM recipe_item_versions), false);
+SELECT setval('product_ingredient_closure_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM product_ingredient_closure), false);
@@ -0,0 +1,13 @@
+-- ==========================================================
+-- 🔁 CONTADOR DE VERSÕES DAS RECEITAS
+-- bancos existentes continuam a numeração a partir da maior versão gravada;
+-- versões repetidas gravadas antes do contador precisam ser corrigidas à mão,
+-- senão o índice único abaixo falha e a migração é desfeita
+-- ==========================================================
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS version_counter INT NOT NULL DEFAULT 0;
+
+UPDATE recipes r SET version_counter = GREATEST(r.version_counter, COALESCE(
+    (SELECT MAX(v.version_number) FROM recipe_version v WHERE v.recipe_product_id = r.product_id), 0));
+
+-- mesmo nome da constraint do db.txt, que já cria um índice com ele
+CREATE UNIQUE INDEX IF NOT EXISTS uk_recipe_version_number ON recipe_version (recipe_product_id, version_number);
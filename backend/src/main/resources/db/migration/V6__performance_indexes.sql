@@ -0,0 +1,32 @@
+-- no-transaction
+-- ==========================================================
+-- 🔎 ÍNDICES DAS CONSULTAS POR CLIENTE, RECEITA E INGREDIENTE
+-- o PostgreSQL não cria índice para chave estrangeira sozinho,
+-- então cada busca por FK abaixo virava leitura sequencial.
+-- CONCURRENTLY não bloqueia escritas durante a criação, mas não
+-- roda em transação: se a migração falhar no meio, apague o índice
+-- que ficou INVALID antes de subir de novo, ou o IF NOT EXISTS o pula
+-- ==========================================================
+
+-- listagens só enxergam receitas ativas; a paginação por cursor segue (nome, id)
+-- a partir do último item devolvido, e as demais buscas por cliente usam a primeira coluna
+DROP INDEX CONCURRENTLY IF EXISTS idx_recipes_client;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipes_client_name ON recipes (client_id, product_name, product_id)
+WHERE deleted = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipes_name ON recipes (product_name, product_id) WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ingredients_client_name ON ingredients (client_id, name, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ingredients_name ON ingredients (name, id);
+
+-- ingredients.client_id já é coberto por idx_ingredients_client_name (client_id, name, id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_suppliers_client ON suppliers (client_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_items_recipe ON recipe_items (recipe_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_items_ingredient ON recipe_items (ingredient_id) WHERE ingredient_id IS NOT NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_items_sub_product ON recipe_items (sub_product_id) WHERE sub_product_id IS NOT NULL;
+
+-- recipe_version.recipe_product_id já é coberto por uk_recipe_version_number (recipe_product_id, version_number)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_item_versions_version ON recipe_item_versions (version_id);
+
+-- closure.product_id já é coberto por uk_closure_product_ingredient (product_id, ingredient_id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_closure_ingredient ON product_ingredient_closure (ingredient_id);
@@ -0,0 +1,65 @@
+-- ==========================================================
+-- 🗄️ ARQUIVO DE RECEITAS EXCLUÍDAS
+-- receitas excluídas há mais de recipes.archive.after-days saem das
+-- tabelas quentes junto com itens e versões (RecipeArchiveService)
+-- ==========================================================
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+-- exclusões anteriores à coluna contam a partir da última alteração
+UPDATE recipes SET deleted_at = COALESCE(last_update_date, CURRENT_TIMESTAMP)
+WHERE deleted = true AND deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_recipes_deleted_at ON recipes (deleted_at);
+
+-- mesmas colunas e tipos das tabelas quentes, sem FKs, mais a data do arquivamento
+CREATE TABLE IF NOT EXISTS recipes_archive (
+    product_id BIGINT PRIMARY KEY,
+    client_id BIGINT,
+    description VARCHAR(255),
+    amount INT,
+    last_update_date TIMESTAMP,
+    total_cost NUMERIC(19,2),
+    cost_per_unit NUMERIC(19,2),
+    profit NUMERIC(19,2),
+    margin NUMERIC(9,2),
+    version_counter INT,
+    deleted_at TIMESTAMP,
+    archived_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS recipe_items_archive (
+    id BIGINT PRIMARY KEY,
+    recipe_id BIGINT,
+    ingredient_id BIGINT,
+    sub_product_id BIGINT,
+    quantity NUMERIC(19,6),
+    unit_cost_snapshot NUMERIC(19,6),
+    total_cost_snapshot NUMERIC(19,6),
+    archived_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS recipe_version_archive (
+    id BIGINT PRIMARY KEY,
+    recipe_product_id BIGINT,
+    version_number INT,
+    created_at TIMESTAMP,
+    description VARCHAR(255),
+    amount INT,
+    product_name_snapshot VARCHAR(255),
+    product_price_snapshot NUMERIC(19,2),
+    action_type VARCHAR(20),
+    archived_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS recipe_item_versions_archive (
+    id BIGINT PRIMARY KEY,
+    version_id BIGINT,
+    ingredient_id BIGINT,
+    sub_product_id BIGINT,
+    ingredient_name VARCHAR(255),
+    quantity NUMERIC(19,6),
+    unit VARCHAR(20),
+    unit_cost_snapshot NUMERIC(19,6),
+    total_cost_snapshot NUMERIC(19,6),
+    archived_at TIMESTAMP
+);
@@ -0,0 +1,13 @@
+-- ==========================================================
+-- 🔑 CHAVES DE ASSINATURA DOS JWT
+-- compartilhadas por todas as instâncias; o SigningKeyService cria
+-- a primeira, faz a rotação e apaga as que já expiraram
+-- ==========================================================
+CREATE TABLE IF NOT EXISTS signing_keys (
+    kid VARCHAR(64) PRIMARY KEY,
+    public_key VARCHAR(4000) NOT NULL,
+    private_key VARCHAR(4000) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    activates_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE
+);
@@ -0,0 +1,44 @@
+package com.MyRecipies.recipies.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.MyRecipies.recipies.dto.CacheRegionStatsDTO;
+
+public class LocalCacheStorageTests {
+
+    @Test
+    public void putIntoCacheShouldEvictLeastRecentlyUsedEntryWhenRegionIsFull() {
+
+        LocalCacheStorage storage = new LocalCacheStorage("ingredients", 2, 0);
+        storage.putIntoCache(1L, "a", null);
+        storage.putIntoCache(2L, "b", null);
+
+        // o acesso ao 1 deixa o 2 como o menos usado
+        storage.getFromCache(1L, null);
+        storage.putIntoCache(3L, "c", null);
+
+        Assertions.assertEquals("a", storage.getFromCache(1L, null));
+        Assertions.assertNull(storage.getFromCache(2L, null));
+        Assertions.assertEquals("c", storage.getFromCache(3L, null));
+
+        CacheRegionStatsDTO stats = storage.stats();
+        Assertions.assertEquals(2, stats.getSize());
+        Assertions.assertEquals(3, stats.getHits());
+        Assertions.assertEquals(1, stats.getMisses());
+        Assertions.assertEquals(1, stats.getEvictions());
+    }
+
+    @Test
+    public void getFromCacheShouldReturnNullWhenEntryExpired() throws InterruptedException {
+
+        LocalCacheStorage storage = new LocalCacheStorage("roles", 10, 1);
+        storage.putIntoCache(1L, "a", null);
+
+        Thread.sleep(5);
+
+        Assertions.assertNull(storage.getFromCache(1L, null));
+        Assertions.assertFalse(storage.contains(1L));
+        Assertions.assertEquals(0, storage.stats().getSize());
+    }
+}
@@ -0,0 +1,70 @@
+package com.MyRecipies.recipies.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.MyRecipies.recipies.entities.Role;
+import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.tests.Factory;
+
+@DataJpaTest
+@Import({ UserCache.class, UserCacheInvalidator.class })
+public class UserCacheInvalidatorTests {
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private Long userId;
+    private String email;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+
+        User user = testEntityManager.persist(Factory.createUser());
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        userId = user.getId();
+        email = user.getEmail();
+        userCache.get(email, () -> "cached");
+    }
+
+    @Test
+    public void roleChangeShouldInvalidateCachedLogin() {
+
+        Role role = new Role();
+        role.setAuthority("ROLE_NEW");
+        testEntityManager.persist(role);
+
+        testEntityManager.find(User.class, userId).addRole(role);
+        testEntityManager.flush();
+
+        Assertions.assertEquals("reloaded", userCache.get(email, () -> "reloaded"));
+    }
+
+    @Test
+    public void deleteShouldInvalidateCachedLogin() {
+
+        testEntityManager.remove(testEntityManager.find(User.class, userId));
+        testEntityManager.flush();
+
+        Assertions.assertEquals("reloaded", userCache.get(email, () -> "reloaded"));
+    }
+
+    @Test
+    public void emailChangeShouldInvalidateOldEmail() {
+
+        testEntityManager.find(User.class, userId).setEmail("changed@email.com");
+        testEntityManager.flush();
+
+        Assertions.assertEquals("reloaded", userCache.get(email, () -> "reloaded"));
+    }
+}
@@ -0,0 +1,118 @@
+package com.MyRecipies.recipies.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.MyRecipies.recipies.dto.CacheRegionStatsDTO;
+
+public class UserCacheTests {
+
+    private final UserCache cache = new UserCache(100, 60);
+
+    @Test
+    public void getShouldLoadOnceAndServeFromCacheAfterwards() {
+
+        AtomicInteger loads = new AtomicInteger();
+
+        Assertions.assertEquals("a", cache.get("maria@email.com", () -> {
+            loads.incrementAndGet();
+            return "a";
+        }));
+        Assertions.assertEquals("a", cache.get("maria@email.com", () -> "b"));
+
+        CacheRegionStatsDTO stats = cache.stats();
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1, stats.getHits());
+        Assertions.assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    public void getShouldNotCacheNullValue() {
+
+        Assertions.assertNull(cache.get("ghost@email.com", () -> null));
+        Assertions.assertEquals("a", cache.get("ghost@email.com", () -> "a"));
+    }
+
+    @Test
+    public void invalidateShouldForceReload() {
+
+        cache.get("maria@email.com", () -> "old");
+        cache.invalidate("maria@email.com");
+
+        Assertions.assertEquals("new", cache.get("maria@email.com", () -> "new"));
+    }
+
+    @Test
+    public void getShouldNotStoreValueLoadedBeforeInvalidation() {
+
+        Assertions.assertEquals("stale", cache.get("maria@email.com", () -> {
+            cache.invalidate("maria@email.com");
+            return "stale";
+        }));
+
+        Assertions.assertEquals("fresh", cache.get("maria@email.com", () -> "fresh"));
+    }
+
+    @Test
+    public void getShouldRunSingleLoadWhenManyThreadsMissAtOnce() throws Exception {
+
+        int threads = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(threads);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    started.countDown();
+                    return cache.get("maria@email.com", () -> {
+                        loads.incrementAndGet();
+                        await(release);
+                        return "a";
+                    });
+                }));
+            }
+
+            // a carga só termina depois que todas as threads já pediram o valor
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                Assertions.assertEquals("a", result.get(5, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getShouldPropagateLoaderExceptionAndNotCache() {
+
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.get("maria@email.com", () -> {
+            throw new IllegalStateException();
+        }));
+
+        Assertions.assertEquals("a", cache.get("maria@email.com", () -> "a"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.MyRecipies.recipies.config;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+
+public class AuthenticatedUserConverterTests {
+
+    private final AuthenticatedUserConverter converter = new AuthenticatedUserConverter();
+
+    @Test
+    public void convertShouldBuildPrincipalFromClaims() {
+
+        Jwt jwt = jwt().claim("user_id", 7L).build();
+
+        AuthenticatedUserToken token = converter.convert(jwt);
+        AuthenticatedUser user = (AuthenticatedUser) token.getPrincipal();
+
+        Assertions.assertTrue(token.isAuthenticated());
+        Assertions.assertEquals(7L, user.getId());
+        Assertions.assertEquals("maria@email.com", user.getUsername());
+        Assertions.assertEquals("maria@email.com", token.getName());
+        Assertions.assertEquals(Set.of("ROLE_CLIENT", "ROLE_ADMIN"), user.getAuthorities());
+        Assertions.assertTrue(user.hasRole("ROLE_ADMIN"));
+        Assertions.assertTrue(token.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_CLIENT")));
+    }
+
+    @Test
+    public void convertShouldReadUserIdIssuedAsString() {
+
+        Jwt jwt = jwt().claim("user_id", "7").build();
+
+        Assertions.assertEquals(7L, ((AuthenticatedUser) converter.convert(jwt).getPrincipal()).getId());
+    }
+
+    @Test
+    public void convertShouldThrowInvalidBearerTokenExceptionWhenUserIdIsNotNumeric() {
+
+        Jwt jwt = jwt().claim("user_id", "abc").build();
+
+        Assertions.assertThrows(InvalidBearerTokenException.class, () -> converter.convert(jwt));
+    }
+
+    @Test
+    public void convertShouldThrowInvalidBearerTokenExceptionWhenUserIdIsMissing() {
+
+        Jwt jwt = jwt().build();
+
+        Assertions.assertThrows(InvalidBearerTokenException.class, () -> converter.convert(jwt));
+    }
+
+    private static Jwt.Builder jwt() {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .claim("username", "maria@email.com")
+                .claim("authorities", List.of("ROLE_CLIENT", "ROLE_ADMIN"));
+    }
+}
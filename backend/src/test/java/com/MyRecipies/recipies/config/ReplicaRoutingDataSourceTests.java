@@ -0,0 +1,160 @@
+package com.MyRecipies.recipies.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+public class ReplicaRoutingDataSourceTests {
+
+    private JdbcTemplate replica;
+    private JdbcTemplate routed;
+    private DriverManagerDataSource primaryDataSource;
+    private DriverManagerDataSource replicaDataSource;
+    private ReplicaRoutingDataSource routing;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+
+        // dois H2 separados; cada um sabe quem é pela tabela node
+        primaryDataSource = h2();
+        replicaDataSource = h2();
+
+        new JdbcTemplate(primaryDataSource).execute("CREATE TABLE node (name VARCHAR(20))");
+        new JdbcTemplate(primaryDataSource).update("INSERT INTO node VALUES ('primary')");
+
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE node (name VARCHAR(20))");
+        replica.update("INSERT INTO node VALUES ('replica')");
+        replica.execute("CREATE TABLE replica_lag (seconds DOUBLE PRECISION)");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+
+        route(new ReplicaRoutingDataSource(primaryDataSource, List.of(replicaDataSource),
+                "SELECT seconds FROM replica_lag", 5, 50));
+        routing.checkReplicas();
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        routing.close();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void readOnlyTransactionShouldUseReplica() {
+
+        Assertions.assertEquals("replica", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    public void writeTransactionShouldUsePrimary() {
+
+        Assertions.assertEquals("primary", readWrite.execute(status -> node()));
+    }
+
+    @Test
+    public void readOnlyTransactionShouldUsePrimaryWhenReplicaLagExceedsTolerance() {
+
+        replica.update("UPDATE replica_lag SET seconds = 30");
+        routing.checkReplicas();
+
+        Assertions.assertEquals("primary", readOnly.execute(status -> node()));
+
+        replica.update("UPDATE replica_lag SET seconds = 1");
+        routing.checkReplicas();
+
+        Assertions.assertEquals("replica", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    public void readOnlyTransactionShouldUsePrimaryAfterWriteInSameRequest() {
+
+        readWrite.executeWithoutResult(status -> routed.update("UPDATE node SET name = 'primary'"));
+
+        Assertions.assertEquals("primary", readOnly.execute(status -> node()));
+
+        // uma nova requisição volta a ler da réplica
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        Assertions.assertEquals("replica", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    public void readOnlyTransactionShouldNotWaitForHangingReplica() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        DataSource hanging = new DelegatingDataSource(replicaDataSource) {
+
+            @Override
+            public Connection getConnection() throws SQLException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new SQLException("réplica fora do ar");
+            }
+        };
+        routing.close();
+        route(new ReplicaRoutingDataSource(primaryDataSource, List.of(hanging, replicaDataSource),
+                "SELECT seconds FROM replica_lag", 5, 50));
+
+        try {
+            Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                routing.start();
+                // a réplica travada nunca entra no rodízio e não segura a verificação da outra
+                while (!"replica".equals(readOnly.execute(status -> node()))) {
+                    Thread.sleep(20);
+                }
+                for (int i = 0; i < 4; i++) {
+                    Assertions.assertEquals("replica", readOnly.execute(status -> node()));
+                }
+            });
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private void route(ReplicaRoutingDataSource routingDataSource) {
+
+        routing = routingDataSource;
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        routed = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String node() {
+        return routed.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DriverManagerDataSource h2() {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,94 @@
+package com.MyRecipies.recipies.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+public class SchemaMigratorTests {
+
+    @TempDir
+    private Path dir;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private SchemaMigrator migrator;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        migrator = new SchemaMigrator(dataSource, "file:" + dir.toAbsolutePath());
+
+        script("V1__create_items.sql", "CREATE TABLE items (id BIGINT PRIMARY KEY, client_id BIGINT);");
+    }
+
+    @Test
+    public void migrateShouldApplyPendingScriptsInVersionOrder() throws IOException {
+
+        // V10 depende do V2; ordem alfabética aplicaria V10 antes
+        script("V10__index_items_name.sql", "CREATE INDEX idx_items_name ON items (name);");
+        script("V2__add_items_name.sql", "-- coluna usada pelo V10\nALTER TABLE items ADD COLUMN name VARCHAR(50);");
+
+        Assertions.assertEquals(3, migrator.migrate());
+        Assertions.assertEquals(0, migrator.migrate());
+
+        Assertions.assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_migrations", Integer.class));
+        Assertions.assertEquals("add items name",
+                jdbcTemplate.queryForObject("SELECT description FROM schema_migrations WHERE version = 2", String.class));
+    }
+
+    @Test
+    public void migrateShouldThrowWhenAppliedScriptWasChanged() throws IOException {
+
+        migrator.migrate();
+        script("V1__create_items.sql", "CREATE TABLE items (id BIGINT PRIMARY KEY);");
+
+        Assertions.assertThrows(IllegalStateException.class, () -> migrator.migrate());
+    }
+
+    @Test
+    public void migrateShouldRollbackScriptWhenAnyStatementFails() throws IOException {
+
+        script("V2__broken.sql", "INSERT INTO items (id) VALUES (1);\nINSERT INTO missing_table (id) VALUES (1);");
+
+        Assertions.assertThrows(IllegalStateException.class, () -> migrator.migrate());
+
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Integer.class));
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_migrations", Integer.class));
+    }
+
+    @Test
+    public void migrateShouldKeepStatementsBeforeFailureInNoTransactionScript() throws IOException {
+
+        script("V2__index_items.sql", "-- no-transaction\nCREATE INDEX IF NOT EXISTS idx_items_client ON items (client_id);\n"
+                + "CREATE INDEX IF NOT EXISTS idx_items_name ON items (name);");
+
+        Assertions.assertThrows(IllegalStateException.class, () -> migrator.migrate());
+        Assertions.assertEquals(1, indexCount("IDX_ITEMS_CLIENT"));
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_migrations", Integer.class));
+
+        // o script corrigido roda de novo por inteiro
+        script("V2__index_items.sql", "-- no-transaction\nCREATE INDEX IF NOT EXISTS idx_items_client ON items (client_id);");
+
+        Assertions.assertEquals(1, migrator.migrate());
+        Assertions.assertEquals(1, indexCount("IDX_ITEMS_CLIENT"));
+    }
+
+    private int indexCount(String name) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = ?",
+                Integer.class, name);
+    }
+
+    private void script(String name, String sql) throws IOException {
+        Files.writeString(dir.resolve(name), sql);
+    }
+}
@@ -0,0 +1,60 @@
+package com.MyRecipies.recipies.controllers;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.MyRecipies.recipies.config.SecurityConfig;
+import com.MyRecipies.recipies.controller.CacheController;
+import com.MyRecipies.recipies.dto.CacheRegionStatsDTO;
+import com.MyRecipies.recipies.services.CacheService;
+
+@WebMvcTest(CacheController.class)
+@AutoConfigureMockMvc(addFilters = true)
+@Import(SecurityConfig.class)
+public class CacheControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CacheService cacheService;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void statsShouldReturnRegionStatsAnd200WhenAdmin() throws Exception {
+
+        Mockito.when(cacheService.stats())
+                .thenReturn(List.of(new CacheRegionStatsDTO("ingredients", 2, 100, 600, 3, 1, 2, 0)));
+
+        mockMvc.perform(get("/cache/stats")
+        .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].region").value("ingredients"))
+        .andExpect(jsonPath("$[0].hitRatio").value(0.75));
+    }
+
+    @Test
+    @WithMockUser(roles = "CLIENT")
+    public void statsShouldReturn403WhenClient() throws Exception {
+
+        mockMvc.perform(get("/cache/stats")).andExpect(status().isForbidden());
+    }
+}
@@ -29,8 +29,10 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import com.MyRecipies.recipies.config.SecurityConfig;
 import com.MyRecipies.recipies.controller.IngredientController;
+import com.MyRecipies.recipies.dto.CursorPageDTO;
 import com.MyRecipies.recipies.dto.IngredientDTO;
 import com.MyRecipies.recipies.services.IngredientService;
+import com.MyRecipies.recipies.services.exceptions.InvalidCursorException;
 import com.MyRecipies.recipies.services.exceptions.ResourceNotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -115,6 +117,30 @@ public class IngredientControllerTests {
         Mockito.verify(ingredientService).findAll(any(Pageable.class));
     }
 
+    @Test
+    @WithMockUser(roles = "CLIENT")
+    public void seekByClientIdShouldReturnCursorPageAnd200() throws Exception {
+
+        Mockito.when(ingredientService.seekByClientId("abc", 5, true))
+                .thenReturn(new CursorPageDTO<>(List.of(ingredientDTO), "next", 1L));
+
+        mockMvc.perform(get("/ingredients/seek?cursor=abc&size=5&count=true").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "CLIENT")
+    public void seekByClientIdShouldReturn400WhenCursorIsInvalid() throws Exception {
+
+        Mockito.when(ingredientService.seekByClientId("abc", 20, false))
+                .thenThrow(new InvalidCursorException("Cursor inválido!"));
+
+        mockMvc.perform(get("/ingredients/seek?cursor=abc").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void findAllShouldReturn401WhenNotAuthenticated() throws Exception {
 
@@ -0,0 +1,58 @@
+package com.MyRecipies.recipies.controllers;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.MyRecipies.recipies.config.SecurityConfig;
+import com.MyRecipies.recipies.controller.PasswordHashingController;
+import com.MyRecipies.recipies.dto.PasswordHashingStatsDTO;
+import com.MyRecipies.recipies.services.PasswordHashingService;
+
+@WebMvcTest(PasswordHashingController.class)
+@AutoConfigureMockMvc(addFilters = true)
+@Import(SecurityConfig.class)
+public class PasswordHashingControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PasswordHashingService passwordHashingService;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void statsShouldReturnPoolStatsAnd200WhenAdmin() throws Exception {
+
+        Mockito.when(passwordHashingService.stats())
+                .thenReturn(new PasswordHashingStatsDTO(4, 1, 3, 64, 120, 2, 1, 0.5, 80.0, 95.0));
+
+        mockMvc.perform(get("/password-hashing/stats")
+        .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.queueDepth").value(3))
+        .andExpect(jsonPath("$.rejected").value(2));
+    }
+
+    @Test
+    @WithMockUser(roles = "CLIENT")
+    public void statsShouldReturn403WhenClient() throws Exception {
+
+        mockMvc.perform(get("/password-hashing/stats")).andExpect(status().isForbidden());
+    }
+}
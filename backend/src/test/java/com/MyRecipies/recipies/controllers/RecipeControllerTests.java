@@ -3,6 +3,8 @@ package com.MyRecipies.recipies.controllers;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.util.List;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -21,19 +23,30 @@ import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.MyRecipies.recipies.config.SecurityConfig;
 import com.MyRecipies.recipies.controller.RecipeController;
+import com.MyRecipies.recipies.dto.PriceChangeDTO;
 import com.MyRecipies.recipies.dto.RecipeDTO;
+import com.MyRecipies.recipies.dto.RecipeSummaryDTO;
+import com.MyRecipies.recipies.dto.SimulationRequestDTO;
+import com.MyRecipies.recipies.dto.SimulationResultDTO;
+import com.MyRecipies.recipies.dto.SimulationScenarioDTO;
 import com.MyRecipies.recipies.services.RecipeService;
+import com.MyRecipies.recipies.services.SimulationService;
+import com.MyRecipies.recipies.services.exceptions.InvalidSortException;
 import com.MyRecipies.recipies.services.exceptions.ResourceNotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(RecipeController.class)
@@ -47,6 +60,9 @@ public class RecipeControllerTests {
     @MockitoBean
     private RecipeService recipeService;
 
+    @MockitoBean
+    private SimulationService simulationService;
+
     @MockitoBean
     private JwtDecoder jwtDecoder;
 
@@ -56,7 +72,7 @@ public class RecipeControllerTests {
     private String jsonBody;
     private Long existingId;
     private Long nonExistingId;
-    private PageImpl<RecipeDTO> page;
+    private PageImpl<RecipeSummaryDTO> page;
     private RecipeDTO recipeDTO;
 
     @BeforeEach
@@ -70,7 +86,9 @@ public class RecipeControllerTests {
 
         jsonBody = objectMapper.writeValueAsString(recipeDTO);
 
-        page = new PageImpl<>(List.of(recipeDTO));
+        page = new PageImpl<>(List.of(new RecipeSummaryDTO(existingId, 1L, "Bolo", new BigDecimal("30.00"), null,
+                null, 10, null, null, 2, new BigDecimal("20.00"), new BigDecimal("2.00"), new BigDecimal("280.00"),
+                new BigDecimal("1400.00"))));
     }
 
     @Test
@@ -79,7 +97,8 @@ public class RecipeControllerTests {
         
         Mockito.when(recipeService.findByClientId(any(Pageable.class))).thenReturn(page);
 
-        mockMvc.perform(get("/recipes").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk()).andExpect(jsonPath("$.content[0].id").value(existingId));
+        mockMvc.perform(get("/recipes").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk()).andExpect(jsonPath("$.content[0].id").value(existingId))
+                .andExpect(jsonPath("$.content[0].costPerUnit").value(2.00));
 
         Mockito.verify(recipeService).findByClientId(any(Pageable.class));
     }
@@ -112,6 +131,64 @@ public class RecipeControllerTests {
         Mockito.verify(recipeService).findAll(any(Pageable.class));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void findAllShouldReturn400WhenSortPropertyIsNotAllowed() throws Exception {
+
+        Mockito.when(recipeService.findAll(any(Pageable.class))).thenThrow(new InvalidSortException("Ordenação inválida: client.password"));
+
+        mockMvc.perform(get("/recipes/all?sort=client.password").accept(MediaType.APPLICATION_JSON)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "CLIENT")
+    public void findDetailsByClientIdShouldReturnPageOfRecipesWithItemsAnd200() throws Exception {
+
+        Mockito.when(recipeService.findDetailsByClientId(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(recipeDTO)));
+
+        mockMvc.perform(get("/recipes/details").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(existingId))
+                .andExpect(jsonPath("$.content[0].items").isArray());
+
+        Mockito.verify(recipeService).findDetailsByClientId(any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "CLIENT")
+    public void findAllDetailsShouldReturn403WhenUserIsNotAdmin() throws Exception {
+
+        mockMvc.perform(get("/recipes/all/details")).andExpect(status().isForbidden());
+
+        Mockito.verifyNoInteractions(recipeService);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void exportAllShouldStreamNdjsonWhenUserIsAdmin() throws Exception {
+
+        Mockito.doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("{\"id\":1}\n".getBytes());
+            return null;
+        }).when(recipeService).exportAll(any());
+
+        MvcResult result = mockMvc.perform(get("/recipes/all/export")).andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    @WithMockUser(roles = "CLIENT")
+    public void exportAllShouldReturn403WhenUserIsNotAdmin() throws Exception {
+
+        mockMvc.perform(get("/recipes/all/export")).andExpect(status().isForbidden());
+
+        Mockito.verifyNoInteractions(recipeService);
+    }
+
     @Test
     public void findAllShouldReturn401WhenNotAuthenticated() throws Exception {
 
@@ -510,4 +587,60 @@ public class RecipeControllerTests {
 
         Mockito.verifyNoInteractions(recipeService);
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "CLIENT")
+    public void simulateShouldReturnOneResultPerScenario() throws Exception {
+
+        SimulationRequestDTO request = new SimulationRequestDTO(List.of(
+                new SimulationScenarioDTO("manteiga +18%", List.of(new PriceChangeDTO(1L, new BigDecimal("18"), null)))));
+
+        Mockito.when(simulationService.simulate(eq(null), any()))
+                .thenReturn(List.of(new SimulationResultDTO("manteiga +18%", List.of())));
+
+        mockMvc.perform(post("/recipes/simulations")
+        .with(csrf())
+        .content(objectMapper.writeValueAsString(request))
+        .contentType(MediaType.APPLICATION_JSON)
+        .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].scenario").value("manteiga +18%"));
+
+        Mockito.verifyNoInteractions(recipeService);
+    }
+
+    @Test
+    @WithMockUser(roles = "CLIENT")
+    public void simulateShouldReturn422WhenPercentChangeIsBelowMinus100() throws Exception {
+
+        SimulationRequestDTO request = new SimulationRequestDTO(List.of(
+                new SimulationScenarioDTO("inválido", List.of(new PriceChangeDTO(1L, new BigDecimal("-150"), null)))));
+
+        mockMvc.perform(post("/recipes/simulations")
+        .with(csrf())
+        .content(objectMapper.writeValueAsString(request))
+        .contentType(MediaType.APPLICATION_JSON)
+        .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isUnprocessableEntity());
+
+        Mockito.verifyNoInteractions(simulationService);
+    }
+
+    @Test
+    @WithMockUser(roles = "CLIENT")
+    public void simulateShouldReturn422WhenPriceAndPercentChangeAreMissing() throws Exception {
+
+        SimulationRequestDTO request = new SimulationRequestDTO(List.of(
+                new SimulationScenarioDTO("vazio", List.of(new PriceChangeDTO(1L, null, null)))));
+
+        mockMvc.perform(post("/recipes/simulations")
+        .with(csrf())
+        .content(objectMapper.writeValueAsString(request))
+        .contentType(MediaType.APPLICATION_JSON)
+        .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.errors[0].fieldName").value("scenarios[0].changes[0].priceOrPercentChangeInformed"));
+
+        Mockito.verifyNoInteractions(simulationService);
+    }
+}
@@ -0,0 +1,69 @@
+package com.MyRecipies.recipies.costing;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BatchCostingTests {
+
+    @Test
+    public void itemTotalsShouldMatchScalarPathForRandomInputs() {
+
+        Random random = new Random(7);
+        int size = 10_003;
+
+        long[] unitCosts = new long[size];
+        long[] quantities = new long[size];
+        for (int i = 0; i < size; i++) {
+            unitCosts[i] = random.nextLong(0, 500_000_000L);
+            quantities[i] = random.nextLong(0, 5_000_000_000L);
+        }
+
+        // valores fora do caminho vetorial: negativos e produtos acima de 2^62
+        unitCosts[17] = -1_234_567L;
+        unitCosts[400] = 9_000_000_000_000L;
+        quantities[400] = 9_000_000_000L;
+
+        long[] expected = new long[size];
+        BatchCosting.scalarItemTotals(unitCosts, quantities, expected, 0, size);
+
+        long[] actual = new long[size];
+        BatchCosting.itemTotals(unitCosts, quantities, actual, 0, size);
+
+        Assertions.assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void itemTotalsShouldRoundHalfUpLikeCostingEngine() {
+
+        // 0,5 micro exato em cada item: 1 x 0,5 e 3 x 0,5
+        long[] unitCosts = { 1L, 3L, 1L, 2L, 500_000L, 1_500_000L, 7L, 9L };
+        long[] quantities = { 500_000L, 500_000L, 499_999L, 250_000L, 3L, 1_000_001L, 0L, 1_000_000L };
+
+        long[] actual = new long[unitCosts.length];
+        BatchCosting.itemTotals(unitCosts, quantities, actual, 0, unitCosts.length);
+
+        for (int i = 0; i < unitCosts.length; i++) {
+            Assertions.assertEquals(CostingEngine.itemTotal(unitCosts[i], quantities[i]), actual[i]);
+        }
+    }
+
+    @Test
+    public void recipeTotalsShouldSumItemsOfEachRecipe() {
+
+        long[] unitCosts = { 2_000_000L, 3_000_000L, 1_500_000L };
+        long[] quantities = { 1_000_000L, 2_000_000L, 4_000_000L };
+        int[] recipeStart = { 0, 2, 2, 3 };
+
+        long[] totals = BatchCosting.recipeTotals(unitCosts, quantities, recipeStart);
+
+        Assertions.assertArrayEquals(new long[] { 8_000_000L, 0L, 6_000_000L }, totals);
+    }
+
+    @Test
+    public void vectorPathShouldBeEnabledWhenIncubatorModuleIsLoaded() {
+        Assertions.assertEquals(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                BatchCosting.isVectorized());
+    }
+}
@@ -0,0 +1,122 @@
+package com.MyRecipies.recipies.costing;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.entities.Product;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.entities.RecipeItem;
+import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.services.exceptions.RecipeCycleException;
+import com.MyRecipies.recipies.tests.Factory;
+
+public class BomRollupTests {
+
+    private User client;
+    private Ingredient flour;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        client = Factory.createUser();
+
+        flour = Factory.createIngredient(client);
+        flour.setPriceCost(new BigDecimal("6.00"));
+        flour.setQuantityPerUnit(new BigDecimal("1000"));
+    }
+
+    @Test
+    public void unitCostMicrosShouldRollUpNestedSubProducts() {
+
+        // massa: 500 g de farinha rende 2 unidades -> 1,50 por unidade
+        Recipe dough = recipe("Massa", 2);
+        addIngredient(dough, flour, "500");
+
+        // recheio: 1 massa + 250 g de farinha, rende 1 -> 1,50 + 1,50 = 3,00
+        Recipe filling = recipe("Recheio", 1);
+        addSubProduct(filling, dough.getProduct(), "1");
+        addIngredient(filling, flour, "250");
+
+        // bolo: 2 recheios, rende 4 -> 6,00 / 4 = 1,50
+        Recipe cake = recipe("Bolo", 4);
+        addSubProduct(cake, filling.getProduct(), "2");
+
+        BomRollup rollup = new BomRollup();
+
+        Assertions.assertEquals(1_500_000L, rollup.unitCostMicros(cake.getProduct()));
+        Assertions.assertEquals(3_000_000L, rollup.unitCostMicros(filling.getProduct()));
+        Assertions.assertEquals(1_500_000L, rollup.unitCostMicros(dough.getProduct()));
+    }
+
+    @Test
+    public void topologicalOrderShouldListEachSharedSubProductOnceBeforeItsParents() {
+
+        Recipe dough = recipe("Massa", 1);
+        addIngredient(dough, flour, "100");
+
+        Recipe left = recipe("Esquerda", 1);
+        addSubProduct(left, dough.getProduct(), "1");
+
+        Recipe right = recipe("Direita", 1);
+        addSubProduct(right, dough.getProduct(), "1");
+
+        Recipe top = recipe("Topo", 1);
+        addSubProduct(top, left.getProduct(), "1");
+        addSubProduct(top, right.getProduct(), "1");
+
+        BomRollup rollup = new BomRollup();
+        rollup.unitCostMicros(top.getProduct());
+
+        List<Product> order = rollup.topologicalOrder();
+
+        Assertions.assertEquals(4, order.size());
+        Assertions.assertSame(dough.getProduct(), order.get(0));
+        Assertions.assertSame(top.getProduct(), order.get(3));
+    }
+
+    @Test
+    public void unitCostMicrosShouldThrowRecipeCycleExceptionWhenRecipesReferenceEachOther() {
+
+        Recipe a = recipe("A", 1);
+        Recipe b = recipe("B", 1);
+        addSubProduct(a, b.getProduct(), "1");
+        addSubProduct(b, a.getProduct(), "1");
+
+        Assertions.assertThrows(RecipeCycleException.class, () -> {
+            new BomRollup().unitCostMicros(a.getProduct());
+        });
+    }
+
+    @Test
+    public void unitCostMicrosShouldReturnZeroWhenProductHasNoRecipe() {
+
+        Product product = Factory.createProduct();
+
+        Assertions.assertEquals(0L, new BomRollup().unitCostMicros(product));
+    }
+
+    private Recipe recipe(String name, int amount) {
+        Recipe recipe = Factory.createRecipe(client);
+        recipe.getProduct().setName(name);
+        recipe.setAmount(amount);
+        return recipe;
+    }
+
+    private static void addIngredient(Recipe recipe, Ingredient ingredient, String quantity) {
+        RecipeItem item = new RecipeItem();
+        item.setIngredient(ingredient);
+        item.setQuantity(new BigDecimal(quantity));
+        recipe.addItem(item);
+    }
+
+    private static void addSubProduct(Recipe recipe, Product subProduct, String quantity) {
+        RecipeItem item = new RecipeItem();
+        item.setSubProduct(subProduct);
+        item.setQuantity(new BigDecimal(quantity));
+        recipe.addItem(item);
+    }
+}
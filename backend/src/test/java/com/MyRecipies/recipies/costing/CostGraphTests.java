@@ -0,0 +1,125 @@
+package com.MyRecipies.recipies.costing;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.entities.Product;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.entities.RecipeItem;
+import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.tests.Factory;
+
+public class CostGraphTests {
+
+    private User client;
+    private Ingredient flour;
+    private Ingredient butter;
+    private Recipe dough;
+    private Recipe cake;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        client = Factory.createUser();
+
+        flour = ingredient(1L, "6.00", "1000");
+        butter = ingredient(2L, "20.00", "500");
+
+        // massa: 500 g de farinha + 100 g de manteiga, rende 2 -> (3,00 + 4,00) / 2 = 3,50
+        dough = recipe(10L, "Massa", 2, "10");
+        addIngredient(dough, flour, "500");
+        addIngredient(dough, butter, "100");
+
+        // bolo: 2 massas, rende 1 -> 7,00; vendido a 20,00
+        cake = recipe(11L, "Bolo", 1, "20");
+        addSubProduct(cake, dough.getProduct(), "2");
+    }
+
+    @Test
+    public void evaluateShouldMatchRollupWhenPricesAreUnchanged() {
+
+        CostGraph graph = CostGraph.of(List.of(cake, dough));
+        RecipeFinancials[] financials = graph.evaluate(graph.priceCosts());
+
+        Assertions.assertEquals(2, graph.recipeCount());
+        for (int i = 0; i < graph.recipeCount(); i++) {
+            Recipe recipe = graph.recipeId(i) == dough.getId() ? dough : cake;
+            long expected = new BomRollup().unitCostMicros(recipe.getProduct()) * recipe.getAmount();
+            Assertions.assertEquals(FixedPoint.toCents(expected), financials[i].totalCostCents());
+        }
+    }
+
+    @Test
+    public void evaluateShouldApplyScenarioPricesWithoutChangingSnapshot() {
+
+        CostGraph graph = CostGraph.of(List.of(dough, cake));
+
+        long[] prices = graph.priceCosts();
+        prices[graph.ingredientIndex(butter.getId())] = FixedPoint.toMicros(new BigDecimal("30.00"));
+
+        RecipeFinancials cakeFinancials = graph.evaluate(prices)[indexOf(graph, cake)];
+
+        // manteiga 30,00 -> massa (3,00 + 6,00) / 2 = 4,50; bolo 2 * 4,50 = 9,00
+        Assertions.assertEquals(900L, cakeFinancials.totalCostCents());
+        Assertions.assertEquals(1100L, cakeFinancials.profitCents());
+
+        Assertions.assertEquals(700L, graph.evaluate(graph.priceCosts())[indexOf(graph, cake)].totalCostCents());
+        Assertions.assertEquals(-1, graph.ingredientIndex(99L));
+    }
+
+    @Test
+    public void evaluateShouldGiveSameResultsWhenCalledConcurrently() {
+
+        CostGraph graph = CostGraph.of(List.of(dough, cake));
+        long expected = graph.evaluate(graph.priceCosts())[indexOf(graph, cake)].totalCostCents();
+
+        IntStream.range(0, 200).parallel().forEach(i -> Assertions.assertEquals(expected,
+                graph.evaluate(graph.priceCosts())[indexOf(graph, cake)].totalCostCents()));
+    }
+
+    private static int indexOf(CostGraph graph, Recipe recipe) {
+        for (int i = 0; i < graph.recipeCount(); i++) {
+            if (graph.recipeId(i) == recipe.getId()) {
+                return i;
+            }
+        }
+        throw new AssertionError("Receita fora do grafo");
+    }
+
+    private Ingredient ingredient(Long id, String price, String quantityPerUnit) {
+        Ingredient ingredient = Factory.createIngredient(client);
+        ingredient.setId(id);
+        ingredient.setPriceCost(new BigDecimal(price));
+        ingredient.setQuantityPerUnit(new BigDecimal(quantityPerUnit));
+        return ingredient;
+    }
+
+    private Recipe recipe(Long id, String name, int amount, String price) {
+        Recipe recipe = Factory.createRecipe(client);
+        recipe.setId(id);
+        recipe.getProduct().setId(id);
+        recipe.getProduct().setName(name);
+        recipe.getProduct().setPrice(new BigDecimal(price));
+        recipe.setAmount(amount);
+        return recipe;
+    }
+
+    private static void addIngredient(Recipe recipe, Ingredient ingredient, String quantity) {
+        RecipeItem item = new RecipeItem();
+        item.setIngredient(ingredient);
+        item.setQuantity(new BigDecimal(quantity));
+        recipe.addItem(item);
+    }
+
+    private static void addSubProduct(Recipe recipe, Product subProduct, String quantity) {
+        RecipeItem item = new RecipeItem();
+        item.setSubProduct(subProduct);
+        item.setQuantity(new BigDecimal(quantity));
+        recipe.addItem(item);
+    }
+}
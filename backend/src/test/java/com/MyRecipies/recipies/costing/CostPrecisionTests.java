@@ -0,0 +1,57 @@
+package com.MyRecipies.recipies.costing;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.tests.Factory;
+
+public class CostPrecisionTests {
+
+    @Test
+    public void divideShouldRoundToCostScaleWhenQuotientIsRepeatingDecimal() {
+
+        BigDecimal result = CostPrecision.divide(BigDecimal.ONE, 3);
+
+        Assertions.assertEquals(new BigDecimal("0.333333"), result);
+    }
+
+    @Test
+    public void divideShouldReturnZeroWhenDivisorIsZero() {
+
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(CostPrecision.divide(BigDecimal.TEN, 0)));
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(CostPrecision.divide(BigDecimal.TEN, null)));
+    }
+
+    @Test
+    public void calculateUnitCostShouldNotThrowWhenIngredientPriceDoesNotSplitEvenly() {
+
+        User client = Factory.createUser();
+        Ingredient ingredient = Factory.createIngredient(client);
+        ingredient.setPriceCost(new BigDecimal("0.70"));
+        ingredient.setQuantityPerUnit(new BigDecimal("12"));
+
+        Assertions.assertEquals(new BigDecimal("0.058333"), ingredient.calculateUnitCost());
+
+        ingredient.setQuantityPerUnit(BigDecimal.ZERO);
+
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(ingredient.calculateUnitCost()));
+    }
+
+    @Test
+    public void calculateUnitCostShouldNotThrowWhenRecipeYieldDoesNotSplitEvenly() {
+
+        User client = Factory.createUser();
+        Recipe recipe = Factory.createRecipeWithIngredients(client, List.of(Factory.createIngredient(client)));
+        recipe.setAmount(3);
+
+        Assertions.assertEquals(new BigDecimal("3.333333"), recipe.calculateUnitCost());
+        Assertions.assertEquals(new BigDecimal("3.333333"), recipe.getProduct().calculateUnitCost());
+        Assertions.assertEquals(0, new BigDecimal("800.0001").compareTo(recipe.calculateProfitPercentage()));
+    }
+}
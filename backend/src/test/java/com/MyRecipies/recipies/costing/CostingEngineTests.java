@@ -0,0 +1,133 @@
+package com.MyRecipies.recipies.costing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CostingEngineTests {
+
+    @Test
+    public void divideHalfUpShouldRoundHalfAwayFromZero() {
+
+        Assertions.assertEquals(3L, FixedPoint.divideHalfUp(5, 2));
+        Assertions.assertEquals(-3L, FixedPoint.divideHalfUp(-5, 2));
+        Assertions.assertEquals(2L, FixedPoint.divideHalfUp(7, 4));
+        Assertions.assertEquals(1L, FixedPoint.divideHalfUp(5, 4));
+        Assertions.assertEquals(-1L, FixedPoint.divideHalfUp(5, -4));
+    }
+
+    @Test
+    public void multiplyShouldFallBackToBigDecimalWhenProductOverflowsLong() {
+
+        long a = FixedPoint.toMicros(new BigDecimal("9000000"));
+        long b = FixedPoint.toMicros(new BigDecimal("3000.5"));
+
+        long result = FixedPoint.multiply(a, b);
+
+        Assertions.assertEquals(0, new BigDecimal("27004500000").compareTo(FixedPoint.toBigDecimal(result)));
+    }
+
+    @Test
+    public void financialsShouldMatchBigDecimalRecipeCalculation() {
+
+        Random random = new Random(42);
+
+        for (int i = 0; i < 5_000; i++) {
+            BigDecimal[] items = randomItems(random);
+            Integer amount = random.nextInt(5) == 0 ? null : random.nextInt(25);
+            BigDecimal salePrice = BigDecimal.valueOf(random.nextInt(20_000), 2);
+
+            long totalMicros = 0L;
+            for (BigDecimal item : items) {
+                totalMicros += FixedPoint.toMicros(item);
+            }
+
+            RecipeFinancials financials = CostingEngine.financials(totalMicros, amount,
+                    FixedPoint.toMicros(salePrice), CostingEngine.RECIPE_MARGIN_DIGITS);
+
+            BigDecimal totalCost = sum(items).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal profit = salePrice.subtract(totalCost).setScale(2, RoundingMode.HALF_UP);
+
+            Assertions.assertEquals(totalCost, financials.totalCost());
+            Assertions.assertEquals(profit, financials.profit());
+
+            if (amount != null && amount > 0) {
+                Assertions.assertEquals(totalCost.divide(new BigDecimal(amount), 2, RoundingMode.HALF_UP),
+                        financials.costPerUnit());
+            } else {
+                Assertions.assertNull(financials.costPerUnit());
+            }
+
+            if (salePrice.compareTo(BigDecimal.ZERO) > 0) {
+                BigDecimal margin = profit.divide(salePrice, 2, RoundingMode.HALF_UP)
+                        .multiply(new BigDecimal(100))
+                        .setScale(2, RoundingMode.HALF_UP);
+                Assertions.assertEquals(margin, financials.margin());
+            } else {
+                Assertions.assertNull(financials.margin());
+            }
+        }
+    }
+
+    @Test
+    public void financialsShouldMatchBigDecimalVersionCalculation() {
+
+        Random random = new Random(7);
+
+        for (int i = 0; i < 5_000; i++) {
+            BigDecimal[] items = randomItems(random);
+            BigDecimal salePrice = BigDecimal.valueOf(random.nextInt(20_000) + 1, 2);
+
+            long totalMicros = 0L;
+            for (BigDecimal item : items) {
+                totalMicros += FixedPoint.toMicros(item);
+            }
+
+            RecipeFinancials financials = CostingEngine.financials(totalMicros, 1,
+                    FixedPoint.toMicros(salePrice), CostingEngine.VERSION_MARGIN_DIGITS);
+
+            BigDecimal totalCost = sum(items).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal profit = salePrice.subtract(totalCost).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal margin = profit.divide(salePrice, 4, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal(100))
+                    .setScale(2, RoundingMode.HALF_UP);
+
+            Assertions.assertEquals(margin, financials.margin());
+        }
+    }
+
+    @Test
+    public void itemTotalShouldMatchBigDecimalMultiplication() {
+
+        Random random = new Random(3);
+
+        for (int i = 0; i < 5_000; i++) {
+            BigDecimal unitCost = BigDecimal.valueOf(random.nextInt(1_000_000), 4);
+            BigDecimal quantity = BigDecimal.valueOf(random.nextInt(100_000), 3);
+
+            long total = CostingEngine.itemTotal(FixedPoint.toMicros(unitCost), FixedPoint.toMicros(quantity));
+
+            Assertions.assertEquals(0, unitCost.multiply(quantity).setScale(FixedPoint.SCALE, RoundingMode.HALF_UP)
+                    .compareTo(FixedPoint.toBigDecimal(total)));
+        }
+    }
+
+    private static BigDecimal[] randomItems(Random random) {
+        BigDecimal[] items = new BigDecimal[random.nextInt(40)];
+        for (int j = 0; j < items.length; j++) {
+            items[j] = BigDecimal.valueOf(random.nextInt(500_000), 4);
+        }
+        return items;
+    }
+
+    private static BigDecimal sum(BigDecimal[] items) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal item : items) {
+            total = total.add(item);
+        }
+        return total;
+    }
+}
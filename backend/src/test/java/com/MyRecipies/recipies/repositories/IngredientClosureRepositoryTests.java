@@ -0,0 +1,100 @@
+package com.MyRecipies.recipies.repositories;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.entities.RecipeItem;
+import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.services.IngredientClosureService;
+import com.MyRecipies.recipies.tests.Factory;
+
+@DataJpaTest
+@Import(IngredientClosureService.class)
+public class IngredientClosureRepositoryTests {
+
+    @Autowired
+    private IngredientClosureRepository closureRepository;
+
+    @Autowired
+    private IngredientClosureService closureService;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private User client;
+    private Ingredient flour;
+    private Recipe filling;
+    private Recipe cake;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+
+        client = testEntityManager.persist(Factory.createUser());
+        flour = testEntityManager.persist(Factory.createIngredient(client));
+
+        // recheio: 300 de farinha, rende 3
+        filling = Factory.createRecipe(client);
+        filling.setAmount(3);
+        filling.addItem(item(flour, null, "300"));
+        testEntityManager.persist(filling);
+
+        // bolo: 2 recheios + 100 de farinha, rende 4
+        cake = Factory.createRecipe(client);
+        cake.setAmount(4);
+        cake.addItem(item(null, filling, "2"));
+        cake.addItem(item(flour, null, "100"));
+        testEntityManager.persist(cake);
+        testEntityManager.flush();
+
+        closureService.refresh(filling);
+        testEntityManager.flush();
+    }
+
+    @Test
+    public void sumQuantityAcrossRecipesShouldCountSubRecipesOnlyThroughTopLevelRecipes() {
+
+        // um lote de bolo: 100 + 2 * 100 = 300; o recheio sozinho não conta de novo
+        assertQuantity("300", closureRepository.sumQuantityAcrossRecipes(flour.getId(), client.getId()));
+    }
+
+    @Test
+    public void sumQuantityAcrossRecipesShouldCountSubRecipeWhenParentIsDeleted() {
+
+        cake.setDeleted(true);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        assertQuantity("300", closureRepository.sumQuantityAcrossRecipes(flour.getId(), client.getId()));
+    }
+
+    @Test
+    public void sumQuantityAcrossRecipesShouldReturnZeroWhenIngredientIsUnused() {
+
+        Ingredient sugar = testEntityManager.persist(Factory.createIngredient(client));
+
+        assertQuantity("0", closureRepository.sumQuantityAcrossRecipes(sugar.getId(), client.getId()));
+    }
+
+    private static RecipeItem item(Ingredient ingredient, Recipe subRecipe, String quantity) {
+        RecipeItem item = new RecipeItem();
+        item.setIngredient(ingredient);
+        item.setSubProduct(subRecipe == null ? null : subRecipe.getProduct());
+        item.setQuantity(new BigDecimal(quantity));
+        item.calculateSnapshot();
+        return item;
+    }
+
+    private static void assertQuantity(String expected, BigDecimal actual) {
+        Assertions.assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> "obtido: " + actual);
+    }
+}
@@ -1,11 +1,15 @@
 package com.MyRecipies.recipies.repositories;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -104,4 +108,37 @@ public class IngredientRepositoryTests {
 
         Assertions.assertTrue(ingredientRepository.findById(1000L).isEmpty());
     }
+
+    @Test
+    public void seekByClientIdShouldWalkIngredientsInNameAndIdOrderWithoutRepeating() {
+
+        for (String name : List.of("Açúcar", "Farinha", "Farinha", "Ovo")) {
+            Ingredient ingredient = Factory.createIngredient(clientWithIngredients);
+            ingredient.setName(name);
+            testEntityManager.persist(ingredient);
+        }
+        testEntityManager.flush();
+
+        List<Ingredient> seen = new ArrayList<>();
+        String name = "";
+        Long id = 0L;
+        List<Ingredient> page;
+        do {
+            page = ingredientRepository.seekByClientId(clientWithIngredients.getId(), name, id, Limit.of(2));
+            seen.addAll(page);
+            if (!page.isEmpty()) {
+                name = page.get(page.size() - 1).getName();
+                id = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 2);
+
+        Assertions.assertEquals(6, seen.size());
+        Assertions.assertEquals(6, seen.stream().map(Ingredient::getId).distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            Ingredient previous = seen.get(i - 1);
+            Ingredient current = seen.get(i);
+            int byName = previous.getName().compareTo(current.getName());
+            Assertions.assertTrue(byName < 0 || (byName == 0 && previous.getId() < current.getId()));
+        }
+    }
 }
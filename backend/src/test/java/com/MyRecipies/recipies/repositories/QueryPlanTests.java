@@ -0,0 +1,204 @@
+package com.MyRecipies.recipies.repositories;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.sql.DataSource;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.tests.Factory;
+
+/*
+ * Roda EXPLAIN no SQL gerado de cada busca por FK sobre os índices do
+ * V6__performance_indexes.sql e confere qual índice cada uma usa. Sem FKs no
+ * schema gerado, porque o H2 cria um índice para cada uma e esconderia um
+ * índice que faltasse na migração.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.MyRecipies.recipies.repositories.QueryPlanTests$CapturingInspector",
+        "spring.jpa.properties.hibernate.hbm2ddl.default_constraint_mode=NO_CONSTRAINT" })
+public class QueryPlanTests {
+
+    private static final String INDEX_PACK = "db/migration/V6__performance_indexes.sql";
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private RecipeItemRepository recipeItemRepository;
+
+    @Autowired
+    private RecipeVersionRepository versionRepository;
+
+    @Autowired
+    private IngredientClosureRepository closureRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Long clientId;
+    private Long recipeId;
+    private Long ingredientId;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+
+        applyIndexPack();
+
+        User client = testEntityManager.persist(Factory.createUser());
+        Ingredient ingredient = Factory.createIngredient(client);
+        Recipe recipe = Factory.createRecipeWithIngredients(client, List.of(ingredient));
+        testEntityManager.persist(ingredient);
+        testEntityManager.persist(recipe);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        clientId = client.getId();
+        recipeId = recipe.getId();
+        ingredientId = ingredient.getId();
+    }
+
+    @Test
+    public void recipeLookupsShouldUseIndexes() throws Exception {
+
+        assertIndexed(() -> recipeRepository.findByClientId(clientId, PageRequest.of(0, 10)),
+                "idx_recipes_client_name");
+        assertIndexed(() -> recipeRepository.findWithItemsByClientId(clientId),
+                "idx_recipes_client_name", "idx_recipe_items_recipe");
+        assertIndexed(() -> recipeRepository.findSummariesByClientId(clientId, PageRequest.of(0, 10)),
+                "idx_recipes_client_name", "idx_recipe_items_recipe");
+        assertIndexed(() -> recipeRepository.findIdsByClientId(clientId, PageRequest.of(0, 10)),
+                "idx_recipes_client_name");
+        assertIndexed(() -> recipeRepository.findWithDetailsByIdIn(List.of(recipeId)),
+                "primary_key", "idx_recipe_items_recipe");
+        assertIndexed(() -> recipeRepository.findSummariesByIdIn(List.of(recipeId)),
+                "primary_key", "idx_recipe_items_recipe");
+        assertIndexed(() -> recipeRepository.seekIdsByClientId(clientId, "", 0L, Limit.of(10)),
+                "idx_recipes_client_name");
+        assertIndexed(() -> recipeRepository.seekAllIds("", 0L, Limit.of(10)), "idx_recipes_name");
+        assertIndexed(() -> recipeRepository.countActiveByClientId(clientId), "idx_recipes_client_name");
+        assertIndexed(() -> recipeRepository.findVersionCounters(List.of(recipeId)), "primary_key");
+    }
+
+    @Test
+    public void ingredientAndSupplierLookupsShouldUseIndexes() throws Exception {
+
+        assertIndexed(() -> ingredientRepository.findByClientId(clientId, PageRequest.of(0, 10)),
+                "idx_ingredients_client_name");
+        assertIndexed(() -> ingredientRepository.seekByClientId(clientId, "", 0L, Limit.of(10)),
+                "idx_ingredients_client_name");
+        assertIndexed(() -> ingredientRepository.countByClientId(clientId), "idx_ingredients_client_name");
+        assertIndexed(() -> supplierRepository.findByClientId(clientId), "idx_suppliers_client");
+    }
+
+    @Test
+    public void itemAndVersionLookupsShouldUseIndexes() throws Exception {
+
+        assertIndexed(() -> recipeItemRepository.findRecipesByIngredientId(ingredientId),
+                "idx_recipe_items_ingredient");
+        assertIndexed(() -> recipeItemRepository.findParentRecipesBySubProductId(recipeId),
+                "idx_recipe_items_sub_product");
+        assertIndexed(() -> recipeItemRepository.findParentRecipesBySubProductIds(List.of(recipeId)),
+                "idx_recipe_items_sub_product");
+        // recipe_product_id é a primeira coluna de uk_recipe_version_number
+        assertIndexed(() -> versionRepository.findByRecipeIdOrderByVersionNumberDesc(recipeId),
+                "uk_recipe_version_number");
+        assertIndexed(() -> versionRepository.findByIdAndRecipeId(1L, recipeId), "primary_key");
+        assertIndexed(() -> closureRepository.findByProductId(recipeId),
+                "uk_closure_product_ingredient");
+        assertIndexed(() -> closureRepository.sumQuantityAcrossRecipes(ingredientId, clientId),
+                "idx_closure_ingredient");
+    }
+
+    // nenhuma consulta lê a tabela inteira e os índices esperados aparecem no plano
+    private void assertIndexed(Runnable lookup, String... indexes) throws Exception {
+
+        CapturingInspector.statements.clear();
+        lookup.run();
+        List<String> statements = new ArrayList<>(CapturingInspector.statements);
+        Assertions.assertFalse(statements.isEmpty());
+
+        StringBuilder plans = new StringBuilder();
+        for (String sql : statements) {
+            String plan = explain(sql).toLowerCase(Locale.ROOT);
+            Assertions.assertFalse(plan.contains("tablescan"), () -> "Leitura sequencial em:\n" + plan);
+            plans.append(plan).append('\n');
+        }
+        for (String index : indexes) {
+            Assertions.assertTrue(plans.toString().contains(index), () -> "Sem o índice " + index + " em:\n" + plans);
+        }
+    }
+
+    // o H2 não tem CREATE INDEX CONCURRENTLY nem índice parcial; o resto do script roda como está
+    private void applyIndexPack() throws Exception {
+
+        String script = new ClassPathResource(INDEX_PACK).getContentAsString(StandardCharsets.UTF_8)
+                .replace(" CONCURRENTLY", "")
+                .replaceAll("\\s+WHERE [^;]+;", ";");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    // parâmetros valem zero: o H2 converte para o tipo da coluna e o plano não depende do valor
+    private String explain(String sql) throws Exception {
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setString(i, "0");
+            }
+
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1));
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        private static final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.MyRecipies.recipies.repositories;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.entities.RecipeItem;
+import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.tests.Factory;
+
+@DataJpaTest
+public class RecipeItemRepositoryTests {
+
+    @Autowired
+    private RecipeItemRepository repository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private Recipe filling;
+    private Recipe cake;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+
+        User client = testEntityManager.persist(Factory.createUser());
+        Ingredient flour = testEntityManager.persist(Factory.createIngredient(client));
+
+        filling = Factory.createRecipe(client);
+        filling.addItem(item(flour, null));
+        testEntityManager.persist(filling);
+
+        cake = Factory.createRecipe(client);
+        cake.addItem(item(null, filling));
+        testEntityManager.persist(cake);
+        testEntityManager.flush();
+    }
+
+    @Test
+    public void existsActiveParentBySubProductIdShouldReturnTrueWhenActiveRecipeUsesSubRecipe() {
+
+        Assertions.assertTrue(repository.existsActiveParentBySubProductId(filling.getId()));
+        Assertions.assertFalse(repository.existsActiveParentBySubProductId(cake.getId()));
+    }
+
+    @Test
+    public void existsActiveParentBySubProductIdShouldIgnoreDeletedParents() {
+
+        cake.setDeleted(true);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        Assertions.assertFalse(repository.existsActiveParentBySubProductId(filling.getId()));
+    }
+
+    private static RecipeItem item(Ingredient ingredient, Recipe subRecipe) {
+        RecipeItem item = new RecipeItem();
+        item.setIngredient(ingredient);
+        item.setSubProduct(subRecipe == null ? null : subRecipe.getProduct());
+        item.setQuantity(BigDecimal.ONE);
+        item.calculateSnapshot();
+        return item;
+    }
+}
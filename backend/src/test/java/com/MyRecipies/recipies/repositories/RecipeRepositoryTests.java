@@ -1,23 +1,37 @@
 package com.MyRecipies.recipies.repositories;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import jakarta.persistence.EntityManagerFactory;
+
+import com.MyRecipies.recipies.costing.CostingEngine;
+import com.MyRecipies.recipies.dto.RecipeDTO;
+import com.MyRecipies.recipies.dto.RecipeSummaryDTO;
 import com.MyRecipies.recipies.entities.Ingredient;
 import com.MyRecipies.recipies.entities.Recipe;
 import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.projections.VersionCounterProjection;
 import com.MyRecipies.recipies.tests.Factory;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class RecipeRepositoryTests {
 
     @Autowired
@@ -26,6 +40,9 @@ public class RecipeRepositoryTests {
     @Autowired
     private TestEntityManager testEntityManager;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private Pageable pageable;
     private User clientWithRecipes;
     private User clientWithoutRecipes;
@@ -100,4 +117,170 @@ public class RecipeRepositoryTests {
             );
         });
     }
+
+    @Test
+    public void findByClientIdShouldSortByStoredTotalCost() {
+
+        recipeWithoutItems.applyFinancials(CostingEngine.financials(5_000_000L, 1, 0L, CostingEngine.RECIPE_MARGIN_DIGITS));
+        recipeWithItems.applyFinancials(CostingEngine.financials(20_000_000L, 1, 0L, CostingEngine.RECIPE_MARGIN_DIGITS));
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        Page<Recipe> page = recipeRepository.findByClientId(clientWithRecipes.getId(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "totalCost")));
+
+        Assertions.assertEquals(recipeWithItems.getId(), page.getContent().get(0).getId());
+        Assertions.assertEquals(0, new BigDecimal("20.00").compareTo(page.getContent().get(0).getTotalCost()));
+    }
+
+    @Test
+    public void findSummariesByClientIdShouldReadStoredFinancialsAndCountItems() {
+
+        recipeWithoutItems.applyFinancials(recipeWithoutItems.calculateFinancials());
+        recipeWithItems.applyFinancials(recipeWithItems.calculateFinancials());
+        testEntityManager.flush();
+
+        Page<RecipeSummaryDTO> page = recipeRepository.findSummariesByClientId(clientWithRecipes.getId(), pageable);
+
+        Assertions.assertEquals(2, page.getTotalElements());
+
+        RecipeSummaryDTO withItems = page.getContent().stream()
+                .filter(summary -> summary.getId().equals(recipeWithItems.getId()))
+                .findFirst()
+                .orElseThrow();
+
+        Assertions.assertEquals(2, withItems.getItemCount());
+        Assertions.assertEquals(0, new BigDecimal("20.00").compareTo(withItems.getTotalCost()));
+        Assertions.assertEquals(0, new BigDecimal("2.00").compareTo(withItems.getCostPerUnit()));
+        Assertions.assertEquals(0, new BigDecimal("10.00").compareTo(withItems.getProfit()));
+        Assertions.assertEquals(0, new BigDecimal("33.00").compareTo(withItems.getMargin()));
+
+        RecipeSummaryDTO withoutItems = page.getContent().stream()
+                .filter(summary -> summary.getId().equals(recipeWithoutItems.getId()))
+                .findFirst()
+                .orElseThrow();
+
+        Assertions.assertEquals(0, withoutItems.getItemCount());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(withoutItems.getTotalCost()));
+    }
+
+    @Test
+    public void findByIdShouldReturnEmptyWhenRecipeIsDeleted() {
+
+        recipeWithoutItems.setDeleted(true);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        Assertions.assertTrue(recipeRepository.findById(recipeWithoutItems.getId()).isEmpty());
+        Assertions.assertTrue(recipeRepository.findById(recipeWithItems.getId()).isPresent());
+    }
+
+    @Test
+    public void findSummariesByClientIdShouldSortByProductPrice() {
+
+        recipeWithoutItems.getProduct().setPrice(new BigDecimal("1.00"));
+        recipeWithItems.getProduct().setPrice(new BigDecimal("9.00"));
+        testEntityManager.flush();
+
+        Page<RecipeSummaryDTO> page = recipeRepository.findSummariesByClientId(clientWithRecipes.getId(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "product.price")));
+
+        Assertions.assertEquals(recipeWithItems.getId(), page.getContent().get(0).getId());
+        Assertions.assertEquals(recipeWithoutItems.getId(), page.getContent().get(1).getId());
+    }
+
+    @Test
+    public void findAllSummariesShouldSkipDeletedRecipes() {
+
+        recipeWithoutItems.setDeleted(true);
+        testEntityManager.flush();
+
+        Page<RecipeSummaryDTO> page = recipeRepository.findAllSummaries(pageable);
+
+        Assertions.assertTrue(page.getContent().stream()
+                .noneMatch(summary -> summary.getId().equals(recipeWithoutItems.getId())));
+        Assertions.assertTrue(page.getContent().stream()
+                .anyMatch(summary -> summary.getId().equals(recipeWithItems.getId())));
+    }
+
+    @Test
+    public void findWithDetailsByIdInShouldLoadPageWithFixedNumberOfQueries() {
+
+        for (int i = 0; i < 5; i++) {
+            Ingredient ingredient = testEntityManager.persist(Factory.createIngredient(clientWithRecipes));
+            testEntityManager.persist(Factory.createRecipeWithIngredients(clientWithRecipes, List.of(ingredient)));
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<Long> ids = recipeRepository.findIdsByClientId(clientWithRecipes.getId(), pageable);
+        List<RecipeDTO> dtos = recipeRepository.findWithDetailsByIdIn(ids.getContent())
+                .stream().map(RecipeDTO::new).toList();
+
+        Assertions.assertEquals(7, dtos.size());
+        Assertions.assertEquals(7, dtos.stream().mapToInt(dto -> dto.getItems().size()).sum());
+
+        // página de IDs + receitas com produto, cliente e itens
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "consultas: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void seekIdsByClientIdShouldReturnRecipesAfterCursorPosition() {
+
+        // o RecipeService renomeia o produto e a cópia em recipes juntos
+        recipeWithoutItems.getProduct().setName("Bolo");
+        recipeWithoutItems.setProductName("Bolo");
+        recipeWithItems.getProduct().setName("Torta");
+        recipeWithItems.setProductName("Torta");
+        testEntityManager.flush();
+
+        List<Long> first = recipeRepository.seekIdsByClientId(clientWithRecipes.getId(), "", 0L, Limit.of(1));
+        List<Long> second = recipeRepository.seekIdsByClientId(clientWithRecipes.getId(), "Bolo", first.get(0), Limit.of(1));
+        List<Long> third = recipeRepository.seekIdsByClientId(clientWithRecipes.getId(), "Torta", second.get(0), Limit.of(1));
+
+        Assertions.assertEquals(List.of(recipeWithoutItems.getId()), first);
+        Assertions.assertEquals(List.of(recipeWithItems.getId()), second);
+        Assertions.assertTrue(third.isEmpty());
+        Assertions.assertEquals(2L, recipeRepository.countActiveByClientId(clientWithRecipes.getId()));
+    }
+
+    @Test
+    public void saveShouldBatchItemInsertsWhenRecipeHasManyItems() {
+
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ingredients.add(testEntityManager.persist(Factory.createIngredient(clientWithRecipes)));
+        }
+        testEntityManager.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        recipeRepository.save(Factory.createRecipeWithIngredients(clientWithRecipes, ingredients));
+        testEntityManager.flush();
+
+        // produto, receita e 50 itens: sequences em blocos de 50 e um lote de INSERT por tabela
+        Assertions.assertEquals(52, statistics.getEntityInsertCount());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 6,
+                "consultas: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void incrementVersionCountersShouldAllocateNextNumberForEachRecipe() {
+
+        List<Long> ids = List.of(recipeWithItems.getId(), recipeWithoutItems.getId());
+
+        recipeRepository.incrementVersionCounters(ids);
+        recipeRepository.incrementVersionCounters(List.of(recipeWithItems.getId()));
+
+        Map<Long, Integer> counters = recipeRepository.findVersionCounters(ids).stream()
+                .collect(Collectors.toMap(VersionCounterProjection::getId, VersionCounterProjection::getVersionCounter));
+
+        Assertions.assertEquals(2, counters.get(recipeWithItems.getId()));
+        Assertions.assertEquals(1, counters.get(recipeWithoutItems.getId()));
+    }
 }
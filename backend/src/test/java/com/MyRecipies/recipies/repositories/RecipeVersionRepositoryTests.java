@@ -2,6 +2,7 @@ package com.MyRecipies.recipies.repositories;
 
 import java.util.List;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -69,6 +70,17 @@ public class RecipeVersionRepositoryTests {
         Assertions.assertTrue(list.isEmpty());
     }
 
+    @Test
+    public void findByRecipeIdOrderByVersionNumberDescShouldReturnEmptyListWhenRecipeIsDeleted() {
+
+        recipe.setDeleted(true);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        Assertions.assertTrue(versionRepository.findByRecipeIdOrderByVersionNumberDesc(recipe.getId()).isEmpty());
+        Assertions.assertTrue(versionRepository.findByIdAndRecipeId(version2.getId(), recipe.getId()).isEmpty());
+    }
+
     @Test
     public void findByIdAndRecipeIdShouldReturnVersionWhenExists() {
 
@@ -115,4 +127,11 @@ public class RecipeVersionRepositoryTests {
         Assertions.assertTrue(versionRepository.findById(versionWithItems.getId()).isEmpty());
     }
 
+    @Test
+    public void saveShouldThrowWhenVersionNumberRepeatsForSameRecipe() {
+
+        testEntityManager.persist(Factory.createRecipeVersion(recipe, 2));
+
+        Assertions.assertThrows(ConstraintViolationException.class, () -> testEntityManager.flush());
+    }
 }
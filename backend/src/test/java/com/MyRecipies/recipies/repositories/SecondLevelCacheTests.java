@@ -0,0 +1,70 @@
+package com.MyRecipies.recipies.repositories;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.entities.Role;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class SecondLevelCacheTests {
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // itens READ_WRITE só ficam visíveis para sessões abertas depois da gravação,
+    // então cada busca roda na própria transação
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void findByIdShouldNotLoadIngredientFromDatabaseWhenCached() {
+
+        ingredientRepository.findById(1L).orElseThrow();
+
+        statistics.clear();
+        Ingredient cached = ingredientRepository.findById(1L).orElseThrow();
+
+        Assertions.assertEquals(1L, cached.getId());
+        Assertions.assertEquals(1, statistics.getDomainDataRegionStatistics("ingredients").getHitCount());
+        Assertions.assertEquals(0, statistics.getEntityStatistics(Ingredient.class.getName()).getLoadCount());
+    }
+
+    @Test
+    public void findByAuthorityShouldServeRepeatedLookupsFromQueryCache() {
+
+        roleRepository.findByAuthority("ROLE_CLIENT");
+        testEntityManager.clear();
+
+        statistics.clear();
+        Role role = roleRepository.findByAuthority("ROLE_CLIENT");
+
+        Assertions.assertEquals("ROLE_CLIENT", role.getAuthority());
+        Assertions.assertEquals(1, statistics.getQueryCacheHitCount());
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
@@ -1,5 +1,8 @@
 package com.MyRecipies.recipies.services;
 
+import java.util.List;
+import java.util.Set;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,8 +12,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import com.MyRecipies.recipies.entities.Role;
-import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.config.AuthenticatedUser;
 import com.MyRecipies.recipies.services.exceptions.ForbiddenException;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,57 +24,65 @@ public class AuthServiceTests {
     @Mock
     private UserService userService;
 
-    private User user;
+    private AuthenticatedUser user;
     private Long userId;
 
     @BeforeEach
     void setUp() {
         userId = 10L;
 
-        user = new User();
-        user.setId(userId);
+        user = new AuthenticatedUser(userId, "user@email.com", Set.of("ROLE_CLIENT"));
     }
 
     @Test
     public void validateSelfOrAdminShouldDoNothingWhenUserIsOwner() {
 
-        Mockito.when(userService.authenticated()).thenReturn(user);
+        Mockito.when(userService.principal()).thenReturn(user);
 
         Assertions.assertDoesNotThrow(() -> {
             authService.validateSelfOrAdmin(userId);
         });
 
-        Mockito.verify(userService).authenticated();
+        Mockito.verify(userService).principal();
     }
 
     @Test
     public void validateSelfOrAdminShouldDoNothingWhenUserIsAdmin() {
 
-        User admin = new User();
-        admin.setId(99L);
-        admin.addRole(new Role(1L, "ROLE_ADMIN"));
+        AuthenticatedUser admin = new AuthenticatedUser(99L, "admin@email.com", Set.of("ROLE_ADMIN"));
 
-        Mockito.when(userService.authenticated()).thenReturn(admin);
+        Mockito.when(userService.principal()).thenReturn(admin);
 
         Assertions.assertDoesNotThrow(() -> {
             authService.validateSelfOrAdmin(userId);
         });
 
-        Mockito.verify(userService).authenticated();
+        Mockito.verify(userService).principal();
     }
 
     @Test
     public void validateSelfOrAdminShouldThrowForbiddenExceptionWhenUserIsNotOwnerNorAdmin() {
 
-        User otherUser = new User();
-        otherUser.setId(99L);
+        AuthenticatedUser otherUser = new AuthenticatedUser(99L, "other@email.com", Set.of("ROLE_CLIENT"));
 
-        Mockito.when(userService.authenticated()).thenReturn(otherUser);
+        Mockito.when(userService.principal()).thenReturn(otherUser);
 
         Assertions.assertThrows(ForbiddenException.class, () -> {
             authService.validateSelfOrAdmin(userId);
         });
 
-        Mockito.verify(userService).authenticated();
+        Mockito.verify(userService).principal();
+    }
+
+    @Test
+    public void validateSelfOrAdminShouldThrowForbiddenExceptionWhenAnyOwnerIsNotUser() {
+
+        Mockito.when(userService.principal()).thenReturn(user);
+
+        Assertions.assertThrows(ForbiddenException.class, () -> {
+            authService.validateSelfOrAdmin(List.of(userId, 99L));
+        });
+
+        Mockito.verify(userService).principal();
     }
 }
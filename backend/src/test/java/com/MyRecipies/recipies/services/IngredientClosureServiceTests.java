@@ -0,0 +1,160 @@
+package com.MyRecipies.recipies.services;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.entities.IngredientClosure;
+import com.MyRecipies.recipies.entities.Product;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.entities.RecipeItem;
+import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.repositories.IngredientClosureRepository;
+import com.MyRecipies.recipies.repositories.IngredientRepository;
+import com.MyRecipies.recipies.repositories.RecipeItemRepository;
+import com.MyRecipies.recipies.tests.Factory;
+
+@ExtendWith(MockitoExtension.class)
+public class IngredientClosureServiceTests {
+
+    @InjectMocks
+    private IngredientClosureService closureService;
+
+    @Mock
+    private IngredientClosureRepository closureRepository;
+
+    @Mock
+    private RecipeItemRepository recipeItemRepository;
+
+    @Mock
+    private IngredientRepository ingredientRepository;
+
+    private User client;
+    private Ingredient flour;
+    private Ingredient sugar;
+    private Recipe filling;
+    private Recipe cake;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+
+        client = Factory.createUser();
+
+        flour = Factory.createIngredient(client);
+        flour.setId(10L);
+        sugar = Factory.createIngredient(client);
+        sugar.setId(11L);
+
+        // recheio: 300 de farinha + 60 de açúcar, rende 3
+        filling = recipe(2L, 3);
+        addIngredient(filling, flour, "300");
+        addIngredient(filling, sugar, "60");
+
+        // bolo: 2 recheios + 100 de farinha, rende 4
+        cake = recipe(1L, 4);
+        addSubProduct(cake, filling.getProduct(), "2");
+        addIngredient(cake, flour, "100");
+
+        Mockito.when(ingredientRepository.getReferenceById(anyLong())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            return id.equals(flour.getId()) ? flour : sugar;
+        });
+    }
+
+    @Test
+    public void refreshShouldFlattenSubProductsUsingStoredClosureWhenSubProductIsNotAffected() {
+
+        Mockito.when(recipeItemRepository.findParentRecipesBySubProductId(1L)).thenReturn(List.of());
+        Mockito.when(closureRepository.findByProductId(2L)).thenReturn(List.of(
+                new IngredientClosure(filling.getProduct(), flour, new BigDecimal("100")),
+                new IngredientClosure(filling.getProduct(), sugar, new BigDecimal("20"))));
+
+        closureService.refresh(cake);
+
+        Map<Long, Map<Long, BigDecimal>> saved = captureSaved(1);
+
+        // farinha: (100 + 2 * 100) / 4 = 75; açúcar: 2 * 20 / 4 = 10
+        assertQuantity("75", saved.get(1L).get(flour.getId()));
+        assertQuantity("10", saved.get(1L).get(sugar.getId()));
+
+        Mockito.verify(closureRepository).deleteByProductId(1L);
+        Mockito.verify(closureRepository, Mockito.never()).deleteByProductId(2L);
+    }
+
+    @Test
+    public void refreshShouldRecomputeAncestorsWhenSubProductRecipeChanges() {
+
+        Mockito.when(recipeItemRepository.findParentRecipesBySubProductId(2L)).thenReturn(List.of(cake));
+        Mockito.when(recipeItemRepository.findParentRecipesBySubProductId(1L)).thenReturn(List.of());
+
+        closureService.refresh(filling);
+
+        Map<Long, Map<Long, BigDecimal>> saved = captureSaved(2);
+
+        assertQuantity("100", saved.get(2L).get(flour.getId()));
+        assertQuantity("20", saved.get(2L).get(sugar.getId()));
+        assertQuantity("75", saved.get(1L).get(flour.getId()));
+        assertQuantity("10", saved.get(1L).get(sugar.getId()));
+
+        Mockito.verify(closureRepository).deleteByProductId(2L);
+        Mockito.verify(closureRepository).deleteByProductId(1L);
+        Mockito.verify(closureRepository, Mockito.never()).findByProductId(anyLong());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Map<Long, BigDecimal>> captureSaved(int times) {
+
+        ArgumentCaptor<List<IngredientClosure>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(closureRepository, Mockito.times(times)).saveAll(captor.capture());
+
+        Map<Long, Map<Long, BigDecimal>> saved = new HashMap<>();
+        for (List<IngredientClosure> rows : captor.getAllValues()) {
+            for (IngredientClosure row : rows) {
+                saved.computeIfAbsent(row.getProduct().getId(), x -> new HashMap<>())
+                        .put(row.getIngredient().getId(), row.getQuantity());
+            }
+        }
+        return saved;
+    }
+
+    private static void assertQuantity(String expected, BigDecimal actual) {
+        Assertions.assertEquals(0, new BigDecimal(expected).compareTo(actual));
+    }
+
+    private Recipe recipe(Long productId, int amount) {
+        Recipe recipe = Factory.createRecipe(client);
+        recipe.getProduct().setId(productId);
+        recipe.setAmount(amount);
+        recipe.setItems(new ArrayList<>());
+        return recipe;
+    }
+
+    private static void addIngredient(Recipe recipe, Ingredient ingredient, String quantity) {
+        RecipeItem item = new RecipeItem();
+        item.setIngredient(ingredient);
+        item.setQuantity(new BigDecimal(quantity));
+        recipe.addItem(item);
+    }
+
+    private static void addSubProduct(Recipe recipe, Product subProduct, String quantity) {
+        RecipeItem item = new RecipeItem();
+        item.setSubProduct(subProduct);
+        item.setQuantity(new BigDecimal(quantity));
+        recipe.addItem(item);
+    }
+}
@@ -3,7 +3,9 @@ package com.MyRecipies.recipies.services;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 
+import java.math.BigDecimal;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,9 +21,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import com.MyRecipies.recipies.config.AuthenticatedUser;
 import com.MyRecipies.recipies.dto.IngredientDTO;
+import com.MyRecipies.recipies.dto.IngredientUsageDTO;
 import com.MyRecipies.recipies.entities.Ingredient;
 import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.repositories.IngredientClosureRepository;
 import com.MyRecipies.recipies.repositories.IngredientRepository;
 import com.MyRecipies.recipies.services.exceptions.DatabaseException;
 import com.MyRecipies.recipies.services.exceptions.ResourceNotFoundException;
@@ -44,6 +49,12 @@ public class IngredientServiceTests {
     @Mock
     private UserService userService;
 
+    @Mock
+    private IngredientClosureRepository closureRepository;
+
+    @Mock
+    private RecipeService recipeService;
+
     private Long existingId;
     private Long nonExistingId;
     private Long dependentId;
@@ -84,14 +95,14 @@ public class IngredientServiceTests {
     @Test
     public void findByClientIdShouldReturnPagedIngredientsWhenClientIdExists() {
 
-        Mockito.when(userService.authenticated()).thenReturn(user);
+        Mockito.when(userService.principal()).thenReturn(principal(user));
         Mockito.when(ingredientRepository.findByClientId(clientId, pageable)).thenReturn(Page.empty());
 
         Page<IngredientDTO> page = ingredientService.findByClientId(pageable);
 
         Assertions.assertTrue(page.isEmpty());
 
-        Mockito.verify(userService).authenticated();
+        Mockito.verify(userService).principal();
         Mockito.verify(ingredientRepository).findByClientId(clientId, pageable);
     }
 
@@ -110,6 +121,20 @@ public class IngredientServiceTests {
         Mockito.verify(authService).validateSelfOrAdmin(clientId);
     }
 
+    @Test
+    public void findUsageShouldReturnTotalQuantityAcrossClientRecipesWhenIdExists() {
+
+        Mockito.when(ingredientRepository.findById(existingId)).thenReturn(Optional.of(ingredient));
+        Mockito.when(closureRepository.sumQuantityAcrossRecipes(existingId, clientId)).thenReturn(new BigDecimal("750.000000"));
+
+        IngredientUsageDTO dto = ingredientService.findUsage(existingId);
+
+        Assertions.assertEquals(existingId, dto.getIngredientId());
+        Assertions.assertEquals(0, new BigDecimal("750").compareTo(dto.getTotalQuantity()));
+
+        Mockito.verify(authService).validateSelfOrAdmin(clientId);
+    }
+
     @Test
     public void findByIdShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
 
@@ -142,7 +167,7 @@ public class IngredientServiceTests {
     @Test
     public void insertShouldSaveIngredientAndReturnDTO() {
 
-        Mockito.when(userService.authenticated()).thenReturn(user);
+        Mockito.when(userService.authenticatedReference()).thenReturn(user);
 
         ArgumentCaptor<Ingredient> captor = ArgumentCaptor.forClass(Ingredient.class);
         Mockito.when(ingredientRepository.save(captor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
@@ -154,7 +179,7 @@ public class IngredientServiceTests {
         Assertions.assertNotNull(savedIngredient);
         Assertions.assertEquals(clientId, savedIngredient.getClient().getId());
 
-        Mockito.verify(userService).authenticated();
+        Mockito.verify(userService).authenticatedReference();
         Mockito.verify(ingredientRepository).save(any());
     }
 
@@ -179,6 +204,34 @@ public class IngredientServiceTests {
         Mockito.verify(ingredientRepository).save(any());
     }
 
+    @Test
+    public void updateShouldPropagateToRecipesWhenPriceCostChanges() {
+
+        ingredient.setPriceCost(new BigDecimal("5.00"));
+        ingredient.setQuantityPerUnit(ingredientDTO.getQuantityPerUnit());
+
+        Mockito.when(ingredientRepository.getReferenceById(existingId)).thenReturn(ingredient);
+        Mockito.when(ingredientRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ingredientService.update(ingredientDTO, existingId);
+
+        Mockito.verify(recipeService).propagateIngredientChange(existingId);
+    }
+
+    @Test
+    public void updateShouldNotPropagateWhenCostFieldsAreUnchanged() {
+
+        ingredient.setPriceCost(ingredientDTO.getPriceCost().setScale(2));
+        ingredient.setQuantityPerUnit(ingredientDTO.getQuantityPerUnit());
+
+        Mockito.when(ingredientRepository.getReferenceById(existingId)).thenReturn(ingredient);
+        Mockito.when(ingredientRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ingredientService.update(ingredientDTO, existingId);
+
+        Mockito.verifyNoInteractions(recipeService);
+    }
+
     @Test
     public void updateShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
 
@@ -272,4 +325,8 @@ public class IngredientServiceTests {
         Mockito.verify(authService).validateSelfOrAdmin(ingredient.getClient().getId());
         Mockito.verify(ingredientRepository, never()).deleteById(existingId);
     }
+
+    private AuthenticatedUser principal(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), Set.of("ROLE_CLIENT"));
+    }
 }
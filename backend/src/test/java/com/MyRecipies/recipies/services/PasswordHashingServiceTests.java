@@ -0,0 +1,116 @@
+package com.MyRecipies.recipies.services;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.MyRecipies.recipies.dto.PasswordHashingStatsDTO;
+import com.MyRecipies.recipies.services.exceptions.PasswordHashingBusyException;
+
+public class PasswordHashingServiceTests {
+
+    private PasswordHashingService service;
+
+    @AfterEach
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void encodeAndMatchesShouldRunOnHashingPool() {
+
+        service = new PasswordHashingService(new BCryptPasswordEncoder(4), 2, 4, 5000);
+
+        String hash = service.encode("123456");
+
+        Assertions.assertTrue(service.matches("123456", hash));
+        Assertions.assertFalse(service.matches("654321", hash));
+
+        PasswordHashingStatsDTO stats = service.stats();
+        Assertions.assertEquals(2, stats.getThreads());
+        Assertions.assertEquals(4, stats.getQueueCapacity());
+        Assertions.assertEquals(3, stats.getCompleted());
+        Assertions.assertEquals(0, stats.getRejected());
+    }
+
+    @Test
+    public void matchesShouldThrowBusyWhenQueueIsFull() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        service = new PasswordHashingService(blockingEncoder(started, release), 1, 1, 5000);
+
+        // um hash ocupa a única thread e outro fica na fila
+        CompletableFuture<String> running = service.encodeInBackground("a");
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = service.encodeInBackground("b");
+
+        Assertions.assertThrows(PasswordHashingBusyException.class, () -> service.matches("c", "hash"));
+        Assertions.assertTrue(service.encodeInBackground("d").isCompletedExceptionally());
+
+        PasswordHashingStatsDTO stats = service.stats();
+        Assertions.assertEquals(1, stats.getQueueDepth());
+        Assertions.assertEquals(2, stats.getRejected());
+
+        release.countDown();
+        Assertions.assertEquals("a", running.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void matchesShouldThrowBusyAndCancelWhenResultTakesTooLong() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        service = new PasswordHashingService(blockingEncoder(started, release), 1, 1, 100);
+
+        CompletableFuture<String> running = service.encodeInBackground("a");
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // fica na fila atrás do hash bloqueado até estourar o tempo
+        Assertions.assertThrows(PasswordHashingBusyException.class, () -> service.matches("c", "c"));
+        Assertions.assertEquals(1, service.stats().getTimedOut());
+
+        release.countDown();
+        Assertions.assertEquals("a", running.get(5, TimeUnit.SECONDS));
+        // thread única: quando "e" termina, a tarefa cancelada já passou pela fila sem rodar
+        Assertions.assertEquals("e", service.encodeInBackground("e").get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, service.stats().getCompleted());
+    }
+
+    @Test
+    public void upgradeEncodingShouldDetectLowerCost() {
+
+        service = new PasswordHashingService(new BCryptPasswordEncoder(10), 1, 1, 5000);
+
+        Assertions.assertTrue(service.upgradeEncoding(new BCryptPasswordEncoder(4).encode("123456")));
+        Assertions.assertFalse(service.upgradeEncoding(new BCryptPasswordEncoder(10).encode("123456")));
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.MyRecipies.recipies.services;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.entities.RecipeVersion;
+import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.tests.Factory;
+
+@DataJpaTest(properties = "recipes.archive.batch-size=1")
+@Import(RecipeArchiveService.class)
+public class RecipeArchiveServiceTests {
+
+    @Autowired
+    private RecipeArchiveService archiveService;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private Recipe expired1;
+    private Recipe expired2;
+    private Recipe recentlyDeleted;
+    private Recipe active;
+    private LocalDateTime cutoff;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        createArchiveTables();
+
+        User client = testEntityManager.persist(Factory.createUser());
+        Ingredient ingredient = testEntityManager.persist(Factory.createIngredient(client));
+        cutoff = LocalDateTime.now().minusDays(30);
+
+        expired1 = deletedRecipe(client, ingredient, cutoff.minusDays(10));
+        expired2 = deletedRecipe(client, ingredient, cutoff.minusDays(1));
+        recentlyDeleted = deletedRecipe(client, ingredient, cutoff.plusDays(1));
+        active = testEntityManager.persist(Factory.createRecipeWithIngredients(client, List.of(ingredient)));
+
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    public void archiveDeletedBeforeShouldMoveExpiredRecipesWithChildrenToArchive() {
+
+        int archived = archiveService.archiveDeletedBefore(cutoff);
+
+        Assertions.assertEquals(2, archived);
+        for (Recipe recipe : List.of(expired1, expired2)) {
+            Long id = recipe.getId();
+            Assertions.assertEquals(0, count("recipes WHERE product_id = ?", id));
+            Assertions.assertEquals(0, count("recipe_items WHERE recipe_id = ?", id));
+            Assertions.assertEquals(0, count("recipe_version WHERE recipe_product_id = ?", id));
+
+            Assertions.assertEquals(1, count("recipes_archive WHERE product_id = ? AND archived_at IS NOT NULL", id));
+            Assertions.assertEquals(1, count("recipe_items_archive WHERE recipe_id = ?", id));
+            Assertions.assertEquals(1, count("recipe_version_archive WHERE recipe_product_id = ?", id));
+            Assertions.assertEquals(1, count("recipe_item_versions_archive a JOIN recipe_version_archive v "
+                    + "ON v.id = a.version_id WHERE v.recipe_product_id = ?", id));
+        }
+    }
+
+    @Test
+    public void archiveDeletedBeforeShouldKeepProductNameOfArchivedRecipes() {
+
+        archiveService.archiveDeletedBefore(cutoff);
+
+        String productName = jdbcTemplate.queryForObject(
+                "SELECT product_name FROM recipes_archive WHERE product_id = ?", String.class, expired1.getId());
+        Assertions.assertNotNull(productName);
+        Assertions.assertEquals(expired1.getProductName(), productName);
+    }
+
+    @Test
+    public void archiveDeletedBeforeShouldKeepRecentlyDeletedAndActiveRecipes() {
+
+        archiveService.archiveDeletedBefore(cutoff);
+
+        for (Recipe recipe : List.of(recentlyDeleted, active)) {
+            Long id = recipe.getId();
+            Assertions.assertEquals(1, count("recipes WHERE product_id = ?", id));
+            Assertions.assertEquals(1, count("recipe_items WHERE recipe_id = ?", id));
+            Assertions.assertEquals(0, count("recipes_archive WHERE product_id = ?", id));
+        }
+    }
+
+    @Test
+    public void archiveDeletedBeforeShouldReturnZeroWhenNothingExpired() {
+
+        Assertions.assertEquals(0, archiveService.archiveDeletedBefore(cutoff.minusYears(1)));
+    }
+
+    private Recipe deletedRecipe(User client, Ingredient ingredient, LocalDateTime deletedAt) {
+
+        Recipe recipe = Factory.createRecipeWithIngredients(client, List.of(ingredient));
+        recipe.setDeleted(true);
+        recipe.setDeletedAt(deletedAt);
+        testEntityManager.persist(recipe);
+
+        RecipeVersion version = Factory.createRecipeVersion(recipe, 1);
+        version.getItems().add(Factory.createRecipeItemVersion(version));
+        testEntityManager.persist(version);
+        return recipe;
+    }
+
+    private long count(String from, Long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + from, Long.class, id);
+    }
+
+    // as tabelas de arquivo vêm das migrações V7 e V10, desligadas no perfil de testes;
+    // conexão própria para o DDL não confirmar a transação do teste
+    private void createArchiveTables() throws Exception {
+
+        // os scripts podem rodar de novo sobre tabelas que já existem
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V7__recipe_archive.sql"));
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("db/migration/V10__recipe_archive_product_name.sql"));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.MyRecipies.recipies.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.MyRecipies.recipies.costing.RecipeFinancials;
+import com.MyRecipies.recipies.entities.Ingredient;
+import com.MyRecipies.recipies.entities.Recipe;
+import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.tests.Factory;
+
+@DataJpaTest(properties = "recipes.backfill.batch-size=1")
+@Import(RecipeBackfillService.class)
+public class RecipeBackfillServiceTests {
+
+    @Autowired
+    private RecipeBackfillService backfillService;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private Recipe first;
+    private Recipe second;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+
+        User client = testEntityManager.persist(Factory.createUser());
+        Ingredient ingredient = testEntityManager.persist(Factory.createIngredient(client));
+
+        // gravadas como antes das colunas de resumo
+        first = testEntityManager.persist(Factory.createRecipeWithIngredients(client, List.of(ingredient)));
+        second = testEntityManager.persist(Factory.createRecipeWithIngredients(client, List.of(ingredient)));
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    public void backfillFinancialsShouldFillRecipesWithoutSummaryKeepingLastUpdateDate() {
+
+        LocalDateTime lastUpdate = testEntityManager.find(Recipe.class, first.getId()).getLastUpdateDate();
+        testEntityManager.clear();
+
+        Assertions.assertEquals(2, backfillService.backfillFinancials());
+        testEntityManager.clear();
+
+        for (Recipe recipe : List.of(first, second)) {
+            Recipe stored = testEntityManager.find(Recipe.class, recipe.getId());
+            RecipeFinancials expected = stored.calculateFinancials();
+
+            Assertions.assertEquals(0, expected.totalCost().compareTo(stored.getTotalCost()));
+            Assertions.assertEquals(0, expected.costPerUnit().compareTo(stored.getCostPerUnit()));
+            Assertions.assertEquals(0, expected.profit().compareTo(stored.getProfit()));
+            Assertions.assertEquals(0, expected.margin().compareTo(stored.getMargin()));
+        }
+        Assertions.assertEquals(lastUpdate, testEntityManager.find(Recipe.class, first.getId()).getLastUpdateDate());
+
+        Assertions.assertEquals(0, backfillService.backfillFinancials());
+    }
+}
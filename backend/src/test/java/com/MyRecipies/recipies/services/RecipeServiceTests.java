@@ -2,10 +2,15 @@ package com.MyRecipies.recipies.services;
 
 import static org.mockito.ArgumentMatchers.any;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,13 +19,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import com.MyRecipies.recipies.config.AuthenticatedUser;
+import com.MyRecipies.recipies.dto.CursorPageDTO;
 import com.MyRecipies.recipies.dto.RecipeDTO;
 import com.MyRecipies.recipies.dto.RecipeItemDTO;
+import com.MyRecipies.recipies.dto.RecipeRefreshDTO;
+import com.MyRecipies.recipies.dto.RecipeSummaryDTO;
 import com.MyRecipies.recipies.entities.Ingredient;
 import com.MyRecipies.recipies.entities.Product;
 import com.MyRecipies.recipies.entities.Recipe;
@@ -28,13 +42,21 @@ import com.MyRecipies.recipies.entities.RecipeItem;
 import com.MyRecipies.recipies.entities.RecipeVersion;
 import com.MyRecipies.recipies.entities.User;
 import com.MyRecipies.recipies.entities.enums.VersionActionType;
+import com.MyRecipies.recipies.projections.VersionCounterProjection;
 import com.MyRecipies.recipies.repositories.IngredientRepository;
 import com.MyRecipies.recipies.repositories.ProductRepository;
+import com.MyRecipies.recipies.repositories.RecipeItemRepository;
 import com.MyRecipies.recipies.repositories.RecipeRepository;
 import com.MyRecipies.recipies.repositories.RecipeVersionRepository;
+import com.MyRecipies.recipies.services.exceptions.DatabaseException;
+import com.MyRecipies.recipies.services.exceptions.RecipeCycleException;
+import com.MyRecipies.recipies.services.exceptions.InvalidCursorException;
+import com.MyRecipies.recipies.services.exceptions.InvalidSortException;
 import com.MyRecipies.recipies.services.exceptions.ResourceNotFoundException;
 import com.MyRecipies.recipies.tests.Factory;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 
 @ExtendWith(MockitoExtension.class)
@@ -55,12 +77,24 @@ public class RecipeServiceTests {
     @Mock
     private RecipeVersionRepository versionRepository;
 
+    @Mock
+    private RecipeItemRepository recipeItemRepository;
+
     @Mock
     private UserService userService;
 
     @Mock
     private AuthService authService;
 
+    @Mock
+    private IngredientClosureService closureService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private EntityManager entityManager;
+
     private Long existingId;
     private Long nonExistingId;
 
@@ -96,6 +130,27 @@ public class RecipeServiceTests {
         recipe.getProduct().setId(existingId);
         recipe.setId(existingId);
         recipe.setClient(client);
+
+        stubVersionCounters(1);
+    }
+
+    // simula o contador de versões já incrementado no banco
+    private void stubVersionCounters(int counter) {
+        Mockito.lenient().when(recipeRepository.findVersionCounters(Mockito.anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> (VersionCounterProjection) new VersionCounterProjection() {
+
+                @Override
+                public Long getId() {
+                    return id;
+                }
+
+                @Override
+                public Integer getVersionCounter() {
+                    return counter;
+                }
+            }).toList();
+        });
     }
 
     @Test
@@ -148,6 +203,7 @@ public class RecipeServiceTests {
 
         recipeService.delete(existingId);
         Assertions.assertTrue(recipe.getDeleted());
+        Assertions.assertNotNull(recipe.getDeletedAt());
 
         Mockito.verify(recipeRepository).findById(existingId);
         Mockito.verify(authService).validateSelfOrAdmin(clientId);
@@ -158,6 +214,21 @@ public class RecipeServiceTests {
         Mockito.verify(recipeRepository).save(recipe);
     }
 
+    @Test
+    public void deleteShouldThrowDatabaseExceptionWhenRecipeIsSubRecipeOfActiveRecipe() {
+
+        Mockito.when(recipeRepository.findById(existingId)).thenReturn(Optional.of(recipe));
+        Mockito.when(recipeItemRepository.existsActiveParentBySubProductId(existingId)).thenReturn(true);
+
+        Assertions.assertThrows(DatabaseException.class, () -> {
+            recipeService.delete(existingId);
+        });
+
+        Assertions.assertFalse(recipe.getDeleted());
+        Mockito.verifyNoInteractions(versionRepository);
+        Mockito.verify(recipeRepository, Mockito.never()).save(Mockito.any());
+    }
+
     @Test
     public void deleteShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
 
@@ -191,21 +262,141 @@ public class RecipeServiceTests {
         User user = new User();
         user.setId(clientId);
 
-        Mockito.when(userService.authenticated()).thenReturn(user);
-        Mockito.when(recipeRepository.findByClientId(clientId, pageable)).thenReturn(Page.empty());
+        Mockito.when(userService.principal()).thenReturn(principal(user));
+        Mockito.when(recipeRepository.findSummariesByClientId(clientId, pageable)).thenReturn(Page.empty());
 
-        Page<RecipeDTO> page = recipeService.findByClientId(pageable);
+        Page<RecipeSummaryDTO> page = recipeService.findByClientId(pageable);
 
         Assertions.assertTrue(page.isEmpty());
 
-        Mockito.verify(userService).authenticated();
-        Mockito.verify(recipeRepository).findByClientId(clientId, pageable);
+        Mockito.verify(userService).principal();
+        Mockito.verify(recipeRepository).findSummariesByClientId(clientId, pageable);
+    }
+
+    @Test
+    public void findAllShouldMapSortPropertyToRecipePath() {
+
+        Mockito.when(recipeRepository.findAllSummaries(any(Pageable.class))).thenReturn(Page.empty());
+
+        recipeService.findAll(PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "productPrice")));
+
+        Mockito.verify(recipeRepository)
+                .findAllSummaries(PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "product.price")));
+    }
+
+    @Test
+    public void exportAllShouldWriteTerminalErrorLineWhenQueryFails() throws Exception {
+
+        Mockito.when(recipeRepository.streamAllForExport()).thenReturn(Stream.generate(() -> {
+            throw new QueryTimeoutException("canceling statement due to conflict with recovery");
+        }));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Assertions.assertThrows(QueryTimeoutException.class, () -> {
+            recipeService.exportAll(out);
+        });
+
+        String lastLine = out.toString(StandardCharsets.UTF_8);
+        Assertions.assertTrue(lastLine.endsWith("\n"));
+        Assertions.assertTrue(objectMapper.readTree(lastLine).has("error"));
+    }
+
+    @Test
+    public void findAllShouldThrowInvalidSortExceptionWhenSortPropertyIsNotAllowed() {
+
+        Pageable unsafe = PageRequest.of(0, 10, Sort.by("client.password"));
+
+        Assertions.assertThrows(InvalidSortException.class, () -> {
+            recipeService.findAll(unsafe);
+        });
+
+        Mockito.verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    public void findDetailsByClientIdShouldKeepPageOrderWhenFetchingRecipesById() {
+
+        Recipe other = Factory.createRecipe(client);
+        other.getProduct().setId(2L);
+        other.setId(2L);
+
+        Mockito.when(userService.principal()).thenReturn(principal(client));
+        Mockito.when(recipeRepository.findIdsByClientId(clientId, pageable))
+                .thenReturn(new PageImpl<>(List.of(2L, existingId), pageable, 2));
+        Mockito.when(recipeRepository.findWithDetailsByIdIn(List.of(2L, existingId)))
+                .thenReturn(List.of(recipe, other));
+
+        Page<RecipeDTO> page = recipeService.findDetailsByClientId(pageable);
+
+        Assertions.assertEquals(List.of(2L, existingId), page.map(RecipeDTO::getId).getContent());
+        Mockito.verify(recipeRepository, Mockito.never()).findByClientId(any(), any());
+    }
+
+    @Test
+    public void findDetailsByClientIdShouldSkipRecipesDeletedBetweenQueries() {
+
+        Mockito.when(userService.principal()).thenReturn(principal(client));
+        Mockito.when(recipeRepository.findIdsByClientId(clientId, pageable))
+                .thenReturn(new PageImpl<>(List.of(2L, existingId), pageable, 2));
+        Mockito.when(recipeRepository.findWithDetailsByIdIn(List.of(2L, existingId)))
+                .thenReturn(List.of(recipe));
+
+        Page<RecipeDTO> page = recipeService.findDetailsByClientId(pageable);
+
+        Assertions.assertEquals(List.of(existingId), page.map(RecipeDTO::getId).getContent());
+    }
+
+    @Test
+    public void seekByClientIdShouldSkipRecipesDeletedBetweenQueries() {
+
+        RecipeSummaryDTO summary = new RecipeSummaryDTO(existingId, clientId, "Bolo", BigDecimal.TEN, null, null, 1,
+                null, null, 0, null, null, null, null);
+
+        Mockito.when(userService.principal()).thenReturn(principal(client));
+        Mockito.when(recipeRepository.seekIdsByClientId(clientId, "", 0L, Limit.of(3)))
+                .thenReturn(List.of(existingId, 2L, 3L));
+        Mockito.when(recipeRepository.findSummariesByIdIn(List.of(existingId, 2L))).thenReturn(List.of(summary));
+
+        CursorPageDTO<RecipeSummaryDTO> page = recipeService.seekByClientId(null, 2, false);
+
+        Assertions.assertEquals(List.of(summary), page.getContent());
+        Assertions.assertEquals(new SeekCursor("Bolo", existingId), SeekCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    public void seekByClientIdShouldReturnNextCursorWithoutCountingWhenMoreRecipesExist() {
+
+        RecipeSummaryDTO summary = new RecipeSummaryDTO(existingId, clientId, "Bolo", BigDecimal.TEN, null, null, 1,
+                null, null, 0, null, null, null, null);
+
+        Mockito.when(userService.principal()).thenReturn(principal(client));
+        Mockito.when(recipeRepository.seekIdsByClientId(clientId, "", 0L, Limit.of(2))).thenReturn(List.of(existingId, 2L));
+        Mockito.when(recipeRepository.findSummariesByIdIn(List.of(existingId))).thenReturn(List.of(summary));
+
+        CursorPageDTO<RecipeSummaryDTO> page = recipeService.seekByClientId(null, 1, false);
+
+        Assertions.assertEquals(List.of(summary), page.getContent());
+        Assertions.assertNull(page.getTotalElements());
+        Assertions.assertEquals(new SeekCursor("Bolo", existingId), SeekCursor.decode(page.getNextCursor()));
+        Mockito.verify(recipeRepository, Mockito.never()).countActiveByClientId(any());
+    }
+
+    @Test
+    public void seekByClientIdShouldThrowInvalidCursorExceptionWhenCursorIsMalformed() {
+
+        Mockito.when(userService.principal()).thenReturn(principal(client));
+
+        Assertions.assertThrows(InvalidCursorException.class, () -> {
+            recipeService.seekByClientId("não-é-um-cursor", 20, false);
+        });
+
+        Mockito.verifyNoInteractions(recipeRepository);
     }
 
     @Test
     public void insertShouldSaveRecipeAndReturnDTO() {
 
-        Mockito.when(userService.authenticated()).thenReturn(client);
+        Mockito.when(userService.authenticatedReference()).thenReturn(client);
         Mockito.when(productRepository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
         Mockito.when(recipeRepository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -213,14 +404,14 @@ public class RecipeServiceTests {
 
         Assertions.assertNotNull(result);
 
-        Mockito.verify(userService).authenticated();
+        Mockito.verify(userService).authenticatedReference();
         Mockito.verify(recipeRepository).save(Mockito.any());
     }
 
     @Test
     public void insertShouldCreateVersionOne() {
 
-        Mockito.when(userService.authenticated()).thenReturn(client);
+        Mockito.when(userService.authenticatedReference()).thenReturn(client);
         Mockito.when(productRepository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
         Mockito.when(recipeRepository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -303,11 +494,7 @@ public class RecipeServiceTests {
     @Test
     public void updateShouldIncrementVersionNumber() {
 
-        RecipeVersion v1 = new RecipeVersion();
-        v1.setVersionNumber(1);
-
-        recipe.setVersions(new ArrayList<>());
-        recipe.getVersions().add(v1);
+        stubVersionCounters(2);
 
         Mockito.when(recipeRepository.getReferenceById(existingId)).thenReturn(recipe);
         Mockito.doNothing().when(authService).validateSelfOrAdmin(clientId);
@@ -319,6 +506,7 @@ public class RecipeServiceTests {
 
         recipeService.update(existingId, dto);
 
+        Mockito.verify(recipeRepository).incrementVersionCounters(List.of(existingId));
         Mockito.verify(versionRepository).save(Mockito.argThat(version -> version.getVersionNumber() == 2));
     }
 
@@ -436,11 +624,12 @@ public class RecipeServiceTests {
 
         // Mock do ingredientRepository
         Ingredient ing = Factory.createIngredient(client);
+        ing.setId(1L);
         ing.setPriceCost(new BigDecimal("30"));
         ing.setQuantityPerUnit(new BigDecimal("1"));
 
-        Mockito.when(ingredientRepository.findById(1L))
-                .thenReturn(Optional.of(ing));
+        Mockito.when(ingredientRepository.findAllById(Set.of(1L)))
+                .thenReturn(List.of(ing));
 
         RecipeDTO result = recipeService.update(existingId, dto);
 
@@ -449,6 +638,67 @@ public class RecipeServiceTests {
         Assertions.assertEquals(0, result.getProfit().compareTo(new BigDecimal("70")));
     }
 
+    @Test
+    public void updateShouldLoadItemReferencesInBulkWhenRecipeHasManyItems() {
+
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            Ingredient ing = Factory.createIngredient(client);
+            ing.setId(id);
+            ingredients.add(ing);
+
+            RecipeItemDTO itemDTO = new RecipeItemDTO();
+            itemDTO.setIngredientId(id);
+            itemDTO.setQuantity(BigDecimal.ONE);
+            dto.getItems().add(itemDTO);
+        }
+
+        Mockito.when(recipeRepository.getReferenceById(existingId)).thenReturn(recipe);
+        Mockito.when(productRepository.getReferenceById(existingId)).thenReturn(recipe.getProduct());
+        Mockito.when(productRepository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(recipeRepository.save(Mockito.any())).thenReturn(recipe);
+        Mockito.when(ingredientRepository.findAllById(Mockito.anyIterable())).thenReturn(ingredients);
+
+        RecipeDTO result = recipeService.update(existingId, dto);
+
+        Assertions.assertEquals(40, result.getItems().size());
+
+        Mockito.verify(ingredientRepository, Mockito.times(1)).findAllById(Mockito.anyIterable());
+        Mockito.verify(ingredientRepository, Mockito.never()).findById(any());
+        Mockito.verify(authService, Mockito.times(1)).validateSelfOrAdmin(Set.of(clientId));
+    }
+
+    @Test
+    public void updateShouldThrowResourceNotFoundExceptionListingAllMissingItemIds() {
+
+        Ingredient ing = Factory.createIngredient(client);
+        ing.setId(1L);
+
+        for (Long id : List.of(1L, 2L, 3L)) {
+            RecipeItemDTO itemDTO = new RecipeItemDTO();
+            itemDTO.setIngredientId(id);
+            itemDTO.setQuantity(BigDecimal.ONE);
+            dto.getItems().add(itemDTO);
+        }
+        RecipeItemDTO subItem = new RecipeItemDTO();
+        subItem.setSubProductId(9L);
+        subItem.setQuantity(BigDecimal.ONE);
+        dto.getItems().add(subItem);
+
+        Mockito.when(recipeRepository.getReferenceById(existingId)).thenReturn(recipe);
+        Mockito.when(productRepository.getReferenceById(existingId)).thenReturn(recipe.getProduct());
+        Mockito.when(productRepository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(ingredientRepository.findAllById(Mockito.anyIterable())).thenReturn(List.of(ing));
+        Mockito.when(productRepository.findWithRecipeByIdIn(Mockito.anyCollection())).thenReturn(List.of());
+
+        ResourceNotFoundException exception = Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            recipeService.update(existingId, dto);
+        });
+
+        Assertions.assertEquals("Itens não encontrados! ingredientes [2, 3]; produtos [9]", exception.getMessage());
+        Mockito.verify(recipeRepository, Mockito.never()).save(Mockito.any());
+    }
+
     @Test
     public void updateShouldSnapshotItemFinancialValues() {
 
@@ -492,6 +742,37 @@ public class RecipeServiceTests {
                 Mockito.argThat(version -> version.getActionType() == VersionActionType.UPDATE));
     }
 
+    @Test
+    public void updateShouldThrowRecipeCycleExceptionWhenSubProductContainsRecipe() {
+
+        Long subProductId = 2L;
+
+        Recipe subRecipe = Factory.createRecipe(client);
+        subRecipe.getProduct().setId(subProductId);
+
+        RecipeItem backReference = new RecipeItem();
+        backReference.setSubProduct(recipe.getProduct());
+        backReference.setQuantity(BigDecimal.ONE);
+        subRecipe.addItem(backReference);
+
+        RecipeItemDTO itemDTO = new RecipeItemDTO();
+        itemDTO.setSubProductId(subProductId);
+        itemDTO.setQuantity(BigDecimal.ONE);
+        dto.getItems().add(itemDTO);
+
+        Mockito.when(recipeRepository.getReferenceById(existingId)).thenReturn(recipe);
+        Mockito.doNothing().when(authService).validateSelfOrAdmin(clientId);
+        Mockito.when(productRepository.getReferenceById(existingId)).thenReturn(recipe.getProduct());
+        Mockito.when(productRepository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(productRepository.findWithRecipeByIdIn(Set.of(subProductId))).thenReturn(List.of(subRecipe.getProduct()));
+
+        Assertions.assertThrows(RecipeCycleException.class, () -> {
+            recipeService.update(existingId, dto);
+        });
+
+        Mockito.verify(recipeRepository, Mockito.never()).save(Mockito.any());
+    }
+
     @Test
     public void refreshPricesShouldCreateNewVersionBeforeRecalculating() {
 
@@ -558,6 +839,92 @@ public class RecipeServiceTests {
                 Mockito.argThat(version -> version.getActionType() == VersionActionType.REFRESH));
     }
 
+    @Test
+    public void propagateIngredientChangeShouldRefreshDirectAndIndirectRecipesOnce() {
+
+        Ingredient ing = Factory.createIngredient(client);
+        ing.setId(5L);
+        ing.setPriceCost(new BigDecimal("20"));
+        ing.setQuantityPerUnit(new BigDecimal("1"));
+
+        // massa usa o ingrediente; bolo usa a massa
+        Recipe dough = Factory.createRecipe(client);
+        dough.getProduct().setId(2L);
+        dough.setAmount(2);
+        RecipeItem doughItem = new RecipeItem();
+        doughItem.setIngredient(ing);
+        doughItem.setQuantity(new BigDecimal("1"));
+        dough.addItem(doughItem);
+
+        Recipe cake = Factory.createRecipe(client);
+        cake.getProduct().setId(3L);
+        cake.setAmount(1);
+        RecipeItem cakeItem = new RecipeItem();
+        cakeItem.setSubProduct(dough.getProduct());
+        cakeItem.setQuantity(new BigDecimal("3"));
+        cake.addItem(cakeItem);
+
+        Mockito.when(recipeItemRepository.findRecipesByIngredientId(5L)).thenReturn(List.of(dough));
+        Mockito.when(recipeItemRepository.findParentRecipesBySubProductIds(List.of(2L))).thenReturn(List.of(cake));
+        Mockito.when(recipeItemRepository.findParentRecipesBySubProductIds(List.of(3L))).thenReturn(List.of());
+
+        recipeService.propagateIngredientChange(5L);
+
+        Assertions.assertEquals(0, new BigDecimal("20").compareTo(doughItem.getTotalCost()));
+        Assertions.assertEquals(0, new BigDecimal("10").compareTo(cakeItem.getUnitCost()));
+        Assertions.assertEquals(0, new BigDecimal("30").compareTo(cakeItem.getTotalCost()));
+
+        // um único incremento de contador para as duas receitas
+        Mockito.verify(recipeRepository).incrementVersionCounters(Mockito.anyCollection());
+        Mockito.verify(versionRepository).saveAll(Mockito.<List<RecipeVersion>>argThat(versions -> versions.size() == 2
+                && versions.stream().allMatch(version -> version.getActionType() == VersionActionType.REFRESH)));
+        Mockito.verify(recipeRepository).saveAll(List.of(dough, cake));
+    }
+
+    @Test
+    public void propagateIngredientChangeShouldDoNothingWhenIngredientIsUnused() {
+
+        Mockito.when(recipeItemRepository.findRecipesByIngredientId(5L)).thenReturn(List.of());
+
+        recipeService.propagateIngredientChange(5L);
+
+        Mockito.verifyNoInteractions(versionRepository);
+        Mockito.verify(recipeRepository, Mockito.never()).saveAll(any());
+    }
+
+    @Test
+    public void refreshAllRecipePricesShouldValidateSelectedClientOnceAndBatchVersions() {
+
+        Long otherClientId = 20L;
+
+        Ingredient ing = Factory.createIngredient(client);
+        ing.setPriceCost(new BigDecimal("20"));
+        ing.setQuantityPerUnit(new BigDecimal("1"));
+
+        RecipeItem item = new RecipeItem();
+        item.setIngredient(ing);
+        item.setQuantity(new BigDecimal("2"));
+        recipe.setItems(new ArrayList<>());
+        recipe.addItem(item);
+
+        Recipe deleted = Factory.createRecipe(client);
+        deleted.getProduct().setId(2L);
+        deleted.setDeleted(true);
+
+        Mockito.when(recipeRepository.findWithItemsByClientId(otherClientId)).thenReturn(List.of(recipe, deleted));
+
+        RecipeRefreshDTO result = recipeService.refreshAllRecipePrices(otherClientId);
+
+        Assertions.assertEquals(otherClientId, result.getClientId());
+        Assertions.assertEquals(1, result.getRefreshedRecipes());
+        Assertions.assertEquals(0, new BigDecimal("40").compareTo(item.getTotalCost()));
+
+        Mockito.verify(authService, Mockito.times(1)).validateSelfOrAdmin(otherClientId);
+        Mockito.verifyNoInteractions(ingredientRepository, productRepository);
+        Mockito.verify(versionRepository).saveAll(Mockito.argThat(versions -> versions.iterator().hasNext()));
+        Mockito.verify(versionRepository, Mockito.never()).save(any());
+    }
+
     @Test
     public void restoreShouldCreateNewVersionWithActionTypeRestore() {
 
@@ -615,4 +982,8 @@ public class RecipeServiceTests {
         Assertions.assertEquals("Produto da Versão", recipe.getProduct().getName());
         Assertions.assertEquals(0, new BigDecimal("50").compareTo(recipe.getProduct().getPrice()));
     }
-}
\ No newline at end of file
+
+    private AuthenticatedUser principal(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), Set.of("ROLE_CLIENT"));
+    }
+}
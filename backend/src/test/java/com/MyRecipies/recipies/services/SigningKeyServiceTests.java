@@ -0,0 +1,149 @@
+package com.MyRecipies.recipies.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.MyRecipies.recipies.entities.SigningKey;
+import com.MyRecipies.recipies.repositories.SigningKeyRepository;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+
+@DataJpaTest(properties = { "security.jwt.duration=60", "security.jwt.keys.publish-ahead-seconds=3600" })
+@Import(SigningKeyService.class)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+public class SigningKeyServiceTests {
+
+    @Autowired
+    private SigningKeyService service;
+
+    @Autowired
+    private SigningKeyRepository repository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Test
+    public void signingKeyShouldBeCreatedOnceAndStored() {
+
+        String kid = service.signingKey().getKeyID();
+
+        Assertions.assertEquals(kid, service.signingKey().getKeyID());
+        List<SigningKey> stored = repository.findAll();
+        Assertions.assertEquals(1, stored.size());
+        Assertions.assertEquals(kid, stored.get(0).getKid());
+    }
+
+    @Test
+    public void privateKeyShouldBeStoredEncrypted() throws Exception {
+
+        RSAKey signingKey = service.signingKey();
+
+        String stored = repository.findById(signingKey.getKeyID()).get().getPrivateKey();
+        String plain = Base64.getEncoder().encodeToString(signingKey.toRSAPrivateKey().getEncoded());
+        Assertions.assertNotEquals(plain, stored);
+        Assertions.assertFalse(stored.contains(plain.substring(0, 32)));
+    }
+
+    @Test
+    public void selectShouldRejectKeyEncryptedForAnotherKid() throws Exception {
+
+        service.signingKey();
+
+        // cifrada com outro kid como dado autenticado: a tag não confere
+        RSAKey rsaKey = new RSAKeyGenerator(2048).generate();
+        SigningKey key = new SigningKey("swapped", Base64.getEncoder().encodeToString(rsaKey.toRSAPublicKey().getEncoded()),
+                service.encryptPrivateKey("original", rsaKey.toRSAPrivateKey().getEncoded()), Instant.now(), Instant.now());
+        repository.save(key);
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> service.select(new JWKSelector(new JWKMatcher.Builder().keyID("swapped").build())));
+    }
+
+    @Test
+    public void rotateShouldPublishNewKeyBeforeSigningWithIt() {
+
+        String oldKid = service.signingKey().getKeyID();
+
+        Assertions.assertTrue(service.rotateKeysCreatedBefore(Instant.now().plusSeconds(1)));
+
+        // a chave nova já verifica, mas só assina depois do publish-ahead
+        Assertions.assertEquals(oldKid, service.signingKey().getKeyID());
+        Set<String> published = kids(service.select(new JWKSelector(new JWKMatcher.Builder().build())));
+        Assertions.assertEquals(2, published.size());
+        Assertions.assertTrue(published.contains(oldKid));
+
+        testEntityManager.clear();
+        Instant expiresAt = repository.findById(oldKid).get().getExpiresAt();
+        Instant expected = Instant.now().plusSeconds(3600 + 60);
+        Assertions.assertTrue(Duration.between(expiresAt, expected).abs().getSeconds() < 5);
+    }
+
+    @Test
+    public void rotateShouldDoNothingWhenKeysAreRecent() {
+
+        service.signingKey();
+
+        Assertions.assertFalse(service.rotateKeysCreatedBefore(Instant.now().minus(Duration.ofDays(1))));
+        Assertions.assertEquals(1, repository.count());
+    }
+
+    @Test
+    public void rotateShouldDeleteExpiredKeys() throws Exception {
+
+        Instant longAgo = Instant.now().minus(Duration.ofDays(60));
+        storedKey("expired", longAgo, Instant.now().minusSeconds(1));
+        service.signingKey();
+
+        Assertions.assertTrue(service.rotateKeysCreatedBefore(Instant.now().plusSeconds(1)));
+
+        testEntityManager.clear();
+        Assertions.assertTrue(repository.findById("expired").isEmpty());
+        Assertions.assertFalse(kids(service.select(new JWKSelector(new JWKMatcher.Builder().build())))
+                .contains("expired"));
+    }
+
+    @Test
+    public void selectShouldReloadWhenKeyIdIsUnknown() throws Exception {
+
+        service.signingKey();
+
+        // chave criada por outra instância depois do último carregamento
+        storedKey("other-node", Instant.now(), null);
+
+        List<JWK> found = service.select(new JWKSelector(new JWKMatcher.Builder().keyID("other-node").build()));
+        Assertions.assertEquals(Set.of("other-node"), kids(found));
+
+        // kid inexistente não consulta o banco de novo logo em seguida
+        Assertions.assertTrue(service.select(new JWKSelector(new JWKMatcher.Builder().keyID("forged").build()))
+                .isEmpty());
+    }
+
+    private SigningKey storedKey(String kid, Instant createdAt, Instant expiresAt) throws Exception {
+
+        RSAKey rsaKey = new RSAKeyGenerator(2048).keyID(kid).generate();
+        Base64.Encoder encoder = Base64.getEncoder();
+        SigningKey key = new SigningKey(kid, encoder.encodeToString(rsaKey.toRSAPublicKey().getEncoded()),
+                service.encryptPrivateKey(kid, rsaKey.toRSAPrivateKey().getEncoded()), createdAt, createdAt);
+        key.setExpiresAt(expiresAt);
+        return repository.save(key);
+    }
+
+    private static Set<String> kids(List<JWK> keys) {
+        return Set.copyOf(keys.stream().map(JWK::getKeyID).toList());
+    }
+}
@@ -5,6 +5,7 @@ import static org.mockito.Mockito.never;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +18,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 
+import com.MyRecipies.recipies.config.AuthenticatedUser;
 import com.MyRecipies.recipies.dto.SupplierDTO;
 import com.MyRecipies.recipies.entities.Supplier;
 import com.MyRecipies.recipies.entities.User;
@@ -78,7 +80,7 @@ public class SupplierServiceTests {
     @Test
     public void findByClientIdShouldReturnListOfSuppliersWhenClientIdExists() {
 
-        Mockito.when(userService.authenticated()).thenReturn(user);
+        Mockito.when(userService.principal()).thenReturn(principal(user));
         Mockito.when(supplierRepository.findByClientId(clientId)).thenReturn(List.of(supplier));
 
         List<SupplierDTO> list = supplierService.findByClientId();
@@ -86,7 +88,7 @@ public class SupplierServiceTests {
         Assertions.assertFalse(list.isEmpty());
         Assertions.assertEquals(clientId, list.get(0).getClient().getId());
 
-        Mockito.verify(userService).authenticated();
+        Mockito.verify(userService).principal();
         Mockito.verify(supplierRepository).findByClientId(clientId);
     }
 
@@ -137,7 +139,7 @@ public class SupplierServiceTests {
     @Test
     public void insertShouldSaveSupplierAndReturnDTO() {
 
-        Mockito.when(userService.authenticated()).thenReturn(user);
+        Mockito.when(userService.authenticatedReference()).thenReturn(user);
 
         ArgumentCaptor<Supplier> captor = ArgumentCaptor.forClass(Supplier.class);
         Mockito.when(supplierRepository.save(captor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
@@ -149,7 +151,7 @@ public class SupplierServiceTests {
         Assertions.assertNotNull(savedSupplier);
         Assertions.assertEquals(clientId, savedSupplier.getClient().getId());
 
-        Mockito.verify(userService).authenticated();
+        Mockito.verify(userService).authenticatedReference();
         Mockito.verify(supplierRepository).save(any());
     }
 
@@ -267,4 +269,8 @@ public class SupplierServiceTests {
         Mockito.verify(authService).validateSelfOrAdmin(supplier.getClient().getId());
         Mockito.verify(supplierRepository, never()).deleteById(existingId);
     }
+
+    private AuthenticatedUser principal(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), Set.of("ROLE_CLIENT"));
+    }
 }
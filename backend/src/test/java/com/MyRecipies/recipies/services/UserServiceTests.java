@@ -2,6 +2,7 @@ package com.MyRecipies.recipies.services;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -11,14 +12,17 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import com.MyRecipies.recipies.cache.UserCache;
+import com.MyRecipies.recipies.config.AuthenticatedUser;
+import com.MyRecipies.recipies.config.AuthenticatedUserToken;
 import com.MyRecipies.recipies.dto.UserDTO;
 import com.MyRecipies.recipies.dto.UserInsertDTO;
 import com.MyRecipies.recipies.entities.Role;
@@ -26,6 +30,7 @@ import com.MyRecipies.recipies.entities.User;
 import com.MyRecipies.recipies.projections.UserDetailsProjection;
 import com.MyRecipies.recipies.repositories.RoleRepository;
 import com.MyRecipies.recipies.repositories.UserRepository;
+import com.MyRecipies.recipies.services.exceptions.ResourceNotFoundException;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceTests {
@@ -37,11 +42,17 @@ public class UserServiceTests {
     private UserRepository userRepository;
 
     @Mock
-	private PasswordEncoder passwordEncoder;
+	private PasswordHashingService passwordHashing;
 
     @Mock
 	private RoleRepository roleRepository;
 
+    @Mock
+    private TokenStoreService tokenStore;
+
+    @Spy
+    private UserCache userCache = new UserCache(100, 60);
+
     @Test
     public void loadUserByUsernameShouldReturnUserWhenUsernameExists() {
 
@@ -49,6 +60,7 @@ public class UserServiceTests {
 
         UserDetailsProjection projection = Mockito.mock(UserDetailsProjection.class);
 
+        Mockito.when(projection.getUserId()).thenReturn(5L);
         Mockito.when(projection.getPassword()).thenReturn("encodedPassword");
         Mockito.when(projection.getRoleId()).thenReturn(1L);
         Mockito.when(projection.getAuthority()).thenReturn("ROLE_CLIENT");
@@ -61,6 +73,7 @@ public class UserServiceTests {
         Assertions.assertNotNull(userDetails);
         Assertions.assertEquals(username, userDetails.getUsername());
         Assertions.assertEquals("encodedPassword", userDetails.getPassword());
+        Assertions.assertEquals(5L, ((User) userDetails).getId());
         Assertions.assertTrue(
             userDetails.getAuthorities()
                     .stream()
@@ -85,6 +98,24 @@ public class UserServiceTests {
         Mockito.verify(userRepository).searchUserAndRolesByEmail(username);
     }
 
+    @Test
+    public void loadUserByUsernameShouldQueryOnceWhenCalledRepeatedly() {
+
+        String username = "test@email.com";
+
+        UserDetailsProjection projection = Mockito.mock(UserDetailsProjection.class);
+        Mockito.when(projection.getPassword()).thenReturn("encodedPassword");
+        Mockito.when(projection.getAuthority()).thenReturn("ROLE_CLIENT");
+
+        Mockito.when(userRepository.searchUserAndRolesByEmail(username)).thenReturn(List.of(projection));
+
+        userService.loadUserByUsername(username);
+        UserDetails userDetails = userService.loadUserByUsername(username);
+
+        Assertions.assertEquals("encodedPassword", userDetails.getPassword());
+        Mockito.verify(userRepository, Mockito.times(1)).searchUserAndRolesByEmail(username);
+    }
+
     @Test
     public void insertShouldSaveUserAndReturnDTO() {
 
@@ -96,7 +127,7 @@ public class UserServiceTests {
 
         Role role = new Role(1L, "ROLE_CLIENT");
 
-        Mockito.when(passwordEncoder.encode("123456")).thenReturn("encodedPassword");
+        Mockito.when(passwordHashing.encode("123456")).thenReturn("encodedPassword");
         Mockito.when(roleRepository.findByAuthority("ROLE_CLIENT")).thenReturn(role);
         ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
         Mockito.when(userRepository.save(captor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
@@ -110,57 +141,105 @@ public class UserServiceTests {
         Assertions.assertEquals("encodedPassword", savedUser.getPassword());
         Assertions.assertTrue(savedUser.getRoles().stream().anyMatch(r -> r.getAuthority().equals("ROLE_CLIENT")));
 
-        Mockito.verify(passwordEncoder).encode("123456");
+        Mockito.verify(passwordHashing).encode("123456");
         Mockito.verify(roleRepository).findByAuthority("ROLE_CLIENT");
         Mockito.verify(userRepository).save(Mockito.any());
+        Mockito.verify(userCache).invalidate("maria@email.com");
     }
 
     @Test
-    public void authenticatedShouldReturnUserWhenEmailExists() {
+    public void updatePasswordShouldSaveNewHashInvalidateCacheAndRevokeSessions() {
 
-        String email = "user@email.com";
+        User user = new User();
+        user.setEmail("maria@email.com");
+        user.setPassword("oldHash");
+
+        UserDetails result = userService.updatePassword(user, "newHash");
+
+        Assertions.assertEquals("newHash", result.getPassword());
+        Mockito.verify(userRepository).updatePassword("maria@email.com", "newHash");
+        Mockito.verify(userCache).invalidate("maria@email.com");
+        Mockito.verify(tokenStore).revokeAll("maria@email.com");
+    }
+
+    @Test
+    public void upgradePasswordHashShouldSaveNewHashWithoutRevokingSessions() {
 
         User user = new User();
-        user.setEmail(email);
+        user.setEmail("maria@email.com");
+        user.setPassword("oldHash");
 
-        Jwt jwt = Mockito.mock(Jwt.class);
-        Mockito.when(jwt.getClaim("username")).thenReturn(email);
+        UserDetails result = userService.upgradePasswordHash(user, "newHash");
 
-        Authentication authentication = Mockito.mock(Authentication.class);
-        Mockito.when(authentication.getPrincipal()).thenReturn(jwt);
+        Assertions.assertEquals("newHash", result.getPassword());
+        Mockito.verify(userRepository).updatePassword("maria@email.com", "newHash");
+        Mockito.verify(userCache).invalidate("maria@email.com");
+        Mockito.verifyNoInteractions(tokenStore);
+    }
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+    @Test
+    public void authenticatedShouldLoadUserByIdFromTokenWithoutQueryingByEmail() {
+
+        Long userId = 7L;
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "user@email.com", Set.of("ROLE_CLIENT"));
+        Jwt jwt = Mockito.mock(Jwt.class);
+        SecurityContextHolder.getContext().setAuthentication(new AuthenticatedUserToken(jwt, principal, List.of()));
 
-        Mockito.when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+        User user = new User();
+        user.setId(userId);
+        Mockito.when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         User result = userService.authenticated();
 
-        Assertions.assertNotNull(result);
-        Assertions.assertEquals(email, result.getEmail());
+        Assertions.assertEquals(userId, result.getId());
+        Assertions.assertSame(principal, userService.principal());
 
-        Mockito.verify(userRepository).findByEmail(email);
+        Mockito.verify(userRepository).findById(userId);
+        Mockito.verify(userRepository, Mockito.never()).findByEmail(Mockito.any());
     }
 
     @Test
-    public void authenticatedShouldThrowExceptionWhenEmailNotFound() {
+    public void authenticatedReferenceShouldUseIdFromTokenWithoutLoadingUser() {
+
+        Long userId = 7L;
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "user@email.com", Set.of("ROLE_CLIENT"));
+        Jwt jwt = Mockito.mock(Jwt.class);
+        SecurityContextHolder.getContext().setAuthentication(new AuthenticatedUserToken(jwt, principal, List.of()));
+
+        User reference = new User();
+        Mockito.when(userRepository.getReferenceById(userId)).thenReturn(reference);
 
-        String email = "notfound@email.com";
+        Assertions.assertSame(reference, userService.authenticatedReference());
 
+        Mockito.verify(userRepository, Mockito.never()).findById(Mockito.any());
+    }
+
+    @Test
+    public void authenticatedShouldThrowResourceNotFoundExceptionWhenUserWasRemoved() {
+
+        Long userId = 7L;
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "user@email.com", Set.of("ROLE_CLIENT"));
         Jwt jwt = Mockito.mock(Jwt.class);
-        Mockito.when(jwt.getClaim("username")).thenReturn(email);
+        SecurityContextHolder.getContext().setAuthentication(new AuthenticatedUserToken(jwt, principal, List.of()));
+
+        Mockito.when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> userService.authenticated());
+    }
+
+    @Test
+    public void principalShouldThrowExceptionWhenAuthenticationIsNotFromToken() {
 
         Authentication authentication = Mockito.mock(Authentication.class);
-        Mockito.when(authentication.getPrincipal()).thenReturn(jwt);
+        Mockito.when(authentication.getPrincipal()).thenReturn("user@email.com");
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        Mockito.when(userRepository.findByEmail(email)).thenReturn(Optional.empty());
-
         Assertions.assertThrows(UsernameNotFoundException.class, () -> {
-            userService.authenticated();
+            userService.principal();
         });
 
-        Mockito.verify(userRepository).findByEmail(email);
+        Mockito.verifyNoInteractions(userRepository);
     }
 
         @Test
@@ -0,0 +1,68 @@
+package com.MyRecipies.recipies.tests;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.MyRecipies.recipies.config.AuthenticatedUser;
+import com.MyRecipies.recipies.config.AuthenticatedUserToken;
+import com.MyRecipies.recipies.repositories.UserRepository;
+import com.MyRecipies.recipies.services.IngredientService;
+import com.MyRecipies.recipies.services.RecipeService;
+import com.MyRecipies.recipies.services.SupplierService;
+
+import jakarta.transaction.Transactional;
+
+// as leituras usam só o id que vem no token: nenhuma consulta a tb_user
+@SpringBootTest
+@Transactional
+public class AuthenticatedUserIntegrationTest {
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private IngredientService ingredientService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setUp() {
+
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "maria@gmail.com", Set.of("ROLE_CLIENT"));
+        SecurityContextHolder.getContext()
+                .setAuthentication(new AuthenticatedUserToken(Mockito.mock(Jwt.class), principal, List.of()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void listAndSeekShouldNotQueryUsers() {
+
+        recipeService.findByClientId(PageRequest.of(0, 10));
+        recipeService.findDetailsByClientId(PageRequest.of(0, 10));
+        recipeService.seekByClientId(null, 10, true);
+        ingredientService.findByClientId(PageRequest.of(0, 10));
+        ingredientService.seekByClientId(null, 10, true);
+        supplierService.findByClientId();
+
+        Mockito.verifyNoInteractions(userRepository);
+    }
+}
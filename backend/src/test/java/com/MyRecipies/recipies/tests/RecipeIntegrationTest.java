@@ -3,9 +3,12 @@ package com.MyRecipies.recipies.tests;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -15,8 +18,10 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import com.MyRecipies.recipies.config.AuthenticatedUser;
 import com.MyRecipies.recipies.dto.RecipeDTO;
 import com.MyRecipies.recipies.dto.RecipeItemDTO;
+import com.MyRecipies.recipies.dto.RecipeRefreshDTO;
 import com.MyRecipies.recipies.dto.RecipeVersionDTO;
 import com.MyRecipies.recipies.entities.Ingredient;
 import com.MyRecipies.recipies.entities.Recipe;
@@ -27,6 +32,8 @@ import com.MyRecipies.recipies.repositories.RecipeRepository;
 import com.MyRecipies.recipies.repositories.UserRepository;
 import com.MyRecipies.recipies.services.RecipeService;
 import com.MyRecipies.recipies.services.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.transaction.Transactional;
 
@@ -47,6 +54,9 @@ public class RecipeIntegrationTest {
     @Autowired
     private IngredientRepository ingredientRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockitoBean
     private UserService userService;
 
@@ -58,7 +68,7 @@ public class RecipeIntegrationTest {
         user.setPassword("123456");
         user = userRepository.save(user);
 
-        Mockito.when(userService.authenticated()).thenReturn(user);
+        authenticate(user);
 
         RecipeDTO dto = new RecipeDTO();
         dto.setProductName("Bolo");
@@ -91,7 +101,7 @@ public class RecipeIntegrationTest {
         user.setPassword("123");
         user = userRepository.save(user);
 
-        Mockito.when(userService.authenticated()).thenReturn(user);
+        authenticate(user);
 
         // ========================
         // 2️⃣ Criar ingrediente real
@@ -168,7 +178,7 @@ public class RecipeIntegrationTest {
         user.setPassword("123");
         user = userRepository.save(user);
 
-        Mockito.when(userService.authenticated()).thenReturn(user);
+        authenticate(user);
 
         RecipeDTO dto = new RecipeDTO();
         dto.setDescription("Original");
@@ -203,7 +213,7 @@ public class RecipeIntegrationTest {
         user.setPassword("123");
         user = userRepository.save(user);
 
-        Mockito.when(userService.authenticated()).thenReturn(user);
+        authenticate(user);
 
         // ========================
         // 1️⃣ Criar ingrediente real
@@ -251,4 +261,98 @@ public class RecipeIntegrationTest {
         assertEquals(0, refreshed.getTotalCost().compareTo(new BigDecimal("15")));
         assertEquals(0, refreshed.getProfit().compareTo(new BigDecimal("35")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void refreshAllRecipePricesShouldRecalculateNestedRecipesOfClient() {
+
+        User user = new User();
+        user.setName("Teste");
+        user.setEmail("teste@email.com");
+        user.setPassword("123");
+        user = userRepository.save(user);
+
+        authenticate(user);
+
+        Ingredient ingredient = new Ingredient();
+        ingredient.setName("Farinha");
+        ingredient.setPriceCost(new BigDecimal("10"));
+        ingredient.setQuantityPerUnit(new BigDecimal("1"));
+        ingredient.setUnit(UnitType.KILOGRAM);
+        ingredient.setClient(user);
+        ingredient = ingredientRepository.save(ingredient);
+
+        // massa: 2 kg de farinha rende 4
+        RecipeDTO doughDTO = new RecipeDTO();
+        doughDTO.setAmount(4);
+        doughDTO.setProductName("Massa");
+        doughDTO.setProductPrice(new BigDecimal("10"));
+        RecipeItemDTO flourItem = new RecipeItemDTO();
+        flourItem.setIngredientId(ingredient.getId());
+        flourItem.setQuantity(new BigDecimal("2"));
+        doughDTO.setItems(List.of(flourItem));
+        RecipeDTO dough = recipeService.insert(doughDTO);
+
+        // bolo: 2 massas
+        RecipeDTO cakeDTO = new RecipeDTO();
+        cakeDTO.setAmount(1);
+        cakeDTO.setProductName("Bolo");
+        cakeDTO.setProductPrice(new BigDecimal("50"));
+        RecipeItemDTO doughItem = new RecipeItemDTO();
+        doughItem.setSubProductId(dough.getId());
+        doughItem.setQuantity(new BigDecimal("2"));
+        cakeDTO.setItems(List.of(doughItem));
+        RecipeDTO cake = recipeService.insert(cakeDTO);
+
+        assertEquals(0, cake.getTotalCost().compareTo(new BigDecimal("10")));
+
+        ingredient.setPriceCost(new BigDecimal("20"));
+        ingredientRepository.save(ingredient);
+
+        RecipeRefreshDTO result = recipeService.refreshAllRecipePrices(null);
+
+        assertEquals(user.getId(), result.getClientId());
+        assertEquals(2, result.getRefreshedRecipes());
+        assertEquals(0, recipeService.findById(dough.getId()).getTotalCost().compareTo(new BigDecimal("40")));
+        assertEquals(0, recipeService.findById(cake.getId()).getTotalCost().compareTo(new BigDecimal("20")));
+    }
+
+    @Test
+    public void exportAllShouldWriteOneJsonLinePerRecipe() throws Exception {
+
+        User user = new User();
+        user.setEmail("export@test.com");
+        user.setPassword("123456");
+        user = userRepository.save(user);
+
+        authenticate(user);
+
+        RecipeDTO dto = new RecipeDTO();
+        dto.setProductName("Pão");
+        dto.setProductPrice(new BigDecimal("8"));
+        dto.setItems(new ArrayList<>());
+        RecipeDTO inserted = recipeService.insert(dto);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recipeService.exportAll(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(recipeRepository.count(), lines.length);
+
+        JsonNode exported = null;
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.get("id").asLong() == inserted.getId()) {
+                exported = node;
+            }
+        }
+        assertNotNull(exported);
+        assertEquals("Pão", exported.get("productName").asText());
+        assertEquals(user.getId(), exported.get("client").get("id").asLong());
+    }
+
+    private void authenticate(User user) {
+        Mockito.when(userService.authenticatedReference()).thenReturn(user);
+        Mockito.when(userService.principal())
+                .thenReturn(new AuthenticatedUser(user.getId(), user.getEmail(), Set.of("ROLE_CLIENT")));
+    }
+}
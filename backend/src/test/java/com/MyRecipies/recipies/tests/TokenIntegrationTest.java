@@ -0,0 +1,285 @@
+package com.MyRecipies.recipies.tests;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.MyRecipies.recipies.cache.UserCache;
+import com.MyRecipies.recipies.dto.UserInsertDTO;
+import com.MyRecipies.recipies.entities.User;
+import com.MyRecipies.recipies.repositories.UserRepository;
+import com.MyRecipies.recipies.services.PasswordHashingService;
+import com.MyRecipies.recipies.services.SigningKeyService;
+import com.MyRecipies.recipies.services.TokenStoreService;
+import com.MyRecipies.recipies.services.UserService;
+import com.MyRecipies.recipies.services.exceptions.PasswordHashingBusyException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TokenIntegrationTest {
+
+    private static final String EMAIL = "token@test.com";
+    private static final String PASSWORD = "s3nha-forte";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SigningKeyService signingKeyService;
+
+    @Autowired
+    private TokenStoreService tokenStore;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoSpyBean
+    private PasswordHashingService passwordHashing;
+
+    @Value("${security.client-id}")
+    private String clientId;
+
+    @Value("${security.client-secret}")
+    private String clientSecret;
+
+    @BeforeEach
+    public void setUp() {
+
+        if (userRepository.findByEmail(EMAIL).isEmpty()) {
+            UserInsertDTO dto = new UserInsertDTO();
+            dto.setName("Token");
+            dto.setEmail(EMAIL);
+            dto.setPassword(PASSWORD);
+            userService.insert(dto);
+        }
+    }
+
+    @Test
+    public void passwordGrantShouldIssueRefreshToken() throws Exception {
+
+        JsonNode tokens = passwordGrant();
+
+        Assertions.assertTrue(tokens.hasNonNull("access_token"));
+        Assertions.assertTrue(tokens.hasNonNull("refresh_token"));
+    }
+
+    @Test
+    public void refreshGrantShouldRotateTokensWithoutCheckingPassword() throws Exception {
+
+        JsonNode login = passwordGrant();
+        String refreshToken = login.get("refresh_token").asText();
+        Mockito.clearInvocations(passwordEncoder);
+
+        JsonNode renewed = body(refreshGrant(refreshToken).andExpect(status().isOk()));
+
+        Assertions.assertNotEquals(refreshToken, renewed.get("refresh_token").asText());
+        Jwt jwt = jwtDecoder.decode(renewed.get("access_token").asText());
+        Assertions.assertEquals(EMAIL, jwt.getClaimAsString("username"));
+        Assertions.assertNotNull(jwt.getClaim("user_id"));
+        // o segredo do client segue no BCrypt; a senha do usuário não é conferida de novo
+        Mockito.verify(passwordEncoder, Mockito.never()).matches(Mockito.eq(PASSWORD), Mockito.any());
+    }
+
+    @Test
+    public void refreshGrantShouldRejectRefreshTokenAlreadyUsed() throws Exception {
+
+        String refreshToken = passwordGrant().get("refresh_token").asText();
+        refreshGrant(refreshToken).andExpect(status().isOk());
+
+        refreshGrant(refreshToken)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("invalid_grant"));
+    }
+
+    @Test
+    public void refreshGrantShouldReloadAuthoritiesOfUser() throws Exception {
+
+        String refreshToken = passwordGrant().get("refresh_token").asText();
+        jdbcTemplate.update("INSERT INTO tb_user_role (user_id, role_id) SELECT u.id, r.id FROM tb_user u, tb_role r "
+                + "WHERE u.email = ? AND r.authority = 'ROLE_ADMIN'", EMAIL);
+        userCache.invalidate(EMAIL);
+        try {
+            JsonNode renewed = body(refreshGrant(refreshToken).andExpect(status().isOk()));
+
+            Jwt jwt = jwtDecoder.decode(renewed.get("access_token").asText());
+            Assertions.assertTrue(jwt.getClaimAsStringList("authorities").contains("ROLE_ADMIN"));
+        } finally {
+            jdbcTemplate.update("DELETE FROM tb_user_role WHERE user_id = (SELECT id FROM tb_user WHERE email = ?) "
+                    + "AND role_id = (SELECT id FROM tb_role WHERE authority = 'ROLE_ADMIN')", EMAIL);
+            userCache.invalidate(EMAIL);
+        }
+    }
+
+    @Test
+    public void refreshGrantShouldRejectRefreshTokenAfterPasswordChange() throws Exception {
+
+        String refreshToken = passwordGrant().get("refresh_token").asText();
+        User user = new User();
+        user.setEmail(EMAIL);
+        userService.updatePassword(user, passwordEncoder.encode(PASSWORD));
+
+        refreshGrant(refreshToken)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("invalid_grant"));
+    }
+
+    @Test
+    public void refreshGrantShouldRejectRefreshTokenOfRemovedUser() throws Exception {
+
+        String refreshToken = passwordGrant().get("refresh_token").asText();
+        userRepository.delete(userRepository.findByEmail(EMAIL).get());
+        userCache.invalidate(EMAIL);
+
+        refreshGrant(refreshToken)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("invalid_grant"));
+    }
+
+    @Test
+    public void purgeExpiredShouldRemoveAuthorizationsPastRefreshExpiry() throws Exception {
+
+        String refreshToken = passwordGrant().get("refresh_token").asText();
+
+        Assertions.assertTrue(tokenStore.purgeExpiredBefore(Instant.now().plus(Duration.ofDays(31))) > 0);
+
+        refreshGrant(refreshToken)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("invalid_grant"));
+    }
+
+    @Test
+    public void jwkSetShouldPublishSigningKeyAndAllowCaching() throws Exception {
+
+        Jwt jwt = jwtDecoder.decode(passwordGrant().get("access_token").asText());
+
+        JsonNode jwks = body(mockMvc.perform(get("/oauth2/jwks"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=300")));
+
+        Assertions.assertEquals(signingKeyService.signingKey().getKeyID(), jwt.getHeaders().get("kid"));
+        Assertions.assertTrue(jwks.get("keys").findValuesAsText("kid").contains(jwt.getHeaders().get("kid")));
+        Assertions.assertTrue(jwks.get("keys").findValues("d").isEmpty());
+    }
+
+    @Test
+    public void tokenEndpointShouldNotBeCached() throws Exception {
+
+        mockMvc.perform(post("/oauth2/token")
+                .header(HttpHeaders.AUTHORIZATION, basicAuth())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("grant_type", "password")
+                .param("username", EMAIL)
+                .param("password", PASSWORD))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-store")));
+    }
+
+    @Test
+    public void passwordGrantShouldRehashPasswordStoredWithLowerCost() throws Exception {
+
+        User user = new User();
+        user.setEmail(EMAIL);
+        userService.updatePassword(user, new BCryptPasswordEncoder(4).encode(PASSWORD));
+
+        passwordGrant();
+
+        // a regravação roda no pool de hashing, depois da resposta
+        long deadline = System.currentTimeMillis() + 5000;
+        String hash = userRepository.findByEmail(EMAIL).get().getPassword();
+        while (!hash.startsWith("$2a$10$") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            hash = userRepository.findByEmail(EMAIL).get().getPassword();
+        }
+        Assertions.assertTrue(hash.startsWith("$2a$10$"));
+        Assertions.assertTrue(passwordEncoder.matches(PASSWORD, hash));
+    }
+
+    @Test
+    public void passwordGrantShouldReturnServiceUnavailableWhenHashingPoolIsFull() throws Exception {
+
+        Mockito.doThrow(new PasswordHashingBusyException("Servidor ocupado, tente novamente em instantes!"))
+                .when(passwordHashing).matches(Mockito.any(), Mockito.any());
+
+        mockMvc.perform(post("/oauth2/token")
+                .header(HttpHeaders.AUTHORIZATION, basicAuth())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("grant_type", "password")
+                .param("username", EMAIL)
+                .param("password", PASSWORD))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.error").value("temporarily_unavailable"));
+    }
+
+    private JsonNode passwordGrant() throws Exception {
+        return body(mockMvc.perform(post("/oauth2/token")
+                .header(HttpHeaders.AUTHORIZATION, basicAuth())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("grant_type", "password")
+                .param("username", EMAIL)
+                .param("password", PASSWORD))
+                .andExpect(status().isOk()));
+    }
+
+    private ResultActions refreshGrant(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/oauth2/token")
+                .header(HttpHeaders.AUTHORIZATION, basicAuth())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("grant_type", "refresh_token")
+                .param("refresh_token", refreshToken));
+    }
+
+    private JsonNode body(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+
+    private String basicAuth() {
+        return "Basic " + Base64.getEncoder().encodeToString((clientId + ":" + clientSecret).getBytes());
+    }
+}